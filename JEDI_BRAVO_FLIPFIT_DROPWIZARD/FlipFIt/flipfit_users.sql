@@ -0,0 +1,15 @@
+-- Tables for the Hibernate User entity of the Dropwizard service.
+-- MySQL has no sequences, so Hibernate keeps the user_seq generator in a
+-- one-row table and reserves 50 IDs (User.ALLOCATION_SIZE) per update.
+
+CREATE TABLE users (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    email VARCHAR(255)
+);
+
+CREATE TABLE user_seq (
+    next_val BIGINT
+);
+
+INSERT INTO user_seq VALUES (1);
@@ -0,0 +1,91 @@
+package FlipFit;
+
+import FlipFit.benchmark.UserImportCommand;
+import FlipFit.core.CacheMetrics;
+import FlipFit.core.RequestExecutor;
+import FlipFit.core.User;
+import FlipFit.db.UserDAO;
+import FlipFit.resources.BookingResource;
+import FlipFit.resources.CenterResource;
+import FlipFit.resources.SlotResource;
+import FlipFit.resources.UserResource;
+import FlipFit.resources.WaitlistResource;
+import com.flipfit.business.CustomerService;
+import com.flipfit.business.impl.CustomerServiceImpl;
+import com.flipfit.metrics.Instrumented;
+import com.flipfit.metrics.Metrics;
+import com.flipfit.utils.DBConnection;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.dropwizard.core.Application;
+import io.dropwizard.core.setup.Bootstrap;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.hibernate.HibernateBundle;
+import io.dropwizard.lifecycle.Managed;
+import org.hibernate.SessionFactory;
+
+/**
+ * Serves centers, slots, availability, bookings and waitlists over HTTP on top
+ * of the JDBC service layer of the DAO project, and the admin user listing
+ * through Hibernate. Run with
+ * {@code java -jar flipfit.jar server config.yml}.
+ */
+public class FlipFitApplication extends Application<FlipFitConfiguration> {
+
+    private final HibernateBundle<FlipFitConfiguration> hibernate = new HibernateBundle<>(User.class) {
+        @Override
+        public DataSourceFactory getDataSourceFactory(FlipFitConfiguration configuration) {
+            return configuration.getDataSourceFactory();
+        }
+    };
+
+    public static void main(String[] args) throws Exception {
+        new FlipFitApplication().run(args);
+    }
+
+    @Override
+    public String getName() {
+        return "FlipFit";
+    }
+
+    @Override
+    public void initialize(Bootstrap<FlipFitConfiguration> bootstrap) {
+        // Dates and times as 2025-01-31 and 06:00, the form the date query parameters take
+        bootstrap.getObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        bootstrap.addBundle(hibernate);
+        bootstrap.addCommand(new UserImportCommand(this));
+    }
+
+    /** The Hibernate session factory, available from run() on. */
+    public SessionFactory getSessionFactory() {
+        return hibernate.getSessionFactory();
+    }
+
+    @Override
+    public void run(FlipFitConfiguration configuration, Environment environment) {
+        RequestExecutor executor = new RequestExecutor(configuration.getRequestThreads(),
+                configuration.getFixedRequestThreads());
+        environment.lifecycle().manage(executor);
+        environment.lifecycle().manage(new Managed() {
+            @Override
+            public void stop() {
+                DBConnection.shutdown();
+            }
+        });
+
+        // DAO and service latencies, rows and pool gauges; reporters come from -Dflipfit.metrics.reporters
+        Metrics.startConfiguredReporters();
+        CustomerService customerService = Instrumented.wrap(CustomerService.class, new CustomerServiceImpl());
+        environment.jersey().register(new CenterResource(customerService, executor));
+        environment.jersey().register(new SlotResource(customerService, executor));
+        environment.jersey().register(new WaitlistResource(customerService, executor));
+        environment.jersey().register(new BookingResource(customerService, executor));
+
+        CacheMetrics.register(environment.metrics(), getSessionFactory(), "users", User.CACHE_REGION);
+        CacheMetrics.register(environment.metrics(), getSessionFactory(), "user-names", User.NATURAL_ID_CACHE_REGION);
+
+        UserDAO userDAO = new UserDAO(getSessionFactory(), configuration.getUserBatchSize());
+        environment.jersey().register(new UserResource(userDAO, getSessionFactory(), executor,
+                environment.getObjectMapper()));
+    }
+}
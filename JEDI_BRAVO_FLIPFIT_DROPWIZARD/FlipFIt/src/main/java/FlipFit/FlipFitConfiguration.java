@@ -0,0 +1,69 @@
+package FlipFit;
+
+import FlipFit.core.RequestExecutor;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import FlipFit.db.UserDAO;
+import io.dropwizard.core.Configuration;
+import io.dropwizard.db.DataSourceFactory;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class FlipFitConfiguration extends Configuration {
+
+    /** What runs the blocking work of a request once Jetty hands it over. */
+    @NotNull
+    private RequestExecutor.Mode requestThreads = RequestExecutor.Mode.VIRTUAL;
+
+    /** Pool size when requestThreads is FIXED. */
+    @Min(1)
+    private int fixedRequestThreads = 200;
+
+    @Valid
+    @NotNull
+    private DataSourceFactory database = new DataSourceFactory();
+
+    /** Rows per JDBC batch, and per session flush, in UserDAO.createAll. */
+    @Min(1)
+    private int userBatchSize = UserDAO.DEFAULT_BATCH_SIZE;
+
+    @JsonProperty
+    public RequestExecutor.Mode getRequestThreads() {
+        return requestThreads;
+    }
+
+    @JsonProperty
+    public void setRequestThreads(RequestExecutor.Mode requestThreads) {
+        this.requestThreads = requestThreads;
+    }
+
+    @JsonProperty
+    public int getFixedRequestThreads() {
+        return fixedRequestThreads;
+    }
+
+    @JsonProperty
+    public void setFixedRequestThreads(int fixedRequestThreads) {
+        this.fixedRequestThreads = fixedRequestThreads;
+    }
+
+    @JsonProperty("database")
+    public DataSourceFactory getDataSourceFactory() {
+        return database;
+    }
+
+    @JsonProperty("database")
+    public void setDataSourceFactory(DataSourceFactory database) {
+        this.database = database;
+    }
+
+    @JsonProperty
+    public int getUserBatchSize() {
+        return userBatchSize;
+    }
+
+    @JsonProperty
+    public void setUserBatchSize(int userBatchSize) {
+        this.userBatchSize = userBatchSize;
+    }
+}
@@ -0,0 +1,40 @@
+package FlipFit.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+
+public class Availability {
+
+    private final String slotId;
+    private final LocalDate date;
+    private final int availableSeats;
+    private final int waitlisted;
+
+    public Availability(String slotId, LocalDate date, int availableSeats, int waitlisted) {
+        this.slotId = slotId;
+        this.date = date;
+        this.availableSeats = availableSeats;
+        this.waitlisted = waitlisted;
+    }
+
+    @JsonProperty
+    public String getSlotId() {
+        return slotId;
+    }
+
+    @JsonProperty
+    public LocalDate getDate() {
+        return date;
+    }
+
+    @JsonProperty
+    public int getAvailableSeats() {
+        return availableSeats;
+    }
+
+    @JsonProperty
+    public int getWaitlisted() {
+        return waitlisted;
+    }
+}
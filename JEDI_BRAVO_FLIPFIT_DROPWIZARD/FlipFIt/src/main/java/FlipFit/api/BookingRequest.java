@@ -0,0 +1,49 @@
+package FlipFit.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+public class BookingRequest {
+
+    @NotEmpty
+    private String userId;
+
+    @NotEmpty
+    private String slotId;
+
+    @NotNull
+    private LocalDate date;
+
+    @JsonProperty
+    public String getUserId() {
+        return userId;
+    }
+
+    @JsonProperty
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    @JsonProperty
+    public String getSlotId() {
+        return slotId;
+    }
+
+    @JsonProperty
+    public void setSlotId(String slotId) {
+        this.slotId = slotId;
+    }
+
+    @JsonProperty
+    public LocalDate getDate() {
+        return date;
+    }
+
+    @JsonProperty
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+}
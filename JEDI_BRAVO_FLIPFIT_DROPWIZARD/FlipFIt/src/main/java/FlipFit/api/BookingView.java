@@ -0,0 +1,70 @@
+package FlipFit.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.flipfit.bean.Booking;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A booking as returned by the API: the user and slot by ID only, so no user
+ * details (or password) leave the server.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingView {
+
+    private final String bookingId;
+    private final String userId;
+    private final String slotId;
+    private final LocalDate date;
+    private final LocalTime startTime;
+    private final String status;
+    private final String replacedBookingId;
+
+    public BookingView(Booking booking, String replacedBookingId) {
+        this.bookingId = booking.getBookingId();
+        this.userId = booking.getGymUser() == null ? null : booking.getGymUser().getUserId();
+        this.slotId = booking.getGymSlot() == null ? null : booking.getGymSlot().getSlotId();
+        this.date = booking.getBookingDate();
+        this.startTime = booking.getStartTime();
+        this.status = booking.getBookingStatus() == null ? null : booking.getBookingStatus().toString();
+        this.replacedBookingId = replacedBookingId;
+    }
+
+    @JsonProperty
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    @JsonProperty
+    public String getUserId() {
+        return userId;
+    }
+
+    @JsonProperty
+    public String getSlotId() {
+        return slotId;
+    }
+
+    @JsonProperty
+    public LocalDate getDate() {
+        return date;
+    }
+
+    @JsonProperty
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    @JsonProperty
+    public String getStatus() {
+        return status;
+    }
+
+    /** The user's booking at the same time that this one replaced, if any. */
+    @JsonProperty
+    public String getReplacedBookingId() {
+        return replacedBookingId;
+    }
+}
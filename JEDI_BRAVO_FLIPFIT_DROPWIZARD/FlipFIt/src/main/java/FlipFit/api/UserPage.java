@@ -0,0 +1,27 @@
+package FlipFit.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class UserPage {
+
+    private final List<UserSummary> users;
+    private final Long nextAfter;
+
+    public UserPage(List<UserSummary> users, int limit) {
+        this.users = users;
+        this.nextAfter = users.size() < limit ? null : users.get(users.size() - 1).getId();
+    }
+
+    @JsonProperty
+    public List<UserSummary> getUsers() {
+        return users;
+    }
+
+    /** The after parameter for the next page, null on the last page. */
+    @JsonProperty
+    public Long getNextAfter() {
+        return nextAfter;
+    }
+}
@@ -0,0 +1,35 @@
+package FlipFit.api;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The columns of a user shown in listings, selected straight into this class
+ * by UserDAO so no User entity is loaded into the session.
+ */
+public class UserSummary {
+
+    private final Long id;
+    private final String name;
+    private final String email;
+
+    public UserSummary(Long id, String name, String email) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+    }
+
+    @JsonProperty
+    public Long getId() {
+        return id;
+    }
+
+    @JsonProperty
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty
+    public String getEmail() {
+        return email;
+    }
+}
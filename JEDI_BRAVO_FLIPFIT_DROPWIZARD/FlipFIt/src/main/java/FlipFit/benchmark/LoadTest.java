@@ -0,0 +1,104 @@
+package FlipFit.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import FlipFit.core.VirtualThreads;
+
+/**
+ * Keeps a number of requests in flight against a running FlipFit server for a
+ * while and reports throughput and latency percentiles. To compare request
+ * threads, run the same test against the server started with
+ * {@code requestThreads: VIRTUAL} and again with {@code requestThreads: FIXED}:
+ *
+ * <pre>
+ * java -cp flipfit.jar FlipFit.benchmark.LoadTest http://localhost:8080/slots/S1/availability?date=2025-01-31 2000 30
+ * </pre>
+ *
+ * Each client is a virtual thread issuing one request after another, so the
+ * load generator itself does not cap concurrency. Before JDK 21 the clients
+ * are platform threads, one per client.
+ */
+public class LoadTest {
+
+    private static final int MAX_SAMPLES = 5_000_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.out.println("Usage: LoadTest <url> <concurrentClients> <seconds>");
+            return;
+        }
+        URI uri = URI.create(args[0]);
+        int clients = Integer.parseInt(args[1]);
+        long durationNanos = Duration.ofSeconds(Long.parseLong(args[2])).toNanos();
+
+        ExecutorService httpThreads = newThreadPerTaskExecutor("load-http-");
+        HttpClient http = HttpClient.newBuilder()
+                .executor(httpThreads)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+
+        long[] latencies = new long[MAX_SAMPLES];
+        AtomicLong samples = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long end = start + durationNanos;
+        ExecutorService pool = newThreadPerTaskExecutor("load-client-");
+        try {
+            for (int c = 0; c < clients; c++) {
+                pool.execute(() -> {
+                    while (System.nanoTime() < end) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        long i = samples.getAndIncrement();
+                        if (i < MAX_SAMPLES) {
+                            latencies[(int) i] = System.nanoTime() - sent;
+                        }
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        int count = (int) Math.min(samples.get(), MAX_SAMPLES);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        System.out.printf("%d requests from %d clients in %.1f s: %.0f req/s, %d errors%n",
+                samples.get(), clients, seconds, samples.get() / seconds, errors.get());
+        System.out.printf("latency ms p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n", percentile(sorted, 0.50),
+                percentile(sorted, 0.90), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        httpThreads.shutdown();
+    }
+
+    private static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        ExecutorService virtual = VirtualThreads.newThreadPerTaskExecutor(namePrefix);
+        return virtual != null ? virtual : Executors.newCachedThreadPool();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
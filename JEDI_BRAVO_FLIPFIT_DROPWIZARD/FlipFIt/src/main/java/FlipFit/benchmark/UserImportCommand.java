@@ -0,0 +1,81 @@
+package FlipFit.benchmark;
+
+import FlipFit.FlipFitApplication;
+import FlipFit.FlipFitConfiguration;
+import FlipFit.core.User;
+import FlipFit.db.Transactions;
+import FlipFit.db.UserDAO;
+import io.dropwizard.core.cli.EnvironmentCommand;
+import io.dropwizard.core.setup.Environment;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.hibernate.SessionFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports users into the configured database twice, once with UserDAO.create
+ * (a flush per user) and once with UserDAO.createAll, and reports the time
+ * each took:
+ *
+ * <pre>
+ * java -jar flipfit.jar benchmark-user-import config.yml --users 100000
+ * </pre>
+ *
+ * The imported users are left in the database; point it at a scratch schema.
+ */
+public class UserImportCommand extends EnvironmentCommand<FlipFitConfiguration> {
+
+    private final FlipFitApplication application;
+
+    public UserImportCommand(FlipFitApplication application) {
+        super(application, "benchmark-user-import", "Times user imports one by one and in batches");
+        this.application = application;
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+        subparser.addArgument("--users").type(Integer.class).setDefault(100_000).help("users per import");
+    }
+
+    @Override
+    protected void run(Environment environment, Namespace namespace, FlipFitConfiguration configuration) {
+        int count = namespace.getInt("users");
+        SessionFactory sessionFactory = application.getSessionFactory();
+        UserDAO dao = new UserDAO(sessionFactory, configuration.getUserBatchSize());
+        String run = Long.toString(System.currentTimeMillis(), 36); // keeps names unique across runs
+
+        time("create", count, sessionFactory, () -> {
+            List<User> users = users("one-" + run, count);
+            for (int i = 0; i < count; i++) {
+                dao.create(users.get(i));
+                if ((i + 1) % configuration.getUserBatchSize() == 0) {
+                    sessionFactory.getCurrentSession().clear(); // compares round trips, not session size
+                }
+            }
+        });
+        time("createAll, batches of " + configuration.getUserBatchSize(), count, sessionFactory,
+                () -> dao.createAll(users("all-" + run, count)));
+    }
+
+    private static List<User> users(String prefix, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User(prefix + "-" + i, prefix + "-" + i + "@flipfit.test"));
+        }
+        return users;
+    }
+
+    // Runs the import in one transaction
+    private static void time(String label, int count, SessionFactory sessionFactory, Runnable work) {
+        long start = System.nanoTime();
+        Transactions.inTransaction(sessionFactory, false, () -> {
+            work.run();
+            return null;
+        });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %d users in %.1f s, %.0f users/s%n", label, count, seconds, count / seconds);
+    }
+}
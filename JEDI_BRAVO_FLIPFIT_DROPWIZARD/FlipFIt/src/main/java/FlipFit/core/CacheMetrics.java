@@ -0,0 +1,55 @@
+package FlipFit.core;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.RatioGauge;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import javax.cache.Caching;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Publishes the hits, misses, puts and size of second-level cache regions as
+ * Dropwizard metrics, read from Hibernate's statistics (which needs
+ * hibernate.generate_statistics) each time a reporter polls them. The JCache
+ * regions do not count their entries, so the size comes from Caffeine.
+ */
+public final class CacheMetrics {
+
+    private CacheMetrics() {
+    }
+
+    /** Registers gauges named cache.{name}.hits, misses, puts, size and hit-ratio. */
+    public static void register(MetricRegistry metrics, SessionFactory sessionFactory, String name, String region) {
+        Statistics statistics = sessionFactory.getStatistics();
+        String prefix = MetricRegistry.name("cache", name);
+        metrics.register(MetricRegistry.name(prefix, "hits"),
+                (Gauge<Long>) () -> regionStatistics(statistics, region).getHitCount());
+        metrics.register(MetricRegistry.name(prefix, "misses"),
+                (Gauge<Long>) () -> regionStatistics(statistics, region).getMissCount());
+        metrics.register(MetricRegistry.name(prefix, "puts"),
+                (Gauge<Long>) () -> regionStatistics(statistics, region).getPutCount());
+        metrics.register(MetricRegistry.name(prefix, "size"),
+                (Gauge<Long>) () -> estimatedSize(region));
+        metrics.register(MetricRegistry.name(prefix, "hit-ratio"), new RatioGauge() {
+            @Override
+            protected Ratio getRatio() {
+                CacheRegionStatistics stats = regionStatistics(statistics, region);
+                return Ratio.of(stats.getHitCount(), stats.getHitCount() + stats.getMissCount());
+            }
+        });
+    }
+
+    /** Entries in the region's Caffeine cache, 0 until Hibernate creates it. */
+    private static long estimatedSize(String region) {
+        javax.cache.Cache<Object, Object> cache = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager().getCache(region);
+        return cache == null ? 0 : cache.unwrap(Cache.class).estimatedSize();
+    }
+
+    private static CacheRegionStatistics regionStatistics(Statistics statistics, String region) {
+        return statistics.getDomainDataRegionStatistics(region);
+    }
+}
@@ -0,0 +1,77 @@
+package FlipFit.core;
+
+import io.dropwizard.lifecycle.Managed;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.container.AsyncResponse;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the blocking part of a request (the JDBC calls of the service layer)
+ * off the Jetty thread that accepted it, and resumes the suspended response
+ * with the result. With VIRTUAL every request gets its own virtual thread,
+ * so thousands of requests can wait on the database without thousands of
+ * platform threads; FIXED uses a bounded pool of platform threads instead and
+ * is kept for comparison. Virtual threads need JDK 21; on an older runtime
+ * VIRTUAL falls back to FIXED with a warning.
+ *
+ * Either way no more requests reach MySQL at once than the connection pool
+ * has connections: the rest wait in ConnectionPool.getConnection, which
+ * parks a virtual thread rather than blocking its carrier.
+ */
+public class RequestExecutor implements Managed {
+
+    public enum Mode { VIRTUAL, FIXED }
+
+    private final ExecutorService executor;
+
+    public RequestExecutor(Mode mode, int fixedThreads) {
+        ExecutorService virtual = mode == Mode.VIRTUAL ? VirtualThreads.newThreadPerTaskExecutor("flipfit-request-") : null;
+        if (virtual != null) {
+            executor = virtual;
+        } else {
+            if (mode == Mode.VIRTUAL) {
+                System.err.println("Virtual threads need JDK 21 or later; running requests on "
+                        + fixedThreads + " platform threads instead");
+            }
+            AtomicInteger count = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(fixedThreads,
+                    r -> new Thread(r, "flipfit-request-" + count.getAndIncrement()));
+        }
+    }
+
+    /**
+     * Runs work and resumes the response with what it returns, or with what
+     * it throws; a WebApplicationException keeps its status.
+     */
+    public void execute(AsyncResponse response, Callable<?> work) {
+        try {
+            executor.execute(() -> {
+                try {
+                    response.resume(work.call());
+                } catch (Throwable e) {
+                    response.resume(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            response.resume(new ServiceUnavailableException("Server is shutting down"));
+        }
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package FlipFit.core;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.NamedQueries;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
+/**
+ * IDs come from a pooled generator that reserves ALLOCATION_SIZE values per
+ * round trip, so inserts can be batched; an identity column would need the
+ * generated key of every row back before the next insert.
+ *
+ * Users are kept in the second-level cache, and names in the natural-id
+ * cache, so lookups by either skip the database until the entry expires
+ * (see application.conf). READ_WRITE replaces a cached user when an update
+ * or delete commits.
+ */
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.NATURAL_ID_CACHE_REGION)
+@Table(name = "users")
+@NamedQueries({
+        @NamedQuery(name = "FlipFit.core.User.findAll", query = "SELECT u FROM User u"),
+        @NamedQuery(name = "FlipFit.core.User.findByName", query = "SELECT u FROM User u WHERE u.name = :name"),
+        @NamedQuery(name = "FlipFit.core.User.findSummariesAfter",
+                query = "SELECT new FlipFit.api.UserSummary(u.id, u.name, u.email) FROM User u "
+                        + "WHERE u.id > :lastId ORDER BY u.id")
+})
+public class User {
+
+    public static final int ALLOCATION_SIZE = 50;
+
+    /**
+     * Cache region names. Caffeine reads a region's settings from the config
+     * path caffeine.jcache.{region}, so the names must not contain dots.
+     */
+    public static final String CACHE_REGION = "users";
+    public static final String NATURAL_ID_CACHE_REGION = "user-names";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = ALLOCATION_SIZE)
+    private Long id;
+
+    @NaturalId(mutable = true)
+    @Column(name = "name", nullable = false, unique = true)
+    private String name;
+
+    @Column(name = "email")
+    private String email;
+
+    public User() {
+    }
+
+    public User(String name, String email) {
+        this.name = name;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof User)) {
+            return false;
+        }
+        User that = (User) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode(); // stays the same when persisting assigns the ID
+    }
+}
@@ -0,0 +1,36 @@
+package FlipFit.core;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual threads where the runtime has them. The project builds on JDK 17,
+ * where Thread.ofVirtual and Executors.newThreadPerTaskExecutor do not exist,
+ * so they are looked up reflectively and callers fall back to platform
+ * threads when they are missing.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * An executor starting a new virtual thread per task, named prefix0,
+     * prefix1 and so on.
+     *
+     * @return the executor, or null on a runtime without virtual threads (before JDK 21)
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package FlipFit.db;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.context.internal.ManagedSessionContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Runs DAO calls in a session of their own, for code outside a @UnitOfWork
+ * resource method, such as work on RequestExecutor threads or commands.
+ */
+public final class Transactions {
+
+    private Transactions() {
+    }
+
+    /**
+     * Opens a session, binds it as the DAOs' current session and runs work in
+     * a transaction, committed if work returns and rolled back if it throws.
+     */
+    public static <T> T inTransaction(SessionFactory sessionFactory, boolean readOnly, Supplier<T> work) {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(readOnly);
+            ManagedSessionContext.bind(session);
+            Transaction transaction = session.beginTransaction();
+            try {
+                T result = work.get();
+                transaction.commit();
+                return result;
+            } catch (RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            } finally {
+                ManagedSessionContext.unbind(sessionFactory);
+            }
+        }
+    }
+}
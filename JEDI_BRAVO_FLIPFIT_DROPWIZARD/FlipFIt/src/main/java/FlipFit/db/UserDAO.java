@@ -1,25 +1,46 @@
 package FlipFit.db;
 
+import FlipFit.api.UserSummary;
 import FlipFit.core.User;
 import io.dropwizard.hibernate.AbstractDAO;
+import org.hibernate.Cache;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class UserDAO extends AbstractDAO<User> {
+    public static final int DEFAULT_BATCH_SIZE = 50;
+
+    /** Rows per round trip when streaming; needs useCursorFetch=true on the MySQL URL. */
+    public static final int STREAM_FETCH_SIZE = 1000;
+
+    private final int batchSize;
+
     public UserDAO(SessionFactory factory) {
+        this(factory, DEFAULT_BATCH_SIZE);
+    }
+
+    public UserDAO(SessionFactory factory, int batchSize) {
         super(factory);
+        this.batchSize = batchSize;
     }
 
     public Optional<User> findById(Long id) {
         return Optional.ofNullable(get(id));
     }
 
+    /** Resolves the name through the natural-id cache, then loads the user as findById does. */
     public Optional<User> findByName(String name) {
-        return currentSession().createNamedQuery("FlipFit.core.User.findByName", User.class)
-                .setParameter("name", name)
-                .uniqueResultOptional();
+        return currentSession().bySimpleNaturalId(User.class).loadOptional(name);
     }
 
     public User create(User user) {
@@ -28,6 +49,36 @@ public class UserDAO extends AbstractDAO<User> {
         return user;
     }
 
+    public List<User> createAll(List<User> users) {
+        return createAll(users, batchSize);
+    }
+
+    /**
+     * Inserts users in JDBC batches of batchSize rows. The session is flushed
+     * and cleared after every batch so it never holds more than one batch of
+     * entities, which leaves the users detached, along with anything else the
+     * current session had loaded.
+     */
+    public List<User> createAll(List<User> users, int batchSize) {
+        Session session = currentSession();
+        Integer previousBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(batchSize);
+        try {
+            for (int i = 0; i < users.size(); i++) {
+                session.persist(users.get(i));
+                if ((i + 1) % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.flush();
+            session.clear();
+        } finally {
+            session.setJdbcBatchSize(previousBatchSize);
+        }
+        return users;
+    }
+
     public User update(User user) {
         return persist(user);
     }
@@ -36,7 +87,63 @@ public class UserDAO extends AbstractDAO<User> {
         currentSession().delete(user);
     }
 
+    /**
+     * Drops a user from the caches, for a row changed without Hibernate. The
+     * natural-id cache can only be emptied as a whole, which costs one lookup
+     * per cached name.
+     */
+    public void evict(Long id) {
+        Cache cache = currentSession().getSessionFactory().getCache();
+        cache.evictEntityData(User.class, id);
+        cache.evictNaturalIdData(User.class);
+    }
+
+    /** Empties both user caches, e.g. after a bulk import or fix-up in SQL. */
+    public void evictAll() {
+        Cache cache = currentSession().getSessionFactory().getCache();
+        cache.evictEntityData(User.class);
+        cache.evictNaturalIdData(User.class);
+    }
+
+    /** Loads every user as a managed entity; use findAfter or streamAll for listings. */
     public List<User> findAll() {
         return currentSession().createNamedQuery("FlipFit.core.User.findAll", User.class).getResultList();
     }
+
+    /**
+     * One page of users in ID order, starting after lastId (0 for the first
+     * page). Each page is an index range scan on the primary key, however deep.
+     */
+    public List<UserSummary> findAfter(long lastId, int limit) {
+        return currentSession().createNamedQuery("FlipFit.core.User.findSummariesAfter", UserSummary.class)
+                .setParameter("lastId", lastId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Every user in ID order, read through a forward-only cursor a fetch at a
+     * time. Summaries are not managed, so the session does not grow. The stream
+     * must be closed, and consumed inside the current session's transaction.
+     */
+    public Stream<UserSummary> streamAll() {
+        ScrollableResults<UserSummary> results = currentSession()
+                .createNamedQuery("FlipFit.core.User.findSummariesAfter", UserSummary.class)
+                .setParameter("lastId", 0L)
+                .setFetchSize(STREAM_FETCH_SIZE)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        Spliterator<UserSummary> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super UserSummary> action) {
+                if (!results.next()) {
+                    return false;
+                }
+                action.accept(results.get());
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(results::close);
+    }
 }
\ No newline at end of file
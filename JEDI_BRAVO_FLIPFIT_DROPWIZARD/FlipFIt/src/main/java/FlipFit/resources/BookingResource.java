@@ -0,0 +1,78 @@
+package FlipFit.resources;
+
+import FlipFit.api.BookingRequest;
+import FlipFit.api.BookingView;
+import FlipFit.core.RequestExecutor;
+import com.flipfit.bean.BookingResult;
+import com.flipfit.business.CustomerService;
+import com.flipfit.exception.BookingFailedException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+@Path("/bookings")
+@Produces(MediaType.APPLICATION_JSON)
+public class BookingResource {
+
+    private final CustomerService customerService;
+    private final RequestExecutor executor;
+
+    public BookingResource(CustomerService customerService, RequestExecutor executor) {
+        this.customerService = customerService;
+        this.executor = executor;
+    }
+
+    /**
+     * Books a seat, or a place on the waitlist when the slot is full. A
+     * booking the user already had at the same time is cancelled. Answers 404
+     * for an unknown slot and 503 when the database fails.
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    public void book(@NotNull @Valid BookingRequest request, @Suspended AsyncResponse response) {
+        executor.execute(response, () -> {
+            BookingResult result;
+            try {
+                result = customerService.bookSlotTransactional(request.getUserId(), request.getSlotId(),
+                        request.getDate());
+            } catch (BookingFailedException e) {
+                throw new ServiceUnavailableException(e.getMessage());
+            }
+            if (result == null) {
+                throw new NotFoundException("No slot " + request.getSlotId());
+            }
+            return Response.status(Response.Status.CREATED)
+                    .entity(new BookingView(result.getBooking(), result.getCancelledBookingId()))
+                    .build();
+        });
+    }
+
+    /** Cancels a booking; a freed seat goes to the head of the waitlist. */
+    @DELETE
+    @Path("/{bookingId}")
+    public void cancel(@PathParam("bookingId") String bookingId, @Suspended AsyncResponse response) {
+        executor.execute(response, () -> {
+            BookingResult result;
+            try {
+                result = customerService.cancelBookingTransactional(bookingId);
+            } catch (BookingFailedException e) {
+                throw new ServiceUnavailableException(e.getMessage());
+            }
+            if (result == null) {
+                throw new NotFoundException("No active booking " + bookingId);
+            }
+            return Response.noContent().build();
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package FlipFit.resources;
+
+import FlipFit.core.RequestExecutor;
+import com.flipfit.business.CustomerService;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.MediaType;
+
+@Path("/centers")
+@Produces(MediaType.APPLICATION_JSON)
+public class CenterResource {
+
+    private final CustomerService customerService;
+    private final RequestExecutor executor;
+
+    public CenterResource(CustomerService customerService, RequestExecutor executor) {
+        this.customerService = customerService;
+        this.executor = executor;
+    }
+
+    /** Approved centers in a city, tolerating case, prefixes and typos. */
+    @GET
+    public void search(@QueryParam("city") String city, @Suspended AsyncResponse response) {
+        if (city == null || city.isBlank()) {
+            throw new BadRequestException("city is required");
+        }
+        executor.execute(response, () -> customerService.viewGymsByCity(city));
+    }
+
+    @GET
+    @Path("/{centerId}/slots")
+    public void slots(@PathParam("centerId") String centerId, @Suspended AsyncResponse response) {
+        executor.execute(response, () -> customerService.viewSlots(centerId));
+    }
+}
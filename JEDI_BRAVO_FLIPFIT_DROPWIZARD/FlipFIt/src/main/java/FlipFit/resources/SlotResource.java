@@ -0,0 +1,70 @@
+package FlipFit.resources;
+
+import FlipFit.api.Availability;
+import FlipFit.core.RequestExecutor;
+import com.flipfit.bean.GymSlot;
+import com.flipfit.business.CustomerService;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.MediaType;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+@Path("/slots/{slotId}")
+@Produces(MediaType.APPLICATION_JSON)
+public class SlotResource {
+
+    private final CustomerService customerService;
+    private final RequestExecutor executor;
+
+    public SlotResource(CustomerService customerService, RequestExecutor executor) {
+        this.customerService = customerService;
+        this.executor = executor;
+    }
+
+    @GET
+    public void get(@PathParam("slotId") String slotId, @Suspended AsyncResponse response) {
+        executor.execute(response, () -> findSlot(slotId));
+    }
+
+    /** Free seats in the slot on the date and how many bookings wait for one. */
+    @GET
+    @Path("/availability")
+    public void availability(@PathParam("slotId") String slotId, @QueryParam("date") String date,
+                             @Suspended AsyncResponse response) {
+        LocalDate day = parseDate(date);
+        executor.execute(response, () -> new Availability(slotId, day,
+                checkFound(slotId, customerService.viewSlot(slotId, day)).getAvailableSeats(),
+                customerService.viewWaitlist(slotId, day).size()));
+    }
+
+    private GymSlot findSlot(String slotId) {
+        return checkFound(slotId, customerService.viewSlot(slotId));
+    }
+
+    private static GymSlot checkFound(String slotId, GymSlot slot) {
+        if (slot == null) {
+            throw new NotFoundException("No slot " + slotId);
+        }
+        return slot;
+    }
+
+    static LocalDate parseDate(String date) {
+        if (date == null) {
+            throw new BadRequestException("date is required");
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("date must look like 2025-01-31");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package FlipFit.resources;
+
+import FlipFit.api.UserPage;
+import FlipFit.api.UserSummary;
+import FlipFit.core.RequestExecutor;
+import FlipFit.core.User;
+import FlipFit.db.Transactions;
+import FlipFit.db.UserDAO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.hibernate.SessionFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Admin user listing: keyset pages, a full export streamed from a cursor, and
+ * lookups by ID or name served from the second-level cache.
+ */
+@Path("/users")
+@Produces(MediaType.APPLICATION_JSON)
+public class UserResource {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private final UserDAO userDAO;
+    private final SessionFactory sessionFactory;
+    private final RequestExecutor executor;
+    private final ObjectWriter rowWriter;
+
+    public UserResource(UserDAO userDAO, SessionFactory sessionFactory, RequestExecutor executor,
+                        ObjectMapper objectMapper) {
+        this.userDAO = userDAO;
+        this.sessionFactory = sessionFactory;
+        this.executor = executor;
+        this.rowWriter = objectMapper.writerFor(UserSummary.class);
+    }
+
+    /** Users with IDs above after, in ID order; pass the page's nextAfter to get the next one. */
+    @GET
+    public void list(@QueryParam("after") @DefaultValue("0") long after,
+                     @QueryParam("limit") @DefaultValue("100") int limit,
+                     @Suspended AsyncResponse response) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        executor.execute(response, () -> new UserPage(
+                Transactions.inTransaction(sessionFactory, true, () -> userDAO.findAfter(after, pageSize)), pageSize));
+    }
+
+    @GET
+    @Path("/{id}")
+    public void get(@PathParam("id") long id, @Suspended AsyncResponse response) {
+        executor.execute(response, () -> summary(
+                Transactions.inTransaction(sessionFactory, true, () -> userDAO.findById(id))));
+    }
+
+    @GET
+    @Path("/by-name/{name}")
+    public void getByName(@PathParam("name") String name, @Suspended AsyncResponse response) {
+        executor.execute(response, () -> summary(
+                Transactions.inTransaction(sessionFactory, true, () -> userDAO.findByName(name))));
+    }
+
+    private static UserSummary summary(Optional<User> user) {
+        return user.map(u -> new UserSummary(u.getId(), u.getName(), u.getEmail()))
+                .orElseThrow(() -> new NotFoundException("No such user"));
+    }
+
+    /** Every user as newline-delimited JSON, written as rows arrive from the database. */
+    @GET
+    @Path("/export")
+    @Produces("application/x-ndjson")
+    public Response export() {
+        StreamingOutput body = output -> {
+            OutputStream out = new BufferedOutputStream(output);
+            try {
+                Transactions.inTransaction(sessionFactory, true, () -> {
+                    try (Stream<UserSummary> users = userDAO.streamAll()) {
+                        Iterator<UserSummary> it = users.iterator();
+                        while (it.hasNext()) {
+                            out.write(rowWriter.writeValueAsBytes(it.next()));
+                            out.write('\n');
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return null;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return Response.ok(body).build();
+    }
+}
@@ -0,0 +1,39 @@
+package FlipFit.resources;
+
+import FlipFit.api.BookingView;
+import FlipFit.core.RequestExecutor;
+import com.flipfit.business.CustomerService;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
+import jakarta.ws.rs.core.MediaType;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+@Path("/slots/{slotId}/waitlist")
+@Produces(MediaType.APPLICATION_JSON)
+public class WaitlistResource {
+
+    private final CustomerService customerService;
+    private final RequestExecutor executor;
+
+    public WaitlistResource(CustomerService customerService, RequestExecutor executor) {
+        this.customerService = customerService;
+        this.executor = executor;
+    }
+
+    /** The waitlist for the slot on a date, in the order freed seats are handed out. */
+    @GET
+    public void list(@PathParam("slotId") String slotId, @QueryParam("date") String date,
+                     @Suspended AsyncResponse response) {
+        LocalDate day = SlotResource.parseDate(date);
+        executor.execute(response, () -> customerService.viewWaitlist(slotId, day).stream()
+                .map(booking -> new BookingView(booking, null))
+                .collect(Collectors.toList()));
+    }
+}
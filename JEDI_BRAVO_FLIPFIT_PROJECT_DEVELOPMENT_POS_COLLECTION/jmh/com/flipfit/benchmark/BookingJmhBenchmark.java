@@ -0,0 +1,131 @@
+package com.flipfit.benchmark;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.flipfit.bean.Booking;
+import com.flipfit.bean.GymCenter;
+
+/**
+ * JMH benchmarks of the operations in {@link BookingBenchmark}, against the same
+ * synthetic DataStore. Each mode reports throughput and the latency percentiles
+ * of sampled calls; add {@code -prof gc} for the allocation rate per operation.
+ *
+ * <pre>
+ * mvn -B package
+ * java -jar target/benchmarks.jar -prof gc
+ * java -jar target/benchmarks.jar -p bookings=10000 -prof gc viewCentersByCity
+ * </pre>
+ *
+ * DataStore is static, so every benchmark and size runs in a fresh fork.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class BookingJmhBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Store {
+		@Param({ "10000", "100000", "1000000", "10000000" })
+		public int bookings;
+
+		BookingBenchmark fixture;
+
+		@Setup(Level.Trial)
+		public void populate() {
+			fixture = new BookingBenchmark();
+			fixture.populate(bookings);
+		}
+	}
+
+	/**
+	 * Runs one of the stateful operations, with its untimed setUp before every
+	 * call and its tearDown once the trial is over.
+	 */
+	public abstract static class OperationState {
+		BenchmarkRunner.Operation operation;
+
+		abstract BenchmarkRunner.Operation create(BookingBenchmark fixture);
+
+		@Setup(Level.Trial)
+		public void open(Store store) {
+			operation = create(store.fixture);
+		}
+
+		@Setup(Level.Invocation)
+		public void setUp() {
+			operation.setUp();
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() {
+			operation.tearDown();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class CreateBooking extends OperationState {
+		@Override
+		BenchmarkRunner.Operation create(BookingBenchmark fixture) {
+			return fixture.createBooking();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class CancelBooking extends OperationState {
+		@Override
+		BenchmarkRunner.Operation create(BookingBenchmark fixture) {
+			return fixture.cancelBooking();
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class ModifyBooking extends OperationState {
+		@Override
+		BenchmarkRunner.Operation create(BookingBenchmark fixture) {
+			return fixture.modifyBooking();
+		}
+	}
+
+	@Benchmark
+	public void createBooking(CreateBooking state) {
+		state.operation.run();
+	}
+
+	@Benchmark
+	public void cancelBooking(CancelBooking state) {
+		state.operation.run();
+	}
+
+	@Benchmark
+	public void modifyBooking(ModifyBooking state) {
+		state.operation.run();
+	}
+
+	@Benchmark
+	public List<GymCenter> viewCentersByCity(Store store) {
+		return store.fixture.customerService.viewCentersByCity(store.fixture.randomCity());
+	}
+
+	@Benchmark
+	public Collection<Booking> viewBookingsForOwner(Store store) {
+		return store.fixture.gymOwnerService.viewBookingsForOwner(store.fixture.randomOwner());
+	}
+}
@@ -1,13 +1,17 @@
 package com.flipfit.bean;
 //added a commment
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+
 import com.flipfit.enums.BookingStatus;
 
 public class Booking {
 	private String BookingId ;
 	private GymUser gymUser ;
 	private GymSlot gymSlot ;
-	private String dateAndTime ;
+	private LocalDate bookingDate ;
+	private LocalTime startTime ;
 	private BookingStatus bookingStatus;
 	
 	public String getBookingId() {
@@ -29,11 +33,28 @@ public class Booking {
 	public void setGymSlot(GymSlot gymSlot) {
 		this.gymSlot = gymSlot;
 	}
+	public LocalDate getBookingDate() {
+		return bookingDate;
+	}
+	public void setBookingDate(LocalDate bookingDate) {
+		this.bookingDate = bookingDate;
+	}
+	public LocalTime getStartTime() {
+		return startTime;
+	}
+	public void setStartTime(LocalTime startTime) {
+		this.startTime = startTime;
+	}
+	// For display only, e.g. "2027-01-05 06:00"; compare with getStartEpochMinute
 	public String getDateAndTime() {
-		return dateAndTime;
+		return bookingDate == null ? null : bookingDate + " " + startTime;
+	}
+	// Minutes since 1970-01-01 00:00 at which the booking starts
+	public long getStartEpochMinute() {
+		return epochMinute(bookingDate, startTime);
 	}
-	public void setDateAndTime(String dateAndTime) {
-		this.dateAndTime = dateAndTime;
+	public static long epochMinute(LocalDate date, LocalTime time) {
+		return date.toEpochDay() * 1440 + time.getHour() * 60 + time.getMinute();
 	}
 	public BookingStatus getBookingStatus() {
 		return bookingStatus;
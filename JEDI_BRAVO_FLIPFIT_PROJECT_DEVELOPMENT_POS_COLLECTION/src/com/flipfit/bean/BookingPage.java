@@ -0,0 +1,47 @@
+package com.flipfit.bean;
+
+import java.util.List;
+
+/**
+ * One page of bookings, in date and time order.
+ */
+public class BookingPage {
+
+	private List<Booking> bookings;
+	private int page;
+	private int pageSize;
+	private boolean hasNext;
+
+	public List<Booking> getBookings() {
+		return bookings;
+	}
+
+	public void setBookings(List<Booking> bookings) {
+		this.bookings = bookings;
+	}
+
+	// 1-based
+	public int getPage() {
+		return page;
+	}
+
+	public void setPage(int page) {
+		this.page = page;
+	}
+
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	public void setPageSize(int pageSize) {
+		this.pageSize = pageSize;
+	}
+
+	public boolean hasNext() {
+		return hasNext;
+	}
+
+	public void setHasNext(boolean hasNext) {
+		this.hasNext = hasNext;
+	}
+}
@@ -9,6 +9,7 @@ public class GymCenter {
 	private String centerCity;
 	private String ownerId;
 	private List<GymSlot> centerSlot;
+	private boolean approved;
 
 	public String getCenterId() {
 		return centerId;
@@ -49,4 +50,12 @@ public class GymCenter {
 	public void setOwnerId(String ownerId) {
 		this.ownerId = ownerId;
 	}
+
+	public boolean isApproved() {
+		return approved;
+	}
+
+	public void setApproved(boolean approved) {
+		this.approved = approved;
+	}
 }
@@ -5,6 +5,7 @@ import java.time.LocalTime;
 /**
  * Represents a specific time slot at a gym center.
  * Handles availability logic for the booking service.
+ * The seat counters are updated atomically so a slot can be shared between threads.
  */
 public class GymSlot {
 	private String slotId;
@@ -37,33 +38,33 @@ public class GymSlot {
 		this.endTime = endTime;
 	}
 
-	public int getTotalSeats() {
+	public synchronized int getTotalSeats() {
 		return totalSeats;
 	}
 
-	public void setTotalSeats(int totalSeats) {
+	public synchronized void setTotalSeats(int totalSeats) {
 		this.totalSeats = totalSeats;
 	}
 
-	public int getAvailableSeats() {
+	public synchronized int getAvailableSeats() {
 		return availableSeats;
 	}
 
-	public void setAvailableSeats(int availableSeats) {
+	public synchronized void setAvailableSeats(int availableSeats) {
 		this.availableSeats = availableSeats;
 	}
 
-	public boolean isAvailable() {
+	public synchronized boolean isAvailable() {
 		return availableSeats > 0;
 	}
 
-	public void decreaseAvailability() {
+	public synchronized void decreaseAvailability() {
 		if (availableSeats > 0) {
 			availableSeats--;
 		}
 	}
 
-	public void increaseAvailability() {
+	public synchronized void increaseAvailability() {
 		if (availableSeats < totalSeats) {
 			availableSeats++;
 		}
@@ -1,5 +1,109 @@
 package com.flipfit.bean;
 
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FIFO waitlist for one slot on one date.
+ *
+ * Every entry gets a ticket number, and tickets stay contiguous from the head
+ * of the queue, so a booking's position is its ticket minus the head ticket.
+ * Joining, promoting the head and looking up a position are O(1); withdrawing
+ * from the middle of the queue is O(n) because later tickets move up.
+ */
 public class GymWaitList {
+	private final String slotId;
+	private final LocalDate date;
+	private final ArrayDeque<Booking> queue = new ArrayDeque<>();
+	private final Map<String, Long> tickets = new HashMap<>();
+	private long headTicket;
+
+	public GymWaitList(String slotId, LocalDate date) {
+		this.slotId = slotId;
+		this.date = date;
+	}
+
+	public String getSlotId() {
+		return slotId;
+	}
+
+	public LocalDate getDate() {
+		return date;
+	}
+
+	/**
+	 * Adds a booking to the back of the queue.
+	 *
+	 * @return the booking's 1-based position
+	 */
+	public synchronized int enqueue(Booking booking) {
+		long ticket = headTicket + queue.size();
+		queue.addLast(booking);
+		tickets.put(booking.getBookingId(), ticket);
+		return queue.size();
+	}
+
+	/**
+	 * Removes and returns the booking at the head of the queue, or null if empty.
+	 */
+	public synchronized Booking poll() {
+		Booking head = queue.pollFirst();
+		if (head != null) {
+			tickets.remove(head.getBookingId());
+			headTicket++;
+		}
+		return head;
+	}
+
+	/**
+	 * The booking's 1-based position in the queue, or 0 if it is not waiting.
+	 */
+	public synchronized int positionOf(String bookingId) {
+		Long ticket = tickets.get(bookingId);
+		return ticket == null ? 0 : (int) (ticket - headTicket) + 1;
+	}
+
+	/**
+	 * Takes a booking out of the queue wherever it is.
+	 *
+	 * @return the withdrawn booking, or null if it was not waiting
+	 */
+	public synchronized Booking withdraw(String bookingId) {
+		Long ticket = tickets.remove(bookingId);
+		if (ticket == null) {
+			return null;
+		}
+		Booking withdrawn = null;
+		Iterator<Booking> it = queue.iterator();
+		while (it.hasNext()) {
+			Booking booking = it.next();
+			if (withdrawn != null) {
+				tickets.put(booking.getBookingId(), tickets.get(booking.getBookingId()) - 1);
+			} else if (booking.getBookingId().equals(bookingId)) {
+				withdrawn = booking;
+				it.remove();
+			}
+		}
+		return withdrawn;
+	}
+
+	public synchronized int size() {
+		return queue.size();
+	}
+
+	public synchronized boolean isEmpty() {
+		return queue.isEmpty();
+	}
 
+	/**
+	 * The waiting bookings in queue order.
+	 */
+	public synchronized List<Booking> getBookings() {
+		return new ArrayList<>(queue);
+	}
 }
@@ -0,0 +1,139 @@
+package com.flipfit.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Runs one benchmark operation in a loop for a fixed time and reports
+ * throughput, latency percentiles and bytes allocated per operation.
+ *
+ * Each operation is timed on its own with System.nanoTime, and allocation is
+ * read from the current thread's allocation counter before and after it, so
+ * the untimed setUp step does not count towards either figure.
+ */
+public class BenchmarkRunner {
+
+	/**
+	 * A single benchmarked operation.
+	 */
+	public interface Operation {
+		/** Untimed preparation for the next call to run, e.g. creating a booking to cancel. */
+		default void setUp() {
+		}
+
+		void run();
+
+		/** Untimed cleanup once measurement is over. */
+		default void tearDown() {
+		}
+	}
+
+	private final long warmupMillis;
+	private final long measureMillis;
+	private final com.sun.management.ThreadMXBean threads;
+
+	public BenchmarkRunner(long warmupMillis, long measureMillis) {
+		this.warmupMillis = warmupMillis;
+		this.measureMillis = measureMillis;
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean
+				&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+			this.threads = (com.sun.management.ThreadMXBean) bean;
+			this.threads.setThreadAllocatedMemoryEnabled(true);
+		} else {
+			this.threads = null;
+		}
+	}
+
+	public Result run(String name, Operation operation) {
+		loop(operation, warmupMillis, null);
+		Result result = new Result(name);
+		loop(operation, measureMillis, result);
+		operation.tearDown();
+		return result;
+	}
+
+	private void loop(Operation operation, long millis, Result result) {
+		long deadline = System.nanoTime() + millis * 1_000_000L;
+		long threadId = Thread.currentThread().getId();
+		while (System.nanoTime() < deadline) {
+			operation.setUp();
+			long allocatedBefore = threads != null ? threads.getThreadAllocatedBytes(threadId) : 0;
+			long start = System.nanoTime();
+			operation.run();
+			long elapsed = System.nanoTime() - start;
+			long allocatedAfter = threads != null ? threads.getThreadAllocatedBytes(threadId) : 0;
+			if (result != null) {
+				result.record(elapsed, allocatedAfter - allocatedBefore);
+			}
+		}
+	}
+
+	public static void printHeader() {
+		System.out.printf("%-22s %10s %12s %10s %10s %10s %10s %10s %12s%n", "benchmark", "ops", "ops/s",
+				"p50(us)", "p90(us)", "p99(us)", "p99.9(us)", "max(us)", "alloc(B/op)");
+	}
+
+	/**
+	 * Latencies and allocation recorded for one benchmark.
+	 */
+	public static class Result {
+		private final String name;
+		private long[] latencies = new long[1024];
+		private long[] sorted;
+		private int count;
+		private long totalNanos;
+		private long totalAllocated;
+
+		private Result(String name) {
+			this.name = name;
+		}
+
+		private void record(long nanos, long allocated) {
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = nanos;
+			sorted = null;
+			totalNanos += nanos;
+			totalAllocated += allocated;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getOperations() {
+			return count;
+		}
+
+		public double getOpsPerSecond() {
+			return totalNanos == 0 ? 0 : count * 1_000_000_000d / totalNanos;
+		}
+
+		public double getAllocatedBytesPerOp() {
+			return count == 0 ? 0 : (double) totalAllocated / count;
+		}
+
+		/**
+		 * Latency at the given percentile (0-100) in microseconds.
+		 */
+		public double percentileMicros(double percentile) {
+			if (count == 0) {
+				return 0;
+			}
+			if (sorted == null) {
+				sorted = Arrays.copyOf(latencies, count);
+				Arrays.sort(sorted);
+			}
+			int index = (int) Math.ceil(percentile / 100d * count) - 1;
+			return sorted[Math.max(0, Math.min(count - 1, index))] / 1000d;
+		}
+
+		public void print() {
+			System.out.printf("%-22s %10d %12.1f %10.2f %10.2f %10.2f %10.2f %10.2f %12.1f%n", name, count,
+					getOpsPerSecond(), percentileMicros(50), percentileMicros(90), percentileMicros(99),
+					percentileMicros(99.9), percentileMicros(100), getAllocatedBytesPerOp());
+		}
+	}
+}
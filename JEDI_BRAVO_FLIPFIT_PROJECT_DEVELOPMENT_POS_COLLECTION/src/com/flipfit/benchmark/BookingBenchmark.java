@@ -0,0 +1,277 @@
+package com.flipfit.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import com.flipfit.bean.Booking;
+import com.flipfit.bean.GymCenter;
+import com.flipfit.bean.GymSlot;
+import com.flipfit.bean.GymUser;
+import com.flipfit.business.BookingService;
+import com.flipfit.business.CustomerService;
+import com.flipfit.business.GymOwnerService;
+import com.flipfit.business.impl.BookingServiceImpl;
+import com.flipfit.business.impl.CustomerServiceImpl;
+import com.flipfit.business.impl.GymOwnerServiceImpl;
+import com.flipfit.enums.BookingStatus;
+import com.flipfit.enums.Role;
+import com.flipfit.helper.DataStore;
+
+/**
+ * Benchmarks the booking, cancellation and search paths against a DataStore
+ * filled with synthetic bookings.
+ *
+ * DataStore is static, so run one size per JVM:
+ *
+ * <pre>
+ * java -cp bin com.flipfit.benchmark.BookingBenchmark [bookings] [warmupMillis] [measureMillis] [benchmark...]
+ * java -Xmx8g -cp bin com.flipfit.benchmark.BookingBenchmark 10000000
+ * </pre>
+ *
+ * Benchmark names are createBooking, cancelBooking, modifyBooking,
+ * viewCentersByCity and viewBookingsForOwner; all run when none are given.
+ * {@code BookingJmhBenchmark} runs the same operations under JMH.
+ */
+public class BookingBenchmark {
+
+	private static final String[] CITIES = { "Bangalore", "Mumbai", "Delhi", "Chennai", "Hyderabad", "Pune",
+			"Kolkata", "Ahmedabad", "Jaipur", "Lucknow", "Kochi", "Indore", "Bhopal", "Nagpur", "Surat", "Patna",
+			"Chandigarh", "Mysore", "Goa", "Noida" };
+	private static final LocalTime[] SLOT_STARTS = { LocalTime.of(6, 0), LocalTime.of(7, 0), LocalTime.of(8, 0),
+			LocalTime.of(18, 0), LocalTime.of(19, 0), LocalTime.of(20, 0) };
+	private static final int BOOKING_DAYS = 31;
+	private static final int BOOKINGS_PER_CENTER = 2000;
+	private static final int SEATS_PER_SLOT = 1000;
+	private static final int BENCHMARK_USERS = 1000;
+
+	private final BookingService bookingService = new BookingServiceImpl();
+	final CustomerService customerService = new CustomerServiceImpl(bookingService);
+	final GymOwnerService gymOwnerService = new GymOwnerServiceImpl(bookingService);
+	private final Random random = new Random(42);
+	private final LocalDate today = LocalDate.now();
+
+	private int centers;
+	private int owners;
+	private int benchmarkUser;
+
+	public static void main(String[] args) {
+		int bookings = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		long warmupMillis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+		long measureMillis = args.length > 2 ? Long.parseLong(args[2]) : 3000;
+		List<String> selected = args.length > 3 ? Arrays.asList(args).subList(3, args.length) : List.of();
+
+		BookingBenchmark benchmark = new BookingBenchmark();
+		long start = System.nanoTime();
+		benchmark.populate(bookings);
+		Runtime runtime = Runtime.getRuntime();
+		System.out.printf("Populated %d bookings over %d centers in %d ms, heap used %d MB%n", bookings,
+				benchmark.centers, (System.nanoTime() - start) / 1_000_000,
+				(runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+
+		BenchmarkRunner runner = new BenchmarkRunner(warmupMillis, measureMillis);
+		List<BenchmarkRunner.Result> results = new ArrayList<>();
+		if (selected.isEmpty() || selected.contains("createBooking")) {
+			results.add(runner.run("createBooking", benchmark.createBooking()));
+		}
+		if (selected.isEmpty() || selected.contains("cancelBooking")) {
+			results.add(runner.run("cancelBooking", benchmark.cancelBooking()));
+		}
+		if (selected.isEmpty() || selected.contains("modifyBooking")) {
+			results.add(runner.run("modifyBooking", benchmark.modifyBooking()));
+		}
+		if (selected.isEmpty() || selected.contains("viewCentersByCity")) {
+			results.add(runner.run("viewCentersByCity", benchmark.viewCentersByCity()));
+		}
+		if (selected.isEmpty() || selected.contains("viewBookingsForOwner")) {
+			results.add(runner.run("viewBookingsForOwner", benchmark.viewBookingsForOwner()));
+		}
+
+		BenchmarkRunner.printHeader();
+		for (BenchmarkRunner.Result result : results) {
+			result.print();
+		}
+	}
+
+	/**
+	 * Fills the DataStore with centers, owners and users, and with bookings spread
+	 * evenly over every slot and every day of the booking window. Each user holds
+	 * at most one booking per date and start time, as the booking service allows.
+	 */
+	void populate(int bookings) {
+		centers = Math.max(CITIES.length, bookings / BOOKINGS_PER_CENTER);
+		owners = Math.max(1, centers / 5);
+		for (int o = 0; o < owners; o++) {
+			addUser("BO" + o, Role.GYM_OWNER);
+		}
+		for (int c = 0; c < centers; c++) {
+			GymCenter center = new GymCenter();
+			center.setCenterId("BC" + c);
+			center.setCenterCity(CITIES[c % CITIES.length]);
+			center.setCenterLocn("Area " + c);
+			center.setOwnerId("BO" + (c % owners));
+			center.setApproved(true);
+			List<GymSlot> slots = new ArrayList<>();
+			for (LocalTime startTime : SLOT_STARTS) {
+				GymSlot slot = new GymSlot();
+				slot.setSlotId(DataStore.nextSlotId());
+				slot.setStartTime(startTime);
+				slot.setEndTime(startTime.plusHours(1));
+				slot.setTotalSeats(SEATS_PER_SLOT);
+				slot.setAvailableSeats(SEATS_PER_SLOT);
+				slots.add(slot);
+			}
+			center.setCenterSlot(slots);
+			DataStore.addCenter(center);
+		}
+		for (int u = 0; u < BENCHMARK_USERS; u++) {
+			addUser("BU" + u, Role.CUSTOMER);
+		}
+
+		int perUser = BOOKING_DAYS * SLOT_STARTS.length;
+		GymUser user = null;
+		for (int i = 0; i < bookings; i++) {
+			if (i % perUser == 0) {
+				user = addUser("SU" + (i / perUser), Role.CUSTOMER);
+			}
+			int combination = i % perUser;
+			LocalDate date = today.plusDays(combination / SLOT_STARTS.length);
+			GymSlot slot = DataStore.getCenter("BC" + (i % centers)).getCenterSlot()
+					.get(combination % SLOT_STARTS.length);
+			if (!DataStore.reserveSeat(slot, date)) {
+				continue;
+			}
+			Booking booking = new Booking();
+			booking.setBookingId(DataStore.nextBookingId());
+			booking.setGymUser(user);
+			booking.setGymSlot(slot);
+			booking.setBookingDate(date);
+			booking.setStartTime(slot.getStartTime());
+			booking.setBookingStatus(BookingStatus.CONFIRMED);
+			DataStore.saveBooking(booking);
+		}
+	}
+
+	private GymUser addUser(String userId, Role role) {
+		GymUser user = new GymUser();
+		user.setUserId(userId);
+		user.setName(userId);
+		user.setRole(role);
+		DataStore.addUser(user);
+		return user;
+	}
+
+	BenchmarkRunner.Operation createBooking() {
+		return new BenchmarkRunner.Operation() {
+			private String lastBookingId;
+
+			@Override
+			public void setUp() {
+				tearDown();
+			}
+
+			@Override
+			public void run() {
+				lastBookingId = book(nextBenchmarkUser());
+			}
+
+			@Override
+			public void tearDown() {
+				if (lastBookingId != null) {
+					bookingService.cancelBooking(lastBookingId);
+					lastBookingId = null;
+				}
+			}
+		};
+	}
+
+	BenchmarkRunner.Operation cancelBooking() {
+		return new BenchmarkRunner.Operation() {
+			private String bookingId;
+
+			@Override
+			public void setUp() {
+				bookingId = book(nextBenchmarkUser());
+			}
+
+			@Override
+			public void run() {
+				bookingService.cancelBooking(bookingId);
+			}
+		};
+	}
+
+	BenchmarkRunner.Operation modifyBooking() {
+		return new BenchmarkRunner.Operation() {
+			private String userId;
+			private String bookingId;
+			private LocalDate date;
+			private LocalTime newStart;
+
+			@Override
+			public void setUp() {
+				tearDown();
+				userId = nextBenchmarkUser();
+				bookingId = book(userId);
+				Booking booking = DataStore.getBooking(bookingId);
+				date = booking.getBookingDate();
+				newStart = booking.getGymSlot().getStartTime().equals(SLOT_STARTS[0]) ? SLOT_STARTS[1] : SLOT_STARTS[0];
+			}
+
+			@Override
+			public void run() {
+				bookingService.modifyBooking(userId, bookingId, newStart, newStart.plusHours(1), toDate(date));
+			}
+
+			@Override
+			public void tearDown() {
+				if (userId != null) {
+					Booking moved = DataStore.findUserBooking(userId, date, newStart);
+					if (moved != null) {
+						bookingService.cancelBooking(moved.getBookingId());
+					}
+					userId = null;
+				}
+			}
+		};
+	}
+
+	private BenchmarkRunner.Operation viewCentersByCity() {
+		return () -> customerService.viewCentersByCity(randomCity());
+	}
+
+	private BenchmarkRunner.Operation viewBookingsForOwner() {
+		return () -> gymOwnerService.viewBookingsForOwner(randomOwner());
+	}
+
+	String randomCity() {
+		return CITIES[random.nextInt(CITIES.length)];
+	}
+
+	String randomOwner() {
+		return "BO" + random.nextInt(owners);
+	}
+
+	/**
+	 * Books a random slot of a random center on a random day for the user.
+	 */
+	private String book(String userId) {
+		LocalTime startTime = SLOT_STARTS[random.nextInt(SLOT_STARTS.length)];
+		LocalDate date = today.plusDays(random.nextInt(BOOKING_DAYS));
+		return bookingService.createBooking(userId, "BC" + random.nextInt(centers), startTime,
+				startTime.plusHours(1), toDate(date));
+	}
+
+	private String nextBenchmarkUser() {
+		benchmarkUser = (benchmarkUser + 1) % BENCHMARK_USERS;
+		return "BU" + benchmarkUser;
+	}
+
+	private static Date toDate(LocalDate date) {
+		return java.sql.Date.valueOf(date);
+	}
+}
@@ -0,0 +1,193 @@
+package com.flipfit.benchmark;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.flipfit.bean.Booking;
+import com.flipfit.bean.GymCenter;
+import com.flipfit.bean.GymSlot;
+import com.flipfit.bean.GymUser;
+import com.flipfit.business.BookingService;
+import com.flipfit.business.impl.BookingServiceImpl;
+import com.flipfit.enums.BookingStatus;
+import com.flipfit.enums.Role;
+import com.flipfit.helper.DataStore;
+
+/**
+ * Stress test of concurrent booking: many threads book and cancel a few small
+ * slots starting at the same time, for a small set of users, then the store is
+ * checked for:
+ *
+ * <ul>
+ * <li>no slot holding more confirmed bookings than seats,</li>
+ * <li>the seat inventory agreeing with the confirmed bookings,</li>
+ * <li>no one left waiting while the slot has a free seat, and</li>
+ * <li>no user holding more than one booking or waitlist entry at the start time.</li>
+ * </ul>
+ *
+ * <pre>
+ * java -cp bin com.flipfit.benchmark.BookingStressTest [threads] [users] [seats] [operationsPerThread]
+ * </pre>
+ *
+ * Exits with status 1 if any check fails.
+ */
+public class BookingStressTest {
+
+	private static final LocalTime START = LocalTime.of(6, 0);
+	private static final LocalTime END = START.plusHours(1);
+	private static final int CENTERS = 2;
+
+	public static void main(String[] args) throws InterruptedException {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		int users = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+		int seats = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+		int operations = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+
+		LocalDate date = LocalDate.now().plusDays(1);
+		Date day = Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+		List<GymSlot> slots = new ArrayList<>();
+		for (int c = 0; c < CENTERS; c++) {
+			slots.add(addCenter("STC" + c, seats));
+		}
+		for (int u = 0; u < users; u++) {
+			GymUser user = new GymUser();
+			user.setUserId("STU" + u);
+			user.setName("STU" + u);
+			user.setRole(Role.CUSTOMER);
+			DataStore.addUser(user);
+		}
+
+		BookingService bookingService = new BookingServiceImpl();
+		ConcurrentLinkedQueue<String> issued = new ConcurrentLinkedQueue<>();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> workers = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			Thread worker = new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				try {
+					start.await();
+					for (int i = 0; i < operations; i++) {
+						if (random.nextInt(3) < 2) {
+							String bookingId = bookingService.createBooking("STU" + random.nextInt(users),
+									"STC" + random.nextInt(CENTERS), START, END, day);
+							if (bookingId != null) {
+								issued.add(bookingId);
+							}
+						} else {
+							String bookingId = issued.poll();
+							if (bookingId != null) {
+								bookingService.cancelBooking(bookingId);
+							}
+						}
+					}
+				} catch (Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			}, "stress-" + t);
+			workers.add(worker);
+			worker.start();
+		}
+
+		// The service reports every booking on the console; keep the run quiet
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+		long began = System.nanoTime();
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		long millis = (System.nanoTime() - began) / 1_000_000;
+		System.setOut(console);
+
+		System.out.printf("%d threads ran %d operations each for %d users on %d slots of %d seats in %d ms%n", threads,
+				operations, users, CENTERS, seats, millis);
+		List<String> problems = new ArrayList<>();
+		if (failure.get() != null) {
+			problems.add("A worker failed: " + failure.get());
+		}
+		check(slots, date, users, problems);
+		for (String problem : problems) {
+			System.out.println("FAIL: " + problem);
+		}
+		if (!problems.isEmpty()) {
+			System.exit(1);
+		}
+		System.out.println("PASS");
+	}
+
+	private static void check(List<GymSlot> slots, LocalDate date, int users, List<String> problems) {
+		Map<String, Integer> heldByUser = new HashMap<>();
+		for (GymSlot slot : slots) {
+			int confirmed = 0;
+			for (Booking booking : DataStore.getAllBookings()) {
+				if (booking.getGymSlot() != null && slot.getSlotId().equals(booking.getGymSlot().getSlotId())
+						&& date.equals(booking.getBookingDate())) {
+					if (booking.getBookingStatus() == BookingStatus.CONFIRMED) {
+						confirmed++;
+					}
+					heldByUser.merge(booking.getGymUser().getUserId(), 1, Integer::sum);
+				}
+			}
+			List<Booking> waiting = DataStore.getWaitlist(slot.getSlotId(), date);
+			for (Booking booking : waiting) {
+				heldByUser.merge(booking.getGymUser().getUserId(), 1, Integer::sum);
+			}
+			int counted = DataStore.countBookings(slot.getSlotId(), date);
+			System.out.printf("Slot %s: %d confirmed, %d seats counted, %d waiting%n", slot.getSlotId(), confirmed,
+					counted, waiting.size());
+			if (confirmed > slot.getTotalSeats()) {
+				problems.add(slot.getSlotId() + " holds " + confirmed + " confirmed bookings for "
+						+ slot.getTotalSeats() + " seats");
+			}
+			if (counted != confirmed) {
+				problems.add(slot.getSlotId() + " counts " + counted + " seats taken but holds " + confirmed
+						+ " confirmed bookings");
+			}
+			if (!waiting.isEmpty() && confirmed < slot.getTotalSeats()) {
+				problems.add(slot.getSlotId() + " has " + waiting.size() + " waiting with "
+						+ (slot.getTotalSeats() - confirmed) + " seats free");
+			}
+		}
+		for (Map.Entry<String, Integer> held : heldByUser.entrySet()) {
+			if (held.getValue() > 1) {
+				problems.add(held.getKey() + " holds " + held.getValue() + " bookings and waitlist entries at " + START);
+			}
+		}
+		if (heldByUser.size() > users) {
+			problems.add(heldByUser.size() + " users hold bookings, but only " + users + " took part");
+		}
+	}
+
+	private static GymSlot addCenter(String centerId, int seats) {
+		GymSlot slot = new GymSlot();
+		slot.setSlotId(DataStore.nextSlotId());
+		slot.setStartTime(START);
+		slot.setEndTime(END);
+		slot.setTotalSeats(seats);
+		slot.setAvailableSeats(seats);
+		GymCenter center = new GymCenter();
+		center.setCenterId(centerId);
+		center.setCenterCity("Bangalore");
+		center.setCenterLocn("Stress " + centerId);
+		center.setOwnerId("STO");
+		center.setApproved(true);
+		List<GymSlot> centerSlots = new ArrayList<>();
+		centerSlots.add(slot);
+		center.setCenterSlot(centerSlots);
+		DataStore.addCenter(center);
+		return slot;
+	}
+}
@@ -0,0 +1,203 @@
+package com.flipfit.benchmark;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.flipfit.bean.Booking;
+import com.flipfit.bean.GymCenter;
+import com.flipfit.bean.GymSlot;
+import com.flipfit.bean.GymUser;
+import com.flipfit.enums.BookingStatus;
+import com.flipfit.enums.Role;
+import com.flipfit.helper.DataStore;
+
+/**
+ * Measures how long the DataStore takes to recover from its snapshot and
+ * journal. Populate a data directory in one JVM, then recover it in another:
+ *
+ * <pre>
+ * java -Xmx8g -cp bin com.flipfit.benchmark.RecoveryBenchmark populate data 10000000 1000000
+ * java -Xmx8g -cp bin com.flipfit.benchmark.RecoveryBenchmark recover data
+ * </pre>
+ *
+ * populate writes the given number of bookings, takes a snapshot, and then
+ * writes the last ones (1,000,000 above) to the journal only, so recovery loads
+ * the snapshot and replays those on top. The directory must start out empty.
+ *
+ * recover reports the time to start, i.e. to map the snapshot bookings and
+ * replay the journal, then the time of a first query at one center and of
+ * loading every booking. seed builds the same bookings in memory alone, for
+ * comparison.
+ */
+public class RecoveryBenchmark {
+
+	private static final String[] CITIES = { "Bangalore", "Mumbai", "Delhi", "Chennai", "Hyderabad", "Pune",
+			"Kolkata", "Ahmedabad", "Jaipur", "Lucknow" };
+	private static final LocalTime[] SLOT_STARTS = { LocalTime.of(6, 0), LocalTime.of(7, 0), LocalTime.of(8, 0),
+			LocalTime.of(18, 0), LocalTime.of(19, 0), LocalTime.of(20, 0) };
+	private static final int BOOKING_DAYS = 31;
+	private static final int BOOKINGS_PER_CENTER = 2000;
+	private static final int SEATS_PER_SLOT = 1000;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length == 2 && args[0].equals("seed")) {
+			seed(Integer.parseInt(args[1]));
+			return;
+		}
+		if (args.length < 2 || !(args[0].equals("populate") || args[0].equals("recover"))) {
+			System.out.println("Usage: RecoveryBenchmark populate <dir> [bookings] [journalOnlyBookings]");
+			System.out.println("       RecoveryBenchmark recover <dir>");
+			System.out.println("       RecoveryBenchmark seed <bookings>");
+			return;
+		}
+		Path dir = Paths.get(args[1]);
+		System.setProperty("flipfit.data.dir", dir.toString());
+		System.setProperty("flipfit.snapshot.minutes", "0"); // only the snapshots taken below
+
+		if (args[0].equals("populate")) {
+			int bookings = args.length > 2 ? Integer.parseInt(args[2]) : 10_000_000;
+			int journalOnly = args.length > 3 ? Integer.parseInt(args[3]) : bookings / 10;
+			System.setProperty("flipfit.journal.sync", "false"); // one writer, nothing to group
+			populate(bookings, journalOnly);
+		} else {
+			recover();
+		}
+		System.out.printf("Data directory holds %d MB%n", directorySize(dir) / (1024 * 1024));
+	}
+
+	private static void seed(int bookings) throws IOException {
+		long start = System.nanoTime();
+		addBookings(bookings, Integer.MAX_VALUE, start);
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		System.out.printf("Seeded %d bookings in memory in %d ms, heap used %d MB%n",
+				DataStore.getAllBookings().size(), millis, heapUsed());
+	}
+
+	private static void populate(int bookings, int journalOnly) throws IOException {
+		long start = System.nanoTime();
+		int snapshotAt = bookings - journalOnly;
+		int centers = addBookings(bookings, snapshotAt, start);
+		if (snapshotAt >= bookings) {
+			checkpoint(bookings, start);
+		}
+		System.out.printf("Populated %d bookings over %d centers in %d ms, %d of them in the journal only%n",
+				DataStore.getAllBookings().size(), centers, (System.nanoTime() - start) / 1_000_000,
+				Math.min(journalOnly, bookings));
+	}
+
+	// Returns the number of centers; takes a snapshot after snapshotAt bookings
+	private static int addBookings(int bookings, int snapshotAt, long start) throws IOException {
+		int centers = Math.max(CITIES.length, bookings / BOOKINGS_PER_CENTER);
+		int owners = Math.max(1, centers / 5);
+		for (int o = 0; o < owners; o++) {
+			addUser("BO" + o, Role.GYM_OWNER);
+		}
+		List<List<GymSlot>> slotsByCenter = new ArrayList<>(centers);
+		for (int c = 0; c < centers; c++) {
+			GymCenter center = new GymCenter();
+			center.setCenterId(DataStore.nextCenterId());
+			center.setCenterCity(CITIES[c % CITIES.length]);
+			center.setCenterLocn("Area " + c);
+			center.setOwnerId("BO" + (c % owners));
+			center.setApproved(true);
+			List<GymSlot> slots = new ArrayList<>();
+			for (LocalTime startTime : SLOT_STARTS) {
+				GymSlot slot = new GymSlot();
+				slot.setSlotId(DataStore.nextSlotId());
+				slot.setStartTime(startTime);
+				slot.setEndTime(startTime.plusHours(1));
+				slot.setTotalSeats(SEATS_PER_SLOT);
+				slot.setAvailableSeats(SEATS_PER_SLOT);
+				slots.add(slot);
+			}
+			center.setCenterSlot(slots);
+			DataStore.addCenter(center);
+			slotsByCenter.add(slots);
+		}
+
+		LocalDate today = LocalDate.now();
+		int perUser = BOOKING_DAYS * SLOT_STARTS.length;
+		GymUser user = null;
+		for (int i = 0; i < bookings; i++) {
+			if (i == snapshotAt) {
+				checkpoint(i, start);
+			}
+			if (i % perUser == 0) {
+				user = addUser(DataStore.nextUserId(), Role.CUSTOMER);
+			}
+			int combination = i % perUser;
+			LocalDate date = today.plusDays(combination / SLOT_STARTS.length);
+			GymSlot slot = slotsByCenter.get(i % centers).get(combination % SLOT_STARTS.length);
+			if (!DataStore.reserveSeat(slot, date)) {
+				continue;
+			}
+			Booking booking = new Booking();
+			booking.setBookingId(DataStore.nextBookingId());
+			booking.setGymUser(user);
+			booking.setGymSlot(slot);
+			booking.setBookingDate(date);
+			booking.setStartTime(slot.getStartTime());
+			booking.setBookingStatus(BookingStatus.CONFIRMED);
+			DataStore.saveBooking(booking);
+		}
+		return centers;
+	}
+
+	private static void checkpoint(int bookings, long start) throws IOException {
+		long snapshotStart = System.nanoTime();
+		DataStore.checkpoint();
+		System.out.printf("Snapshot of %d bookings written in %d ms (%d ms in)%n", bookings,
+				(System.nanoTime() - snapshotStart) / 1_000_000, (snapshotStart - start) / 1_000_000);
+	}
+
+	private static void recover() {
+		long start = System.nanoTime();
+		int users = DataStore.getAllUsers().size(); // recovery runs when the class is initialized
+		long millis = (System.nanoTime() - start) / 1_000_000;
+		System.out.printf("Started with %d users in %d ms, heap used %d MB%n", users, millis, heapUsed());
+
+		GymCenter center = DataStore.getAllCenters().stream().filter(c -> c.getOwnerId().startsWith("BO")).findFirst()
+				.orElseThrow(); // one populated here, not a seeded one
+		start = System.nanoTime();
+		long atCenter = DataStore.streamCenterBookings(center.getCenterId(), null, null).count();
+		System.out.printf("First query at center %s returned %d bookings in %d ms%n", center.getCenterId(), atCenter,
+				(System.nanoTime() - start) / 1_000_000);
+
+		start = System.nanoTime();
+		int bookings = DataStore.getAllBookings().size();
+		millis = (System.nanoTime() - start) / 1_000_000;
+		System.out.printf("Loaded all %d bookings in %d ms, heap used %d MB%n", bookings, millis, heapUsed());
+	}
+
+	private static long heapUsed() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+	}
+
+	private static GymUser addUser(String userId, Role role) {
+		GymUser user = new GymUser();
+		user.setUserId(userId);
+		user.setName(userId);
+		user.setRole(role);
+		DataStore.addUser(user);
+		return user;
+	}
+
+	private static long directorySize(Path dir) throws IOException {
+		long size = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+			for (Path file : files) {
+				size += Files.size(file);
+			}
+		}
+		return size;
+	}
+}
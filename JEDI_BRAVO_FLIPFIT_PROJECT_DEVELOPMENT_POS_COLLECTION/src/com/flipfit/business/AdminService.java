@@ -1,16 +1,33 @@
 package com.flipfit.business;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 import com.flipfit.bean.Booking;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymUser;
+import com.flipfit.helper.ExportWriter;
 
 public interface AdminService {
 	Collection<GymCenter> viewAllCenters();
 
 	Collection<GymUser> viewAllUsers();
 
+	// Read-only views of the store; iterate them rather than copying
 	Collection<Booking> viewAllBookings();
+
+	// Bookings at the center between two dates, both inclusive and either null for no bound, by date, time and slot; read lazily
+	Stream<Booking> viewBookingsForCenter(String centerId, LocalDate from, LocalDate to);
+
+	// Write every booking or user, without passwords, one row at a time; return how many were written
+	int exportBookings(ExportWriter.Format format, Writer out) throws IOException;
+
+	int exportUsers(ExportWriter.Format format, Writer out) throws IOException;
+
+	// Makes a center visible to customers; false if there is no such center
+	boolean approveCenter(String centerId);
 }
 
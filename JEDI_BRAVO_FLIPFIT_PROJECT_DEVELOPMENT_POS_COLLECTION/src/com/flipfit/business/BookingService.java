@@ -3,6 +3,8 @@ package com.flipfit.business;
 import java.util.Date;
 import java.time.LocalTime;
 
+import com.flipfit.bean.GymSlot;
+
 public interface BookingService {
     // Standard creation and cancellation
 	String createBooking(String userId, String centreId, LocalTime startTime, LocalTime endTime, Date date);
@@ -10,4 +12,7 @@ public interface BookingService {
     boolean cancelBooking(String bookingId);
     
     boolean modifyBooking(String userId, String oldBookingId, LocalTime startTime, LocalTime endTime, Date date);
+
+    // Confirms waitlisted bookings of the slot while it has free seats; returns how many were promoted
+    int promoteWaitlisted(GymSlot slot);
 }    
\ No newline at end of file
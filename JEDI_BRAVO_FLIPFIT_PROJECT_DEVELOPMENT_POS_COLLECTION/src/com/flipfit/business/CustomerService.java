@@ -1,10 +1,12 @@
 package com.flipfit.business;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
+import com.flipfit.bean.AvailableSlot;
 import com.flipfit.bean.Booking;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
@@ -14,11 +16,17 @@ public interface CustomerService {
 
 	Collection<GymSlot> viewSlotsForCenter(String centerId);
 
+	// Free seats in each of the center's slots on the date, read from the seat counters in O(slots)
+	List<AvailableSlot> viewAvailability(String centerId, LocalDate date);
+
 	String bookSlot(String userId, String centerId, LocalTime startTime, LocalTime endTime, Date date);
 
 	List<Booking> viewBookings(String userId);
 
 	boolean cancelBooking(String bookingId);
 
+	// 1-based position of a waitlisted booking, 0 if it is not on a waitlist
+	int getWaitlistPosition(String bookingId);
+
 }
 
@@ -14,6 +14,7 @@ import com.flipfit.enums.BookingStatus;
 import com.flipfit.dao.BookingDAO;
 import com.flipfit.dao.GymCentreDAO;
 import com.flipfit.dao.GymCentreDAOImpl;
+import com.flipfit.metrics.Instrumented;
 
 import java.util.Date;
 import java.time.LocalTime;
@@ -27,7 +28,7 @@ public class FlipFitBookingService implements BookingService {
 
     public FlipFitBookingService() {
         this.bookingDAO = new BookingDAO();
-        this.gymDAO = new GymCentreDAOImpl();
+        this.gymDAO = Instrumented.wrap(GymCentreDAO.class, new GymCentreDAOImpl());
     }
 
     /**
@@ -60,7 +61,8 @@ public class FlipFitBookingService implements BookingService {
         newBooking.setGymUser(user);
         
         newBooking.setGymSlot(slot);
-        newBooking.setDateAndTime(date.toString() + " " + startTime.toString());
+        newBooking.setBookingDate(new java.sql.Date(date.getTime()).toLocalDate());
+        newBooking.setStartTime(startTime);
         newBooking.setBookingStatus(BookingStatus.CONFIRMED); // 
 
         // 5. Update state: decrease seats and save to DB [cite: 34, 75]
@@ -93,6 +95,14 @@ public class FlipFitBookingService implements BookingService {
         return true;
     }
 
+    /**
+     * Waitlists are kept by BookingServiceImpl; this service books only when a seat is free.
+     */
+    @Override
+    public int promoteWaitlisted(GymSlot slot) {
+        return 0;
+    }
+
     private void checkOverlapAndRemove(String userId, Date date, LocalTime time) {
         // Simple overlap handling lives in BookingServiceImpl; left as a placeholder here.
     }
@@ -1,8 +1,10 @@
 package com.flipfit.business;
 
 import com.flipfit.bean.Booking;
+import com.flipfit.bean.BookingPage;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Collection;
 import java.util.List;
@@ -17,5 +19,8 @@ public interface GymOwnerService {
 	void modifySlot(String centerId, String slotId, LocalTime startTime, LocalTime endTime, Integer totalSeats, Integer availableSeats);
 
 	Collection<Booking> viewBookingsForOwner(String ownerId);
+
+	// One page (1-based) of the bookings at the owner's centers between two dates, both inclusive and either null for no bound
+	BookingPage viewBookingsForOwner(String ownerId, LocalDate from, LocalDate to, int page);
 }
 
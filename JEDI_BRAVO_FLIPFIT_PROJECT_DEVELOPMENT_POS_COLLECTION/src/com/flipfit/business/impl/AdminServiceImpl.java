@@ -1,28 +1,56 @@
 package com.flipfit.business.impl;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.stream.Stream;
 
 import com.flipfit.bean.Booking;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymUser;
 import com.flipfit.business.AdminService;
 import com.flipfit.helper.DataStore;
+import com.flipfit.helper.ExportWriter;
 
 public class AdminServiceImpl implements AdminService {
 
 	@Override
 	public Collection<GymCenter> viewAllCenters() {
-		return DataStore.getAllCenters();
+		return Collections.unmodifiableCollection(DataStore.getAllCenters());
 	}
 
 	@Override
 	public Collection<GymUser> viewAllUsers() {
-		return DataStore.getAllUsers();
+		return Collections.unmodifiableCollection(DataStore.getAllUsers());
 	}
 
 	@Override
 	public Collection<Booking> viewAllBookings() {
-		return DataStore.getAllBookings();
+		return Collections.unmodifiableCollection(DataStore.getAllBookings());
+	}
+
+	// The store's maps iterate weakly consistently, so exports stream them without a copy or a lock;
+	// bookings still in the snapshot are read a center at a time rather than loaded
+	@Override
+	public int exportBookings(ExportWriter.Format format, Writer out) throws IOException {
+		return new ExportWriter(format, out).writeBookings(DataStore.streamAllBookings());
+	}
+
+	@Override
+	public int exportUsers(ExportWriter.Format format, Writer out) throws IOException {
+		return new ExportWriter(format, out).writeUsers(DataStore.getAllUsers().stream());
+	}
+
+	@Override
+	public Stream<Booking> viewBookingsForCenter(String centerId, LocalDate from, LocalDate to) {
+		return DataStore.streamCenterBookings(centerId, from, to);
+	}
+
+	@Override
+	public boolean approveCenter(String centerId) {
+		return DataStore.approveCenter(centerId);
 	}
 }
 
@@ -5,12 +5,13 @@ import com.flipfit.bean.Booking;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
 import com.flipfit.bean.GymUser;
+import com.flipfit.bean.GymWaitList;
 import com.flipfit.enums.BookingStatus;
 import com.flipfit.helper.DataStore;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Date;
-import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class BookingServiceImpl implements BookingService {
 
@@ -35,25 +36,52 @@ public class BookingServiceImpl implements BookingService {
 		}
 
 		LocalDate localDate = new java.sql.Date(date.getTime()).toLocalDate();
-		boolean capacity = hasCapacity(slot, localDate);
 
-		// Remove older booking if user already has one for the same start time on same date
-		checkOverlapAndRemove(userId, localDate, startTime);
+		// Held until the new booking is stored, so two requests of one user cannot both pass the overlap check
+		ReentrantLock userLock = DataStore.lockForUser(userId);
+		userLock.lock();
+		try {
+			// Remove older booking if user already has one for the same start time on same date
+			checkOverlapAndRemove(userId, localDate, startTime);
+			return book(user, center, slot, localDate, startTime);
+		} finally {
+			userLock.unlock();
+		}
+	}
 
+	private String book(GymUser user, GymCenter center, GymSlot slot, LocalDate localDate, LocalTime startTime) {
 		String bookingId = DataStore.nextBookingId();
 		Booking booking = new Booking();
 		booking.setBookingId(bookingId);
 		booking.setGymUser(user);
 		booking.setGymSlot(slot);
-		booking.setDateAndTime(localDate.toString() + " " + startTime.toString());
+		booking.setBookingDate(localDate);
+		booking.setStartTime(startTime);
+
+		// Seats are taken lock-free; only joining the waitlist needs the slot lock, and the
+		// seat is retried under it so a cancellation in between is not missed
+		boolean capacity = DataStore.reserveSeat(slot, localDate);
+		int position = 0;
+		if (!capacity) {
+			ReentrantLock lock = DataStore.lockFor(slot.getSlotId(), localDate);
+			lock.lock();
+			try {
+				capacity = DataStore.reserveSeat(slot, localDate);
+				if (!capacity) {
+					booking.setBookingStatus(BookingStatus.WAITLIST);
+					position = DataStore.addToWaitlist(slot.getSlotId(), booking);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
 		if (capacity) {
 			booking.setBookingStatus(BookingStatus.CONFIRMED);
 			DataStore.saveBooking(booking);
 			return bookingId;
 		} else {
-			booking.setBookingStatus(BookingStatus.WAITLIST);
-			DataStore.addToWaitlist(slot.getSlotId(), booking);
-			System.out.println("Slot full. Added to waitlist with id: " + bookingId);
+			System.out.println("Slot full. Added to waitlist with id: " + bookingId + " at position " + position);
 
 			//suggesting nearest time slot
 			LocalTime suggestion = nearestTimeSlot(center, localDate, startTime);
@@ -71,14 +99,34 @@ public class BookingServiceImpl implements BookingService {
 
 	@Override
 	public boolean cancelBooking(String bookingId) {
-		Booking booking = DataStore.removeBooking(bookingId);
+		Booking booking = DataStore.getBooking(bookingId);
 		if (booking == null) {
-			System.out.println("Booking not found.");
-			return false;
+			return withdrawWaitlisted(bookingId);
 		}
-		if (booking.getGymSlot() != null) {
+		if (booking.getGymSlot() == null) {
+			return DataStore.removeBooking(bookingId) != null;
+		}
+
+		// Under the slot lock the freed seat goes to the head of the waitlist before any new booking sees it
+		LocalDate date = booking.getBookingDate();
+		ReentrantLock lock = DataStore.lockFor(booking.getGymSlot().getSlotId(), date);
+		lock.lock();
+		try {
+			if (DataStore.getBooking(bookingId) == null) {
+				System.out.println("Booking not found.");
+				return false;
+			}
 			booking.getGymSlot().increaseAvailability();
-			promoteWaitlisted(booking.getGymSlot());
+			Booking next = popPromotable(booking.getGymSlot().getSlotId(), date, bookingId);
+			if (next == null) {
+				DataStore.removeBooking(bookingId);
+			} else {
+				next.setBookingStatus(BookingStatus.CONFIRMED);
+				DataStore.handOverSeat(bookingId, next);
+				System.out.println("Promoted waitlisted booking: " + next.getBookingId());
+			}
+		} finally {
+			lock.unlock();
 		}
 		return true;
 	}
@@ -100,49 +148,103 @@ public class BookingServiceImpl implements BookingService {
 		return newId != null;
 	}
 
+	@Override
+	public int promoteWaitlisted(GymSlot slot) {
+		int promoted = 0;
+		for (GymWaitList waitList : DataStore.getWaitlists(slot.getSlotId())) {
+			ReentrantLock lock = DataStore.lockFor(slot.getSlotId(), waitList.getDate());
+			lock.lock();
+			try {
+				while (!waitList.isEmpty() && DataStore.reserveSeat(slot, waitList.getDate())) {
+					Booking next = popPromotable(slot.getSlotId(), waitList.getDate(), null);
+					if (next == null) {
+						DataStore.releaseSeat(slot, waitList.getDate());
+						break;
+					}
+					next.setBookingStatus(BookingStatus.CONFIRMED);
+					DataStore.saveBooking(next);
+					System.out.println("Promoted waitlisted booking: " + next.getBookingId());
+					promoted++;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return promoted;
+	}
+
+	private boolean withdrawWaitlisted(String bookingId) {
+		Booking waiting = DataStore.getWaitlistedBooking(bookingId);
+		if (waiting == null) {
+			System.out.println("Booking not found.");
+			return false;
+		}
+		ReentrantLock lock = DataStore.lockFor(waiting.getGymSlot().getSlotId(), waiting.getBookingDate());
+		lock.lock();
+		try {
+			if (DataStore.withdrawFromWaitlist(bookingId) == null) {
+				System.out.println("Booking not found.");
+				return false;
+			}
+		} finally {
+			lock.unlock();
+		}
+		waiting.setBookingStatus(BookingStatus.CANCELLED);
+		return true;
+	}
+
 	private GymSlot findSlot(GymCenter center, LocalTime startTime, LocalTime endTime) {
 		return center.getCenterSlot().stream()
 				.filter(slot -> slot.getStartTime().equals(startTime) && slot.getEndTime().equals(endTime)).findFirst()
 				.orElse(null);
 	}
 
+	// A waitlist entry counts as a booking too. Withdrawing one can race with its promotion,
+	// so look again until the user holds nothing at that time; callers hold the user lock.
 	private void checkOverlapAndRemove(String userId, LocalDate date, LocalTime time) {
-		String key = date.toString() + " " + time.toString();
-		Optional<Booking> existing = DataStore.getAllBookings().stream()
-				.filter(b -> b.getGymUser() != null && userId.equals(b.getGymUser().getUserId()))
-				.filter(b -> key.equals(b.getDateAndTime())).findFirst();
-		existing.ifPresent(b -> {
-			System.out.println("Conflict detected: existing booking " + b.getBookingId() + " at " + key
-					+ ". Cancelling it before creating the new booking.");
-			cancelBooking(b.getBookingId());
-		});
+		Booking existing;
+		while ((existing = findHeld(userId, date, time)) != null) {
+			System.out.println("Conflict detected: existing booking " + existing.getBookingId() + " at "
+					+ existing.getDateAndTime() + ". Cancelling it before creating the new booking.");
+			cancelBooking(existing.getBookingId());
+		}
 	}
 
-	private boolean hasCapacity(GymSlot slot, LocalDate date) {
-		long bookedCount = DataStore.getAllBookings().stream()
-				.filter(b -> b.getGymSlot() != null && slot.getSlotId().equals(b.getGymSlot().getSlotId()))
-				.filter(b -> b.getDateAndTime() != null && b.getDateAndTime().startsWith(date.toString()))
-				.count();
-		return bookedCount < slot.getTotalSeats();
+	private Booking findHeld(String userId, LocalDate date, LocalTime time) {
+		Booking stored = DataStore.findUserBooking(userId, date, time);
+		return stored != null ? stored : DataStore.findUserWaitlisted(userId, date, time);
 	}
 
-	private void promoteWaitlisted(GymSlot slot) {
-		Booking next = DataStore.popWaitlist(slot.getSlotId());
-		if (next == null) {
-			return;
+	/**
+	 * Pops the waitlist until a booking whose user holds no other booking at that
+	 * time, dropping the ones whose user does. Callers hold the slot lock.
+	 *
+	 * @param cancelledId the booking giving up its seat, which does not count as held
+	 */
+	private Booking popPromotable(String slotId, LocalDate date, String cancelledId) {
+		Booking next;
+		while ((next = DataStore.popWaitlist(slotId, date)) != null) {
+			if (next.getGymUser() == null || next.getStartTime() == null) {
+				return next;
+			}
+			Booking held = DataStore.findUserBooking(next.getGymUser().getUserId(), date, next.getStartTime());
+			if (held == null || held.getBookingId().equals(cancelledId)) {
+				return next;
+			}
+			next.setBookingStatus(BookingStatus.CANCELLED);
+			System.out.println("Dropped waitlisted booking " + next.getBookingId() + ": its user already holds "
+					+ held.getBookingId() + " at " + held.getDateAndTime());
 		}
-		next.setBookingStatus(BookingStatus.CONFIRMED);
-		DataStore.saveBooking(next);
-		System.out.println("Promoted waitlisted booking: " + next.getBookingId());
+		return null;
+	}
+
+	private boolean hasCapacity(GymSlot slot, LocalDate date) {
+		return DataStore.countBookings(slot.getSlotId(), date) < slot.getTotalSeats();
 	}
 
 	private String resolveCenterId(GymSlot slot) {
-		for (GymCenter center : DataStore.getAllCenters()) {
-			if (center.getCenterSlot().contains(slot)) {
-				return center.getCenterId();
-			}
-		}
-		return null;
+		GymCenter center = DataStore.getCenterForSlot(slot.getSlotId());
+		return center == null ? null : center.getCenterId();
 	}
 
 	private LocalTime nearestTimeSlot(GymCenter center, LocalDate date, LocalTime requestedStartTime) {
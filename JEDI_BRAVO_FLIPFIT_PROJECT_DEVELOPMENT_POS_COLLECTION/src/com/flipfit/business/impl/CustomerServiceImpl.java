@@ -1,11 +1,13 @@
 package com.flipfit.business.impl;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
 
+import com.flipfit.bean.AvailableSlot;
 import com.flipfit.bean.Booking;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
@@ -23,9 +25,7 @@ public class CustomerServiceImpl implements CustomerService {
 
 	@Override
 	public List<GymCenter> viewCentersByCity(String city) {
-		return DataStore.getAllCenters().stream()
-				.filter(center -> center.getCenterCity().equalsIgnoreCase(city))
-				.collect(Collectors.toList());
+		return DataStore.searchCentersByCity(city);
 	}
 
 	@Override
@@ -37,6 +37,24 @@ public class CustomerServiceImpl implements CustomerService {
 		return center.getCenterSlot();
 	}
 
+	@Override
+	public List<AvailableSlot> viewAvailability(String centerId, LocalDate date) {
+		GymCenter center = DataStore.getCenter(centerId);
+		if (center == null) {
+			return List.of();
+		}
+		String dateKey = date.toString();
+		List<AvailableSlot> availability = new ArrayList<>(center.getCenterSlot().size());
+		for (GymSlot slot : center.getCenterSlot()) {
+			AvailableSlot available = new AvailableSlot();
+			available.setGymSlot(slot);
+			available.setSeatsAvailable(DataStore.availableSeats(slot, date));
+			available.setDate(dateKey);
+			availability.add(available);
+		}
+		return availability;
+	}
+
 	@Override
 	public String bookSlot(String userId, String centerId, LocalTime startTime, LocalTime endTime, Date date) {
 		return bookingService.createBooking(userId, centerId, startTime, endTime, date);
@@ -44,9 +62,7 @@ public class CustomerServiceImpl implements CustomerService {
 
 	@Override
 	public List<Booking> viewBookings(String userId) {
-		return DataStore.getAllBookings().stream()
-				.filter(b -> b.getGymUser() != null && userId.equals(b.getGymUser().getUserId()))
-				.collect(Collectors.toList());
+		return DataStore.getUserBookings(userId);
 	}
 
 	@Override
@@ -54,6 +70,11 @@ public class CustomerServiceImpl implements CustomerService {
 		return bookingService.cancelBooking(bookingId);
 	}
 
+	@Override
+	public int getWaitlistPosition(String bookingId) {
+		return DataStore.getWaitlistPosition(bookingId);
+	}
+
 
 }
 
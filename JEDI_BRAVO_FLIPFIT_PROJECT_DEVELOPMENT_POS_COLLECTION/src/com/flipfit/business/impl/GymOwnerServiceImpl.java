@@ -1,21 +1,32 @@
 package com.flipfit.business.impl;
 
 import com.flipfit.bean.Booking;
+import com.flipfit.bean.BookingPage;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
+import com.flipfit.business.BookingService;
 import com.flipfit.business.GymOwnerService;
 import com.flipfit.helper.DataStore;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class GymOwnerServiceImpl implements GymOwnerService {
 
+	public static final int BOOKINGS_PAGE_SIZE = 20;
+
+	private final BookingService bookingService;
+
+	public GymOwnerServiceImpl(BookingService bookingService) {
+		this.bookingService = bookingService;
+	}
+
 	@Override
 	public List<GymCenter> viewMyCenters(String ownerId) {
-		return DataStore.getAllCenters().stream().filter(center -> ownerId.equals(center.getOwnerId()))
-				.collect(Collectors.toList());
+		return new ArrayList<>(DataStore.getCentersByOwner(ownerId));
 	}
 
 	@Override
@@ -25,10 +36,7 @@ public class GymOwnerServiceImpl implements GymOwnerService {
 
 	@Override
 	public void addSlot(String centerId, GymSlot slot) {
-		GymCenter center = DataStore.getCenter(centerId);
-		if (center != null) {
-			center.getCenterSlot().add(slot);
-		}
+		DataStore.addSlot(centerId, slot);
 	}
 	@Override
 	public void modifySlot(String centerId, String slotId, LocalTime startTime, LocalTime endTime, Integer totalSeats, Integer availableSeats)
@@ -59,6 +67,7 @@ public class GymOwnerServiceImpl implements GymOwnerService {
                 	slot.setEndTime(endTime);
             	}
 
+            	boolean seatsAdded = totalSeats != null && totalSeats > slot.getTotalSeats();
             	if (totalSeats != null) {
                 	slot.setTotalSeats(totalSeats);
             	}
@@ -66,8 +75,15 @@ public class GymOwnerServiceImpl implements GymOwnerService {
             	if (availableSeats != null) {
                 	slot.setAvailableSeats(availableSeats);
             	}
+            	DataStore.addCenter(center); // journals the modified slot
 
             	System.out.println("Slot modified successfully");
+            	if (seatsAdded) {
+                	int promoted = bookingService.promoteWaitlisted(slot);
+                	if (promoted > 0) {
+                    	System.out.println(promoted + " waitlisted booking(s) confirmed for the new seats");
+                	}
+            	}
             	return;
         	}
     	}
@@ -76,11 +92,27 @@ public class GymOwnerServiceImpl implements GymOwnerService {
 
 	@Override
 	public Collection<Booking> viewBookingsForOwner(String ownerId) {
-		List<GymCenter> centers = viewMyCenters(ownerId);
-		return DataStore.getAllBookings().stream()
-				.filter(b -> b.getGymSlot() != null && b.getGymUser() != null)
-				.filter(b -> centers.stream().anyMatch(c -> c.getCenterSlot().contains(b.getGymSlot())))
-				.collect(Collectors.toList());
+		return new ArrayList<>(DataStore.getOwnerBookings(ownerId, null, null));
+	}
+
+	@Override
+	public BookingPage viewBookingsForOwner(String ownerId, LocalDate from, LocalDate to, int page) {
+		int pageNumber = Math.max(1, page);
+		Iterator<Booking> it = DataStore.getOwnerBookings(ownerId, from, to).iterator();
+		for (long skip = (long) (pageNumber - 1) * BOOKINGS_PAGE_SIZE; skip > 0 && it.hasNext(); skip--) {
+			it.next();
+		}
+		List<Booking> bookings = new ArrayList<>(BOOKINGS_PAGE_SIZE);
+		while (bookings.size() < BOOKINGS_PAGE_SIZE && it.hasNext()) {
+			bookings.add(it.next());
+		}
+
+		BookingPage result = new BookingPage();
+		result.setBookings(bookings);
+		result.setPage(pageNumber);
+		result.setPageSize(BOOKINGS_PAGE_SIZE);
+		result.setHasNext(it.hasNext());
+		return result;
 	}
 }
 
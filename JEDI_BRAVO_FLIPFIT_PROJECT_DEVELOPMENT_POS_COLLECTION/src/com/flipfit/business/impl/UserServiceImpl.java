@@ -19,6 +19,9 @@ public class UserServiceImpl implements UserService {
 
 	@Override
 	public GymUser register(String name, String email, String password, Role role) {
+		if (!DataStore.claimEmail(email)) {
+			return null;
+		}
 		GymUser user = new GymUser();
 		user.setUserId(DataStore.nextUserId());
 		user.setName(name);
@@ -36,6 +39,7 @@ public class UserServiceImpl implements UserService {
 			return false;
 		}
 		user.setPassword(newPassword);
+		DataStore.addUser(user); // journals the new password
 		return true;
 	}
 }
@@ -1,5 +1,11 @@
 package com.flipfit.client;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 import com.flipfit.bean.Booking;
@@ -7,6 +13,7 @@ import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
 import com.flipfit.bean.GymUser;
 import com.flipfit.business.AdminService;
+import com.flipfit.helper.ExportWriter;
 
 public class AdminMenu {
 
@@ -25,7 +32,9 @@ public class AdminMenu {
 			System.out.println("1. View all gyms");
 			System.out.println("2. View all users");
 			System.out.println("3. View all bookings");
-			System.out.println("4. Logout");
+			System.out.println("4. Approve a gym");
+			System.out.println("5. Export bookings and users");
+			System.out.println("6. Logout");
 			System.out.print("Enter your choice: ");
 
 			if (!scanner.hasNextInt()) {
@@ -45,18 +54,25 @@ public class AdminMenu {
 				printBookings();
 				break;
 			case 4:
+				approveGym(scanner);
+				break;
+			case 5:
+				export(scanner);
+				break;
+			case 6:
 				System.out.println("Logging out from Admin Menu.");
 				break;
 			default:
 				System.out.println("Invalid choice. Please try again.");
 			}
-		} while (choice != 4);
+		} while (choice != 6);
 	}
 
 	private void printGyms() {
 		System.out.println("---- All Centers ----");
 		for (GymCenter center : adminService.viewAllCenters()) {
-			System.out.println(center.getCenterId() + " | " + center.getCenterLocn() + " | " + center.getCenterCity());
+			System.out.println(center.getCenterId() + " | " + center.getCenterLocn() + " | " + center.getCenterCity()
+					+ (center.isApproved() ? "" : " | Pending approval"));
 			for (GymSlot slot : center.getCenterSlot()) {
 				System.out.println("   Slot " + slot.getSlotId() + " " + slot.getStartTime() + "-" + slot.getEndTime()
 						+ " Seats:" + slot.getAvailableSeats() + "/" + slot.getTotalSeats());
@@ -64,6 +80,12 @@ public class AdminMenu {
 		}
 	}
 
+	private void approveGym(Scanner scanner) {
+		System.out.print("Enter center id to approve: ");
+		String centerId = scanner.next();
+		System.out.println(adminService.approveCenter(centerId) ? "Center approved." : "Center not found.");
+	}
+
 	private void printUsers() {
 		System.out.println("---- All Users ----");
 		for (GymUser user : adminService.viewAllUsers()) {
@@ -71,6 +93,26 @@ public class AdminMenu {
 		}
 	}
 
+	private void export(Scanner scanner) {
+		System.out.print("Format (csv/ndjson): ");
+		ExportWriter.Format format = "ndjson".equalsIgnoreCase(scanner.next()) ? ExportWriter.Format.NDJSON
+				: ExportWriter.Format.CSV;
+		System.out.print("Output directory: ");
+		String directory = scanner.next();
+
+		Path bookingsFile = Paths.get(directory, "bookings." + format.getExtension());
+		Path usersFile = Paths.get(directory, "users." + format.getExtension());
+		try (Writer bookingsOut = Files.newBufferedWriter(bookingsFile, StandardCharsets.UTF_8);
+				Writer usersOut = Files.newBufferedWriter(usersFile, StandardCharsets.UTF_8)) {
+			int bookings = adminService.exportBookings(format, bookingsOut);
+			int users = adminService.exportUsers(format, usersOut);
+			System.out.println("Exported " + bookings + " bookings to " + bookingsFile + " and " + users + " users to "
+					+ usersFile);
+		} catch (IOException e) {
+			System.out.println("Export failed: " + e.getMessage());
+		}
+	}
+
 	private void printBookings() {
 		System.out.println("---- All Bookings ----");
 		for (Booking booking : adminService.viewAllBookings()) {
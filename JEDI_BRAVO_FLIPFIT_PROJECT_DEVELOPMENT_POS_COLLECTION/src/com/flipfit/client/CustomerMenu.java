@@ -2,17 +2,18 @@ package com.flipfit.client;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Date;
 import java.util.List;
 import java.util.Scanner;
 
+import com.flipfit.bean.AvailableSlot;
 import com.flipfit.bean.Booking;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
 import com.flipfit.bean.GymUser;
 import com.flipfit.business.CustomerService;
-import com.flipfit.helper.DataStore;
 import com.flipfit.validation.DateValidation;
 
 public class CustomerMenu {
@@ -102,16 +103,18 @@ public class CustomerMenu {
 			Date date = new SimpleDateFormat("yyyy-MM-dd").parse(dateInput);
 			System.out.println("Available slots for center " + centerId + " on " + dateInput + ":");
 			GymSlot chosen = null;
-			for (GymSlot slot : customerService.viewSlotsForCenter(centerId)) {
-				int remaining = remainingSeats(slot, date);
+			LocalDate localDate = new java.sql.Date(date.getTime()).toLocalDate();
+			List<AvailableSlot> availability = customerService.viewAvailability(centerId, localDate);
+			for (AvailableSlot available : availability) {
+				GymSlot slot = available.getGymSlot();
 				System.out.println(slot.getSlotId() + " | " + slot.getStartTime() + "-" + slot.getEndTime()
-						+ " | Seats left: " + remaining);
+						+ " | Seats left: " + available.getSeatsAvailable());
 			}
 			System.out.print("Enter slot id to book: ");
 			String slotId = scanner.next();
-			for (GymSlot slot : customerService.viewSlotsForCenter(centerId)) {
-				if (slot.getSlotId().equals(slotId)) {
-					chosen = slot;
+			for (AvailableSlot available : availability) {
+				if (available.getGymSlot().getSlotId().equals(slotId)) {
+					chosen = available.getGymSlot();
 					break;
 				}
 			}
@@ -150,12 +153,4 @@ public class CustomerMenu {
 		boolean result = customerService.cancelBooking(id);
 		System.out.println(result ? "Booking cancelled." : "Booking not found.");
 	}
-
-	private int remainingSeats(GymSlot slot, Date date) {
-		String datePrefix = new java.sql.Date(date.getTime()).toLocalDate().toString();
-		long booked = DataStore.getAllBookings().stream()
-				.filter(b -> b.getGymSlot() != null && slot.getSlotId().equals(b.getGymSlot().getSlotId()))
-				.filter(b -> b.getDateAndTime() != null && b.getDateAndTime().startsWith(datePrefix)).count();
-		return slot.getTotalSeats() - (int) booked;
-	}
 }
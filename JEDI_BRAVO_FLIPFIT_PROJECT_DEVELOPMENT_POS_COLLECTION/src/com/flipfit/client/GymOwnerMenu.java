@@ -1,11 +1,13 @@
 package com.flipfit.client;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.Collection;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Scanner;
 
 import com.flipfit.bean.Booking;
+import com.flipfit.bean.BookingPage;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
 import com.flipfit.bean.GymUser;
@@ -48,7 +50,7 @@ public class GymOwnerMenu {
 				addGym(scanner);
 				break;
 			case 3:
-				viewBookings();
+				viewBookings(scanner);
 				break;
 			case 4:
 				System.out.println("Logging out from Gym Owner Menu.");
@@ -66,7 +68,8 @@ public class GymOwnerMenu {
 			return;
 		}
 		for (GymCenter center : centers) {
-			System.out.println(center.getCenterId() + " | " + center.getCenterLocn() + " | " + center.getCenterCity());
+			System.out.println(center.getCenterId() + " | " + center.getCenterLocn() + " | " + center.getCenterCity()
+					+ (center.isApproved() ? "" : " | Pending approval"));
 			for (GymSlot slot : center.getCenterSlot()) {
 				System.out.println("   Slot " + slot.getSlotId() + " " + slot.getStartTime() + "-" + slot.getEndTime()
 						+ " Seats:" + slot.getAvailableSeats() + "/" + slot.getTotalSeats());
@@ -95,7 +98,7 @@ public class GymOwnerMenu {
 			center.getCenterSlot().addAll(defaultSlots());
 		}
 		gymOwnerService.addCenter(center);
-		System.out.println("Center added with id: " + center.getCenterId());
+		System.out.println("Center added with id: " + center.getCenterId() + ". Customers will see it once an admin approves it.");
 	}
 
 	private List<GymSlot> defaultSlots() {
@@ -120,15 +123,43 @@ public class GymOwnerMenu {
 		return slot;
 	}
 
-	private void viewBookings() {
-		Collection<Booking> bookings = gymOwnerService.viewBookingsForOwner(loggedInUser.getUserId());
-		if (bookings.isEmpty()) {
-			System.out.println("No bookings yet for your centers.");
+	private void viewBookings(Scanner scanner) {
+		LocalDate from;
+		LocalDate to;
+		try {
+			from = readOptionalDate(scanner, "Enter from date (yyyy-MM-dd, - for any): ");
+			to = readOptionalDate(scanner, "Enter to date (yyyy-MM-dd, - for any): ");
+		} catch (DateTimeParseException e) {
+			System.out.println("Invalid date.");
 			return;
 		}
-		for (Booking booking : bookings) {
-			System.out.println(booking.getBookingId() + " | " + booking.getGymUser().getUserId() + " | Slot:"
-					+ booking.getGymSlot().getSlotId() + " | " + booking.getDateAndTime());
+
+		int page = 1;
+		while (true) {
+			BookingPage bookings = gymOwnerService.viewBookingsForOwner(loggedInUser.getUserId(), from, to, page);
+			if (bookings.getBookings().isEmpty()) {
+				System.out.println(page == 1 ? "No bookings yet for your centers." : "No more bookings.");
+				return;
+			}
+			System.out.println("Page " + bookings.getPage() + ":");
+			for (Booking booking : bookings.getBookings()) {
+				System.out.println(booking.getBookingId() + " | " + booking.getGymUser().getUserId() + " | Slot:"
+						+ booking.getGymSlot().getSlotId() + " | " + booking.getDateAndTime());
+			}
+			if (!bookings.hasNext()) {
+				return;
+			}
+			System.out.print("Enter n for the next page, anything else to stop: ");
+			if (!scanner.hasNext() || !"n".equalsIgnoreCase(scanner.next())) {
+				return;
+			}
+			page++;
 		}
 	}
+
+	private LocalDate readOptionalDate(Scanner scanner, String prompt) {
+		System.out.print(prompt);
+		String input = scanner.next();
+		return "-".equals(input) ? null : LocalDate.parse(input);
+	}
 }
@@ -15,19 +15,25 @@ import com.flipfit.business.impl.GymOwnerServiceImpl;
 import com.flipfit.business.impl.UserServiceImpl;
 import com.flipfit.enums.Role;
 import com.flipfit.helper.DataStore;
+import com.flipfit.metrics.Instrumented;
+import com.flipfit.metrics.Metrics;
 import com.flipfit.validation.EmailValidation;
 
 public class Main {
 
-	private static final UserService userService = new UserServiceImpl();
-	private static final BookingService bookingService = new BookingServiceImpl();
-	private static final CustomerService customerService = new CustomerServiceImpl(bookingService);
-	private static final GymOwnerService gymOwnerService = new GymOwnerServiceImpl();
-	private static final AdminService adminService = new AdminServiceImpl();
+	private static final UserService userService = Instrumented.wrap(UserService.class, new UserServiceImpl());
+	private static final BookingService bookingService = Instrumented.wrap(BookingService.class,
+			new BookingServiceImpl());
+	private static final CustomerService customerService = Instrumented.wrap(CustomerService.class,
+			new CustomerServiceImpl(bookingService));
+	private static final GymOwnerService gymOwnerService = Instrumented.wrap(GymOwnerService.class,
+			new GymOwnerServiceImpl(bookingService));
+	private static final AdminService adminService = Instrumented.wrap(AdminService.class, new AdminServiceImpl());
 
 	static boolean validate= false;
 	
     public static void main(String[] args) {
+        Metrics.startConfiguredReporters();
         System.out.println("Welcome to Flipfit Application!");
 
         Scanner scanner = new Scanner(System.in);
@@ -135,13 +141,17 @@ public class Main {
 			System.out.print("Enter email(Ends with \" @gmail.com \" ): ");
 			email = scanner.next();
 			validate = EmailValidation.validateEmail(email);
-			validate &= EmailValidation.checkUnique(DataStore.getAllEmails(), email);
+			validate &= EmailValidation.checkUnique(DataStore.getEmailIndex(), email);
 		} while (!validate );
 		
 		System.out.print("Choose password: ");
 		String password = scanner.next();
 		
 		GymUser user = userService.register(name, email, password, Role.CUSTOMER);
+		if (user == null) {
+			System.out.println("A user with this email already exists.");
+			return;
+		}
 		System.out.println("Registered Customer with user id: " + user.getUserId());
 	}
 
@@ -156,13 +166,17 @@ public class Main {
 			System.out.print("Enter email(Ends with \" @gmail.com \" ): ");
 			email = scanner.next();
 			validate = EmailValidation.validateEmail(email);
-			validate &= EmailValidation.checkUnique(DataStore.getAllEmails(), email);
+			validate &= EmailValidation.checkUnique(DataStore.getEmailIndex(), email);
 		} while (!validate );
 		
 		System.out.print("Choose password: ");
 		String password = scanner.next();
 		
 		GymUser user = userService.register(name, email, password, Role.GYM_OWNER);
+		if (user == null) {
+			System.out.println("A user with this email already exists.");
+			return;
+		}
 		System.out.println("Registered Gym Owner with user id: " + user.getUserId());
 	}
 
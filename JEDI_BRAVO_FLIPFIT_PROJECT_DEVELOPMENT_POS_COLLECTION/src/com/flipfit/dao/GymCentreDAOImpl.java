@@ -8,14 +8,14 @@ package com.flipfit.dao;
 
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
+import com.flipfit.helper.CenterDirectory;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
 
 public class GymCentreDAOImpl implements GymCentreDAO {
     // In a real app, this would be a database connection. 
-    // Here we use an in-memory list for demonstration.
-    private List<GymCenter> centres = new ArrayList<>();
+    // Here we use an in-memory directory indexed by id and by normalized city.
+    private final CenterDirectory centres = new CenterDirectory();
 
     @Override
     public void save(GymCenter centre) {
@@ -24,17 +24,17 @@ public class GymCentreDAOImpl implements GymCentreDAO {
 
     @Override
     public List<GymCenter> findByCity(String city) {
-        return centres.stream()
-                .filter(c -> c.getCenterCity().equalsIgnoreCase(city))
-                .toList();
+        return centres.findByCity(city);
     }
 
     @Override
     public GymSlot getSlotByTime(String centreId, LocalTime startTime, LocalTime endTime) {
         // Logic to find a centre and then search its slots for a time match [cite: 92]
-        return centres.stream()
-                .filter(c -> c.getCenterId().equals(centreId))
-                .flatMap(c -> c.getCenterSlot().stream())
+        GymCenter centre = centres.get(centreId);
+        if (centre == null) {
+            return null;
+        }
+        return centre.getCenterSlot().stream()
                 .filter(s -> s.getStartTime().equals(startTime) && s.getEndTime().equals(endTime))
                 .findFirst()
                 .orElse(null);
@@ -0,0 +1,530 @@
+package com.flipfit.helper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.flipfit.bean.Booking;
+import com.flipfit.bean.GymSlot;
+import com.flipfit.bean.GymUser;
+import com.flipfit.enums.BookingStatus;
+
+/**
+ * Read-only table of bookings in fixed-width binary records, read through a
+ * memory-mapped file so that opening it costs neither time nor heap in
+ * proportion to its size. Bookings are turned back into objects only when
+ * asked for, one record or one center at a time.
+ *
+ * <pre>
+ * header    magic, version, section sizes and the next booking sequence value
+ * slots     48 bytes each: slot ID, center ID, start, end, total and available seats
+ * bookings  52 bytes each: booking ID, user ID, slot number, epoch day, start second,
+ *           next booking of the same user, status; grouped by center in index order
+ * centers   24 bytes each: center ID, first booking, booking count
+ * ids       open-addressing hash table: booking ID to booking number
+ * users     open-addressing hash table: user ID to the user's last booking,
+ *           from which the user's bookings are chained
+ * </pre>
+ *
+ * IDs are stored as a length byte and up to 15 bytes of UTF-8. A booking with a
+ * longer ID, or without a user, slot, date or start time, does not fit and is
+ * left to the caller to store elsewhere.
+ */
+public final class BookingTable {
+
+	public static final int MAX_ID_BYTES = 15;
+
+	private static final int MAGIC = 0x46464254; // "FFBT"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 64;
+	private static final int ID_BYTES = 1 + MAX_ID_BYTES;
+	private static final int SLOT_BYTES = 2 * ID_BYTES + 16;
+	private static final int RECORD_BYTES = 2 * ID_BYTES + 20;
+	private static final int CENTER_BYTES = ID_BYTES + 8;
+	private static final int RECORDS_PER_CHUNK = 1 << 24; // one mapping holds at most 2 GB
+	private static final int NONE = -1;
+
+	// Record layout
+	private static final int USER_AT = ID_BYTES;
+	private static final int SLOT_AT = 2 * ID_BYTES;
+	private static final int DAY_AT = SLOT_AT + 4;
+	private static final int SECOND_AT = DAY_AT + 4;
+	private static final int NEXT_FOR_USER_AT = SECOND_AT + 4;
+	private static final int STATUS_AT = NEXT_FOR_USER_AT + 4;
+
+	private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+	private final MappedByteBuffer[] chunks;
+	private final ByteBuffer idTable;
+	private final ByteBuffer userTable;
+	private final String[] slotIds;
+	private final String[] slotCenters;
+	private final Map<String, int[]> centers; // centerId -> first record and count, in file order
+	private final int recordCount;
+	private final int nextBookingSeq;
+
+	private BookingTable(MappedByteBuffer[] chunks, ByteBuffer idTable, ByteBuffer userTable, String[] slotIds,
+			String[] slotCenters, Map<String, int[]> centers, int recordCount, int nextBookingSeq) {
+		this.chunks = chunks;
+		this.idTable = idTable;
+		this.userTable = userTable;
+		this.slotIds = slotIds;
+		this.slotCenters = slotCenters;
+		this.centers = centers;
+		this.recordCount = recordCount;
+		this.nextBookingSeq = nextBookingSeq;
+	}
+
+	/**
+	 * Maps a table written by {@link Builder#write(int)}. Only the header, the
+	 * slots and the center directory are read.
+	 */
+	public static BookingTable open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+			if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+				throw new IOException("Not a booking table: " + file);
+			}
+			int slotCount = header.getInt(8);
+			int recordCount = header.getInt(12);
+			int centerCount = header.getInt(16);
+			int idCapacity = header.getInt(20);
+			int userCapacity = header.getInt(24);
+			int nextBookingSeq = header.getInt(28);
+			long slotsAt = HEADER_BYTES;
+			long recordsAt = slotsAt + (long) slotCount * SLOT_BYTES;
+			long centersAt = recordsAt + (long) recordCount * RECORD_BYTES;
+			long idsAt = centersAt + (long) centerCount * CENTER_BYTES;
+			long usersAt = idsAt + 4L * idCapacity;
+			if (channel.size() != usersAt + 4L * userCapacity) {
+				throw new IOException("Booking table is truncated: " + file);
+			}
+
+			ByteBuffer slots = channel.map(FileChannel.MapMode.READ_ONLY, slotsAt, (long) slotCount * SLOT_BYTES);
+			String[] slotIds = new String[slotCount];
+			String[] slotCenters = new String[slotCount];
+			for (int i = 0; i < slotCount; i++) {
+				slotIds[i] = readId(slots, i * SLOT_BYTES);
+				slotCenters[i] = readId(slots, i * SLOT_BYTES + ID_BYTES);
+			}
+
+			MappedByteBuffer[] chunks = new MappedByteBuffer[(recordCount + RECORDS_PER_CHUNK - 1) / RECORDS_PER_CHUNK];
+			for (int c = 0; c < chunks.length; c++) {
+				int records = Math.min(RECORDS_PER_CHUNK, recordCount - c * RECORDS_PER_CHUNK);
+				chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY,
+						recordsAt + (long) c * RECORDS_PER_CHUNK * RECORD_BYTES, (long) records * RECORD_BYTES);
+			}
+
+			ByteBuffer directory = channel.map(FileChannel.MapMode.READ_ONLY, centersAt, (long) centerCount * CENTER_BYTES);
+			Map<String, int[]> centers = new LinkedHashMap<>();
+			for (int i = 0; i < centerCount; i++) {
+				int at = i * CENTER_BYTES;
+				centers.put(readId(directory, at),
+						new int[] { directory.getInt(at + ID_BYTES), directory.getInt(at + ID_BYTES + 4) });
+			}
+
+			ByteBuffer ids = channel.map(FileChannel.MapMode.READ_ONLY, idsAt, 4L * idCapacity);
+			ByteBuffer users = channel.map(FileChannel.MapMode.READ_ONLY, usersAt, 4L * userCapacity);
+			return new BookingTable(chunks, ids, users, slotIds, slotCenters, centers, recordCount, nextBookingSeq);
+		}
+	}
+
+	public int size() {
+		return recordCount;
+	}
+
+	/**
+	 * The booking sequence value when the table was written; later IDs are higher.
+	 */
+	public int getNextBookingSeq() {
+		return nextBookingSeq;
+	}
+
+	/**
+	 * Centers with bookings in the table, in file order.
+	 */
+	public List<String> getCenterIds() {
+		return new ArrayList<>(centers.keySet());
+	}
+
+	/**
+	 * The number of the booking with this ID, or -1.
+	 */
+	public int find(String bookingId) {
+		return lookup(idTable, bookingId, 0);
+	}
+
+	/**
+	 * The center holding a booking's slot.
+	 */
+	public String centerOf(int record) {
+		return slotCenters[chunk(record).getInt(offset(record) + SLOT_AT)];
+	}
+
+	/**
+	 * Centers holding the user's bookings, without repeats.
+	 */
+	public List<String> centersOfUser(String userId) {
+		List<String> result = new ArrayList<>();
+		for (int record = lookup(userTable, userId, USER_AT); record != NONE; record = nextForUser(record)) {
+			String centerId = centerOf(record);
+			if (!result.contains(centerId)) {
+				result.add(centerId);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * The center of the user's booking starting at the given epoch minute, or null.
+	 */
+	public String centerOfUserBooking(String userId, long epochMinute) {
+		for (int record = lookup(userTable, userId, USER_AT); record != NONE; record = nextForUser(record)) {
+			ByteBuffer chunk = chunk(record);
+			int at = offset(record);
+			if (Booking.epochMinute(LocalDate.ofEpochDay(chunk.getInt(at + DAY_AT)),
+					LocalTime.ofSecondOfDay(chunk.getInt(at + SECOND_AT))) == epochMinute) {
+				return centerOf(record);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Turns the bookings of a center back into objects, in index order.
+	 */
+	public List<Booking> readCenter(String centerId, Function<String, GymUser> users, Function<String, GymSlot> slots) {
+		int[] range = centers.get(centerId);
+		if (range == null) {
+			return List.of();
+		}
+		List<Booking> bookings = new ArrayList<>(range[1]);
+		for (int record = range[0]; record < range[0] + range[1]; record++) {
+			bookings.add(read(record, users, slots));
+		}
+		return bookings;
+	}
+
+	private Booking read(int record, Function<String, GymUser> users, Function<String, GymSlot> slots) {
+		ByteBuffer chunk = chunk(record);
+		int at = offset(record);
+		Booking booking = new Booking();
+		booking.setBookingId(readId(chunk, at));
+		String userId = readId(chunk, at + USER_AT);
+		GymUser user = users.apply(userId);
+		if (user == null) {
+			user = new GymUser();
+			user.setUserId(userId);
+		}
+		booking.setGymUser(user);
+		String slotId = slotIds[chunk.getInt(at + SLOT_AT)];
+		GymSlot slot = slots.apply(slotId);
+		if (slot == null) {
+			slot = new GymSlot();
+			slot.setSlotId(slotId);
+		}
+		booking.setGymSlot(slot);
+		booking.setBookingDate(LocalDate.ofEpochDay(chunk.getInt(at + DAY_AT)));
+		booking.setStartTime(LocalTime.ofSecondOfDay(chunk.getInt(at + SECOND_AT)));
+		byte status = chunk.get(at + STATUS_AT);
+		booking.setBookingStatus(status < 0 ? null : STATUSES[status]);
+		return booking;
+	}
+
+	/**
+	 * Writes the raw records of a center into a new table, so a center that was
+	 * never loaded is carried over without becoming objects. A booking whose
+	 * slot the new table lacks is returned as an object instead.
+	 */
+	public List<Booking> copyCenter(String centerId, Builder builder, Function<String, GymUser> users,
+			Function<String, GymSlot> slots) throws IOException {
+		int[] range = centers.get(centerId);
+		if (range == null) {
+			return List.of();
+		}
+		List<Booking> misfits = new ArrayList<>();
+		byte[] record = new byte[RECORD_BYTES];
+		for (int r = range[0]; r < range[0] + range[1]; r++) {
+			chunk(r).get(offset(r), record);
+			if (!builder.addRecord(centerId, record, slotIds[ByteBuffer.wrap(record).getInt(SLOT_AT)])) {
+				misfits.add(read(r, users, slots));
+			}
+		}
+		return misfits;
+	}
+
+	private int nextForUser(int record) {
+		return chunk(record).getInt(offset(record) + NEXT_FOR_USER_AT);
+	}
+
+	// Probes the table for a record whose ID at idAt equals key
+	private int lookup(ByteBuffer table, String key, int idAt) {
+		byte[] encoded = encodeId(key);
+		int capacity = table.capacity() / 4;
+		if (encoded == null || capacity == 0) {
+			return NONE;
+		}
+		for (int slot = hash(key) & (capacity - 1);; slot = (slot + 1) & (capacity - 1)) {
+			int entry = table.getInt(slot * 4);
+			if (entry == 0) {
+				return NONE;
+			}
+			int record = entry - 1;
+			if (idEquals(chunk(record), offset(record) + idAt, encoded)) {
+				return record;
+			}
+		}
+	}
+
+	private ByteBuffer chunk(int record) {
+		return chunks[record / RECORDS_PER_CHUNK];
+	}
+
+	private static int offset(int record) {
+		return (record % RECORDS_PER_CHUNK) * RECORD_BYTES;
+	}
+
+	private static int hash(String key) {
+		int h = key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static byte[] encodeId(String id) {
+		if (id == null) {
+			return null;
+		}
+		byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+		return bytes.length > MAX_ID_BYTES ? null : bytes;
+	}
+
+	private static boolean idEquals(ByteBuffer buffer, int at, byte[] encoded) {
+		if (buffer.get(at) != encoded.length) {
+			return false;
+		}
+		for (int i = 0; i < encoded.length; i++) {
+			if (buffer.get(at + 1 + i) != encoded[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String readId(ByteBuffer buffer, int at) {
+		byte[] bytes = new byte[buffer.get(at)];
+		buffer.get(at + 1, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void putId(ByteBuffer buffer, byte[] encoded) {
+		buffer.put((byte) encoded.length);
+		buffer.put(encoded);
+		buffer.position(buffer.position() + MAX_ID_BYTES - encoded.length);
+	}
+
+	/**
+	 * Writes a new table. Slots are registered first, then bookings are added
+	 * center by center in the order they should be read back.
+	 */
+	public static final class Builder {
+		private final FileChannel channel;
+		private final Map<String, Integer> slotNumbers = new HashMap<>();
+		private final List<byte[]> slots = new ArrayList<>();
+		private final List<String> slotCenters = new ArrayList<>();
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_BYTES * 16384);
+		private final Map<String, int[]> centers = new LinkedHashMap<>();
+		private final Map<String, Integer> lastOfUser = new HashMap<>();
+		private int[] idHashes = new int[1024];
+		private int recordCount;
+		private long recordsAt = -1;
+
+		public Builder(Path file) throws IOException {
+			this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.TRUNCATE_EXISTING);
+		}
+
+		/**
+		 * Registers a slot of a center; ignored if its IDs do not fit.
+		 */
+		public void addSlot(String centerId, GymSlot slot) {
+			byte[] slotId = encodeId(slot.getSlotId());
+			byte[] center = encodeId(centerId);
+			if (recordsAt >= 0) {
+				throw new IllegalStateException("Slots must be added before bookings");
+			}
+			if (slotId == null || center == null || slotNumbers.containsKey(slot.getSlotId())) {
+				return;
+			}
+			ByteBuffer record = ByteBuffer.allocate(SLOT_BYTES);
+			putId(record, slotId);
+			putId(record, center);
+			record.putInt(slot.getStartTime() == null ? -1 : slot.getStartTime().toSecondOfDay());
+			record.putInt(slot.getEndTime() == null ? -1 : slot.getEndTime().toSecondOfDay());
+			record.putInt(slot.getTotalSeats());
+			record.putInt(slot.getAvailableSeats());
+			slotNumbers.put(slot.getSlotId(), slots.size());
+			slots.add(record.array());
+			slotCenters.add(centerId);
+		}
+
+		/**
+		 * Adds a booking at a center.
+		 *
+		 * @return false if the booking does not fit the table
+		 */
+		public boolean add(String centerId, Booking booking) throws IOException {
+			byte[] bookingId = encodeId(booking.getBookingId());
+			byte[] userId = booking.getGymUser() == null ? null : encodeId(booking.getGymUser().getUserId());
+			Integer slot = booking.getGymSlot() == null ? null : slotNumbers.get(booking.getGymSlot().getSlotId());
+			if (bookingId == null || userId == null || slot == null || booking.getBookingDate() == null
+					|| booking.getStartTime() == null || !centerId.equals(slotCenters.get(slot))) {
+				return false;
+			}
+			byte[] record = new byte[RECORD_BYTES];
+			ByteBuffer out = ByteBuffer.wrap(record);
+			putId(out, bookingId);
+			putId(out, userId);
+			out.putInt(slot);
+			out.putInt(Math.toIntExact(booking.getBookingDate().toEpochDay()));
+			out.putInt(booking.getStartTime().toSecondOfDay());
+			out.putInt(NONE); // linked below
+			out.put((byte) (booking.getBookingStatus() == null ? -1 : booking.getBookingStatus().ordinal()));
+			append(centerId, record, booking.getBookingId(), booking.getGymUser().getUserId());
+			return true;
+		}
+
+		// A record copied from another table, whose slot number is renumbered here
+		boolean addRecord(String centerId, byte[] record, String slotId) throws IOException {
+			Integer slot = slotNumbers.get(slotId);
+			if (slot == null || !centerId.equals(slotCenters.get(slot))) {
+				return false;
+			}
+			ByteBuffer in = ByteBuffer.wrap(record);
+			in.putInt(SLOT_AT, slot);
+			append(centerId, record, readId(in, 0), readId(in, USER_AT));
+			return true;
+		}
+
+		private void append(String centerId, byte[] record, String bookingId, String userId) throws IOException {
+			if (recordsAt < 0) {
+				writeSlots();
+			}
+			if (encodeId(centerId) == null) {
+				throw new IllegalArgumentException("Center ID too long for the table: " + centerId);
+			}
+			int[] range = centers.computeIfAbsent(centerId, k -> new int[] { recordCount, 0 });
+			if (range[0] + range[1] != recordCount) {
+				throw new IllegalStateException("Bookings of center " + centerId + " must be added together");
+			}
+			range[1]++;
+			Integer previous = lastOfUser.put(userId, recordCount);
+			ByteBuffer.wrap(record).putInt(NEXT_FOR_USER_AT, previous == null ? NONE : previous);
+			if (recordCount == idHashes.length) {
+				idHashes = Arrays.copyOf(idHashes, idHashes.length * 2);
+			}
+			idHashes[recordCount++] = hash(bookingId);
+			if (buffer.remaining() < RECORD_BYTES) {
+				drain();
+			}
+			buffer.put(record);
+		}
+
+		private void writeSlots() throws IOException {
+			channel.position(HEADER_BYTES);
+			for (byte[] slot : slots) {
+				buffer.put(slot);
+				if (buffer.remaining() < SLOT_BYTES) {
+					drain();
+				}
+			}
+			recordsAt = HEADER_BYTES + (long) slots.size() * SLOT_BYTES;
+		}
+
+		/**
+		 * Finishes the table, forces it to disk and closes it.
+		 */
+		public void write(int nextBookingSeq) throws IOException {
+			try {
+				if (recordsAt < 0) {
+					writeSlots();
+				}
+				for (Map.Entry<String, int[]> center : centers.entrySet()) {
+					if (buffer.remaining() < CENTER_BYTES) {
+						drain();
+					}
+					putId(buffer, encodeId(center.getKey()));
+					buffer.putInt(center.getValue()[0]);
+					buffer.putInt(center.getValue()[1]);
+				}
+				int idCapacity = capacityFor(recordCount);
+				writeTable(idCapacity, idHashes, recordCount, null);
+				int userCapacity = capacityFor(lastOfUser.size());
+				int[] userHashes = new int[lastOfUser.size()];
+				int[] userHeads = new int[lastOfUser.size()];
+				int u = 0;
+				for (Map.Entry<String, Integer> user : lastOfUser.entrySet()) {
+					userHashes[u] = hash(user.getKey());
+					userHeads[u++] = user.getValue();
+				}
+				writeTable(userCapacity, userHashes, userHeads.length, userHeads);
+				drain();
+
+				ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+				header.putInt(MAGIC).putInt(VERSION).putInt(slots.size()).putInt(recordCount).putInt(centers.size())
+						.putInt(idCapacity).putInt(userCapacity).putInt(nextBookingSeq);
+				header.clear();
+				while (header.hasRemaining()) {
+					channel.write(header, header.position());
+				}
+				channel.force(true);
+			} finally {
+				channel.close();
+			}
+		}
+
+		private void writeTable(int capacity, int[] hashes, int count, int[] values) throws IOException {
+			int[] table = new int[capacity];
+			for (int i = 0; i < count; i++) {
+				int slot = hashes[i] & (capacity - 1);
+				while (table[slot] != 0) {
+					slot = (slot + 1) & (capacity - 1);
+				}
+				table[slot] = (values == null ? i : values[i]) + 1;
+			}
+			for (int entry : table) {
+				if (buffer.remaining() < 4) {
+					drain();
+				}
+				buffer.putInt(entry);
+			}
+		}
+
+		private void drain() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+		// A power of two at least twice the count, so probes stay short
+		private static int capacityFor(int count) {
+			if (count > (1 << 29)) {
+				throw new IllegalStateException("Too many entries for a booking table: " + count);
+			}
+			return count == 0 ? 0 : Integer.highestOneBit(Math.max(1, count * 2 - 1)) << 1;
+		}
+	}
+}
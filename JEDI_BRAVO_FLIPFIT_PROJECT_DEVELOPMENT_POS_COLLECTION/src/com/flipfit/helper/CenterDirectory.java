@@ -0,0 +1,225 @@
+package com.flipfit.helper;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import com.flipfit.bean.GymCenter;
+import com.flipfit.bean.GymSlot;
+
+/**
+ * Gym centers indexed by ID, by owner, by slot and, once approved, by city.
+ *
+ * City names are normalized before indexing: accents, case, surrounding
+ * spaces and separators are ignored, so "Bengaluru", " bengaluru" and
+ * "BENGALURU" are the same city. The city index is sorted, which lets
+ * {@link #search(String)} fall back from an exact city to a prefix and then to
+ * city names one or two edits away.
+ *
+ * Writes are synchronized; reads go straight to the concurrent maps.
+ */
+public class CenterDirectory {
+
+	private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+	private static final Pattern SEPARATORS = Pattern.compile("[\\s\\-_.,]+");
+
+	private final Map<String, GymCenter> byId = new ConcurrentHashMap<>();
+	private final Map<String, List<GymCenter>> byOwner = new ConcurrentHashMap<>();
+	private final Map<String, GymCenter> bySlot = new ConcurrentHashMap<>(); // slotId -> center holding it
+	// normalized city -> centerId -> approved center
+	private final ConcurrentSkipListMap<String, NavigableMap<String, GymCenter>> byCity = new ConcurrentSkipListMap<>();
+
+	/**
+	 * Adds a center, or replaces the one with the same ID. The new center is
+	 * indexed before the entries of the one it replaces are removed, so readers,
+	 * which take no lock, always find one or the other. Adding the stored center
+	 * again, e.g. to journal a change to it, only indexes what is new.
+	 */
+	public synchronized void add(GymCenter center) {
+		GymCenter previous = byId.put(center.getCenterId(), center);
+		List<GymCenter> owned = byOwner.computeIfAbsent(center.getOwnerId(), k -> new CopyOnWriteArrayList<>());
+		if (!owned.contains(center)) {
+			owned.add(center);
+		}
+		if (center.getCenterSlot() != null) {
+			for (GymSlot slot : center.getCenterSlot()) {
+				bySlot.put(slot.getSlotId(), center);
+			}
+		}
+		if (center.isApproved()) {
+			indexCity(center);
+		}
+		if (previous != null && previous != center) {
+			List<GymCenter> previouslyOwned = byOwner.get(previous.getOwnerId());
+			if (previouslyOwned != null) {
+				previouslyOwned.remove(previous);
+			}
+			unindexCity(previous);
+			if (previous.getCenterSlot() != null) {
+				for (GymSlot slot : previous.getCenterSlot()) {
+					bySlot.remove(slot.getSlotId(), previous);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Approves a center, making it visible to customers.
+	 *
+	 * @return false if there is no such center
+	 */
+	public synchronized boolean approve(String centerId) {
+		GymCenter center = byId.get(centerId);
+		if (center == null) {
+			return false;
+		}
+		center.setApproved(true);
+		indexCity(center);
+		return true;
+	}
+
+	/**
+	 * Adds a slot to a center.
+	 *
+	 * @return false if there is no such center
+	 */
+	public synchronized boolean addSlot(String centerId, GymSlot slot) {
+		GymCenter center = byId.get(centerId);
+		if (center == null) {
+			return false;
+		}
+		center.getCenterSlot().add(slot);
+		bySlot.put(slot.getSlotId(), center);
+		return true;
+	}
+
+	/**
+	 * The center holding the slot, or null.
+	 */
+	public GymCenter findBySlot(String slotId) {
+		return bySlot.get(slotId);
+	}
+
+	public GymCenter get(String centerId) {
+		return byId.get(centerId);
+	}
+
+	public Collection<GymCenter> getAll() {
+		return byId.values();
+	}
+
+	/**
+	 * Every center of the owner, approved or not.
+	 */
+	public List<GymCenter> findByOwner(String ownerId) {
+		return byOwner.getOrDefault(ownerId, List.of());
+	}
+
+	/**
+	 * Approved centers in exactly this city, after normalization.
+	 */
+	public List<GymCenter> findByCity(String city) {
+		NavigableMap<String, GymCenter> centers = byCity.get(normalizeCity(city));
+		return centers == null ? new ArrayList<>() : new ArrayList<>(centers.values());
+	}
+
+	/**
+	 * Approved centers for a city typed by a customer: the exact city if it has
+	 * any, else every city starting with the text, else the closest city names
+	 * within one edit (two for names of eight or more letters).
+	 */
+	public List<GymCenter> search(String query) {
+		String key = normalizeCity(query);
+		if (key.isEmpty()) {
+			return new ArrayList<>();
+		}
+		NavigableMap<String, GymCenter> exact = byCity.get(key);
+		if (exact != null) {
+			return new ArrayList<>(exact.values());
+		}
+
+		List<GymCenter> matches = new ArrayList<>();
+		for (NavigableMap<String, GymCenter> centers : byCity.subMap(key, true, key + Character.MAX_VALUE, true).values()) {
+			matches.addAll(centers.values());
+		}
+		if (!matches.isEmpty()) {
+			return matches;
+		}
+
+		int maxDistance = key.length() >= 8 ? 2 : key.length() >= 4 ? 1 : 0;
+		int best = maxDistance + 1;
+		for (Map.Entry<String, NavigableMap<String, GymCenter>> city : byCity.entrySet()) {
+			int distance = editDistance(key, city.getKey(), maxDistance);
+			if (distance > maxDistance) {
+				continue;
+			}
+			if (distance < best) {
+				best = distance;
+				matches.clear();
+			}
+			if (distance == best) {
+				matches.addAll(city.getValue().values());
+			}
+		}
+		return matches;
+	}
+
+	public static String normalizeCity(String city) {
+		if (city == null) {
+			return "";
+		}
+		String stripped = MARKS.matcher(Normalizer.normalize(city, Normalizer.Form.NFD)).replaceAll("");
+		return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+	}
+
+	private void indexCity(GymCenter center) {
+		byCity.computeIfAbsent(normalizeCity(center.getCenterCity()), k -> new ConcurrentSkipListMap<>())
+				.put(center.getCenterId(), center);
+	}
+
+	private void unindexCity(GymCenter center) {
+		String key = normalizeCity(center.getCenterCity());
+		NavigableMap<String, GymCenter> centers = byCity.get(key);
+		if (centers != null && centers.remove(center.getCenterId(), center) && centers.isEmpty()) {
+			byCity.remove(key);
+		}
+	}
+
+	/**
+	 * Levenshtein distance, or max + 1 as soon as it must exceed max.
+	 */
+	private static int editDistance(String a, String b, int max) {
+		if (Math.abs(a.length() - b.length()) > max) {
+			return max + 1;
+		}
+		int[] previous = new int[b.length() + 1];
+		int[] current = new int[b.length() + 1];
+		for (int j = 0; j <= b.length(); j++) {
+			previous[j] = j;
+		}
+		for (int i = 1; i <= a.length(); i++) {
+			current[0] = i;
+			int rowMin = current[0];
+			for (int j = 1; j <= b.length(); j++) {
+				int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+				current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+				rowMin = Math.min(rowMin, current[j]);
+			}
+			if (rowMin > max) {
+				return max + 1;
+			}
+			int[] swap = previous;
+			previous = current;
+			current = swap;
+		}
+		return Math.min(previous[b.length()], max + 1);
+	}
+}
@@ -1,53 +1,146 @@
 package com.flipfit.helper;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
 import com.flipfit.bean.GymUser;
+import com.flipfit.bean.GymWaitList;
 import com.flipfit.bean.Booking;
 import com.flipfit.enums.Role;
 import com.flipfit.enums.BookingStatus;
+import com.flipfit.metrics.Metrics;
 
 /**
  * In-memory data store backed by Java collections.
  * This avoids any DB dependency while keeping the code modular.
+ *
+ * All structures are concurrent, so the store can be shared by many booking
+ * threads. Seats are taken through {@link #reserveSeat(GymSlot, LocalDate)}
+ * without locking; waitlist changes and seat hand-overs must hold the lock
+ * returned by {@link #lockFor(String, LocalDate)} for that slot and date.
+ *
+ * When the system property flipfit.data.dir names a directory, every change
+ * is also written to a {@link StoreJournal} there, with a snapshot every
+ * flipfit.snapshot.minutes (10 by default), and the store is recovered from
+ * it on startup instead of being seeded. A mutator returns once its change is
+ * on disk; with flipfit.journal.sync=false it returns at once and the journal
+ * is forced to disk about once a second. Seat counts are not journaled: they
+ * are rebuilt from the recovered bookings.
+ *
+ * A snapshot keeps its bookings in a memory-mapped {@link BookingTable}, so
+ * startup does not build them. A center's snapshot bookings become objects the
+ * first time anything reads its bookings or seats, or changes one of those
+ * bookings; whole-store reads such as {@link #getAllBookings()} load every
+ * center, while {@link #streamAllBookings()} reads them without loading.
  */
 public final class DataStore {
 
-	private static final Map<String, GymUser> USERS = new HashMap<>();
-	private static final Map<String, GymCenter> CENTERS = new HashMap<>();
-	private static final Map<String, Booking> BOOKINGS = new HashMap<>();
-	private static final Map<String, List<Booking>> WAITLIST = new HashMap<>();
+	private static final Map<String, GymUser> USERS = new ConcurrentHashMap<>();
+	private static final CenterDirectory CENTERS = new CenterDirectory(); // by id, owner and approved city
+	private static final Map<String, Booking> BOOKINGS = new ConcurrentHashMap<>();
+	private static final Map<String, Map<LocalDate, GymWaitList>> WAITLIST = new ConcurrentHashMap<>(); // slotId -> date -> queue
+
+	// Secondary indexes, kept in step with BOOKINGS by the mutators below
+	private static final SeatInventory SEATS = new SeatInventory(); // seats held per slot and date
+	private static final Map<String, Map<Long, String>> USER_BOOKING_AT = new ConcurrentHashMap<>(); // userId -> start epoch minute -> bookingId
+	private static final Map<String, NavigableSet<Booking>> OWNER_BOOKINGS = new ConcurrentHashMap<>(); // ownerId -> bookings by start and slot
+	private static final Map<String, NavigableSet<Booking>> CENTER_BOOKINGS = new ConcurrentHashMap<>(); // centerId -> bookings by start and slot
+	private static final Comparator<Booking> BY_START_AND_SLOT = Comparator.comparingLong(Booking::getStartEpochMinute)
+			.thenComparing(DataStore::slotIdOf).thenComparing(Booking::getBookingId);
+	private static final Map<String, GymWaitList> WAITLISTED = new ConcurrentHashMap<>(); // bookingId -> its waitlist
+	private static final Map<String, Map<Long, String>> USER_WAITING_AT = new ConcurrentHashMap<>(); // userId -> start epoch minute -> waiting bookingId
+
+	// Striped locks guarding seat checks per slot and date, and a user's bookings per start time
+	private static final int LOCK_STRIPES = 64;
+	private static final ReentrantLock[] SLOT_LOCKS = new ReentrantLock[LOCK_STRIPES];
+	private static final ReentrantLock[] USER_LOCKS = new ReentrantLock[LOCK_STRIPES];
 
 	private static final AtomicInteger CENTER_SEQ = new AtomicInteger(100);
 	private static final AtomicInteger SLOT_SEQ = new AtomicInteger(200);
 	private static final AtomicInteger BOOKING_SEQ = new AtomicInteger(300);
 	private static final AtomicInteger USER_SEQ = new AtomicInteger(400);
 
-	private static final Set<String> emails = new HashSet<>();
-	
+	// Registered emails; sized for bulk sign-ups, the filter degrades gracefully beyond that
+	private static final int EXPECTED_EMAILS = 1_000_000;
+	private static final EmailIndex EMAILS = new EmailIndex(EXPECTED_EMAILS, 0.01);
+
+	// Persistence, off unless a data directory is given
+	private static final String DATA_DIR_PROPERTY = "flipfit.data.dir";
+	private static final String SYNC_COMMITS_PROPERTY = "flipfit.journal.sync";
+	private static final String SNAPSHOT_MINUTES_PROPERTY = "flipfit.snapshot.minutes";
+	private static final ReentrantLock MUTATIONS = new ReentrantLock(); // held across a change and its journal record
+	private static final StoreJournal JOURNAL;
+
+	// Snapshot bookings not yet turned into objects, and the centers they belong to
+	private static volatile BookingTable snapshotBookings;
+	private static final Map<String, Boolean> UNLOADED_CENTERS = new ConcurrentHashMap<>();
+	private static boolean recovering; // seats are counted once recovery is over
+
 	static {
-		seedUsers();
-		seedCenters();
+		for (int i = 0; i < LOCK_STRIPES; i++) {
+			SLOT_LOCKS[i] = new ReentrantLock();
+			USER_LOCKS[i] = new ReentrantLock();
+		}
+		String dataDir = System.getProperty(DATA_DIR_PROPERTY, "").trim();
+		JOURNAL = dataDir.isEmpty() ? null
+				: new StoreJournal(Paths.get(dataDir), !"false".equalsIgnoreCase(System.getProperty(SYNC_COMMITS_PROPERTY)));
+		if (JOURNAL == null || !recover(Paths.get(dataDir))) {
+			seedUsers();
+			seedCenters();
+		}
+		if (JOURNAL != null) {
+			startSnapshots();
+		}
 	}
 
-	public static Set<String> getAllEmails() {
-		return emails;
+	public static EmailIndex getEmailIndex() {
+		return EMAILS;
 	}
+
 	public static void addNewEmail(String email) {
-		 emails.add(email);
+		if (email != null) {
+			EMAILS.add(email);
+		}
 	}
-	
+
+	public static boolean emailExists(String email) {
+		return email != null && EMAILS.contains(email);
+	}
+
+	/**
+	 * Reserves an email for a new user.
+	 *
+	 * @return false if the email is already registered
+	 */
+	public static boolean claimEmail(String email) {
+		return email != null && EMAILS.add(email);
+	}
+
 
 	private DataStore() {
 	}
@@ -61,7 +154,7 @@ public final class DataStore {
 		
 		admin.setPassword("admin");
 		admin.setRole(Role.ADMIN);
-		USERS.put(admin.getUserId(), admin);
+		addUser(admin);
 
 		GymUser owner = new GymUser();
 		owner.setUserId("owner1");
@@ -69,7 +162,7 @@ public final class DataStore {
 		owner.setEmail("owner1@flipfit.com");
 		owner.setPassword("password");
 		owner.setRole(Role.GYM_OWNER);
-		USERS.put(owner.getUserId(), owner);
+		addUser(owner);
 
 		GymUser customer = new GymUser();
 		customer.setUserId("cust1");
@@ -78,7 +171,7 @@ public final class DataStore {
 		customer.setPassword("password");
 		customer.setRole(Role.CUSTOMER);
 		
-		USERS.put(customer.getUserId(), customer);
+		addUser(customer);
 	}
 
 	private static void seedCenters() {
@@ -88,7 +181,8 @@ public final class DataStore {
 		bellandur.setCenterLocn("Bellandur");
 		bellandur.setOwnerId("owner1");
 		bellandur.setCenterSlot(defaultSlots());
-		CENTERS.put(bellandur.getCenterId(), bellandur);
+		bellandur.setApproved(true);
+		addCenter(bellandur);
 
 		GymCenter koramangala = new GymCenter();
 		koramangala.setCenterId("C2");
@@ -96,7 +190,8 @@ public final class DataStore {
 		koramangala.setCenterLocn("Koramangala");
 		koramangala.setOwnerId("owner1");
 		koramangala.setCenterSlot(defaultSlots());
-		CENTERS.put(koramangala.getCenterId(), koramangala);
+		koramangala.setApproved(true);
+		addCenter(koramangala);
 	}
 
 	private static List<GymSlot> defaultSlots() {
@@ -130,52 +225,847 @@ public final class DataStore {
 		return USERS.get(userId);
 	}
 
+	/**
+	 * Adds a user, or replaces the one with the same ID. Call it again after
+	 * changing a stored user, e.g. a password, so the change is journaled.
+	 */
 	public static void addUser(GymUser user) {
-		USERS.put(user.getUserId(), user);
+		long seq;
+		lockMutations();
+		try {
+			USERS.put(user.getUserId(), user);
+			seq = journal(StoreRecords.PUT_USER, out -> StoreRecords.writeUser(out, user));
+		} finally {
+			unlockMutations();
+		}
+		awaitDurable(seq);
 	}
 
 	public static Collection<GymCenter> getAllCenters() {
-		return CENTERS.values();
+		return CENTERS.getAll();
 	}
 
 	public static GymCenter getCenter(String centerId) {
 		return CENTERS.get(centerId);
 	}
 
+	/**
+	 * Adds a center, or replaces the one with the same ID. Call it again after
+	 * changing a stored center or its slots, so the change is journaled.
+	 */
 	public static void addCenter(GymCenter center) {
-		CENTERS.put(center.getCenterId(), center);
+		long seq;
+		lockMutations();
+		try {
+			CENTERS.add(center);
+			seq = journal(StoreRecords.PUT_CENTER, out -> StoreRecords.writeCenter(out, center));
+		} finally {
+			unlockMutations();
+		}
+		awaitDurable(seq);
+	}
+
+	public static boolean approveCenter(String centerId) {
+		long seq = 0;
+		boolean approved;
+		lockMutations();
+		try {
+			approved = CENTERS.approve(centerId);
+			if (approved) {
+				seq = journal(StoreRecords.APPROVE_CENTER, out -> out.writeUTF(centerId));
+			}
+		} finally {
+			unlockMutations();
+		}
+		awaitDurable(seq);
+		return approved;
+	}
+
+	public static boolean addSlot(String centerId, GymSlot slot) {
+		long seq = 0;
+		boolean added;
+		lockMutations();
+		try {
+			added = CENTERS.addSlot(centerId, slot);
+			if (added) {
+				seq = journal(StoreRecords.ADD_SLOT, out -> {
+					out.writeUTF(centerId);
+					StoreRecords.writeSlot(out, slot);
+				});
+			}
+		} finally {
+			unlockMutations();
+		}
+		awaitDurable(seq);
+		return added;
+	}
+
+	/**
+	 * The center holding the slot, or null.
+	 */
+	public static GymCenter getCenterForSlot(String slotId) {
+		return CENTERS.findBySlot(slotId);
+	}
+
+	public static List<GymCenter> getCentersByOwner(String ownerId) {
+		return CENTERS.findByOwner(ownerId);
+	}
+
+	/**
+	 * Approved centers for a city as typed by a customer; see {@link CenterDirectory#search(String)}.
+	 */
+	public static List<GymCenter> searchCentersByCity(String city) {
+		return CENTERS.search(city);
 	}
 
 	public static Collection<Booking> getAllBookings() {
+		loadAllCenters();
 		return BOOKINGS.values();
 	}
 
+	/**
+	 * The same bookings as {@link #getAllBookings()}, for a single pass such
+	 * as an export. Centers whose snapshot bookings have not loaded are read
+	 * from the snapshot one center at a time and left unloaded, so the pass
+	 * does not keep those bookings in memory. Bookings made or cancelled
+	 * while the stream is consumed may or may not be seen.
+	 */
+	public static Stream<Booking> streamAllBookings() {
+		BookingTable table = snapshotBookings;
+		if (table == null) {
+			return BOOKINGS.values().stream();
+		}
+		Set<String> unloaded = new HashSet<>(UNLOADED_CENTERS.keySet());
+		// Skips the bookings of those centers should one load meanwhile, as they are read below
+		Stream<Booking> loaded = BOOKINGS.values().stream().filter(booking -> {
+			int record = table.find(booking.getBookingId());
+			return record < 0 || !unloaded.contains(table.centerOf(record));
+		});
+		return Stream.concat(loaded, unloaded.stream()
+				.flatMap(centerId -> table.readCenter(centerId, USERS::get, DataStore::findSlot).stream()));
+	}
+
 	public static Booking getBooking(String bookingId) {
+		loadCenterOfBooking(bookingId);
 		return BOOKINGS.get(bookingId);
 	}
 
+	/**
+	 * Stores a booking. A new booking must already hold a seat from reserveSeat.
+	 */
 	public static void saveBooking(Booking booking) {
-		BOOKINGS.put(booking.getBookingId(), booking);
+		loadCenterOfBooking(booking.getBookingId());
+		long seq;
+		lockMutations();
+		try {
+			putBooking(booking);
+			seq = journal(StoreRecords.SAVE_BOOKING, out -> StoreRecords.writeBooking(out, booking));
+		} finally {
+			unlockMutations();
+		}
+		awaitDurable(seq);
 	}
 
+	/**
+	 * Removes a booking and gives its seat back.
+	 */
 	public static Booking removeBooking(String bookingId) {
-		return BOOKINGS.remove(bookingId);
+		loadCenterOfBooking(bookingId);
+		long seq = 0;
+		Booking removed;
+		lockMutations();
+		try {
+			removed = takeBooking(bookingId);
+			if (removed != null) {
+				seq = journal(StoreRecords.REMOVE_BOOKING, out -> out.writeUTF(bookingId));
+			}
+		} finally {
+			unlockMutations();
+		}
+		if (removed != null && removed.getGymSlot() != null && removed.getBookingDate() != null) {
+			SEATS.release(removed.getGymSlot().getSlotId(), removed.getBookingDate());
+		}
+		awaitDurable(seq);
+		return removed;
 	}
 
-	public static void addToWaitlist(String slotId, Booking booking) {
-		WAITLIST.computeIfAbsent(slotId, k -> new ArrayList<>()).add(booking);
+	/**
+	 * Removes a booking and gives its seat straight to another booking for the
+	 * same slot and date, so no other booker can take it in between.
+	 */
+	public static Booking handOverSeat(String bookingId, Booking next) {
+		loadCenterOfBooking(bookingId);
+		loadCenterOfBooking(next.getBookingId());
+		long seq = 0;
+		Booking removed;
+		lockMutations();
+		try {
+			removed = takeBooking(bookingId);
+			if (removed != null) {
+				putBooking(next);
+				seq = journal(StoreRecords.HAND_OVER_SEAT, out -> {
+					out.writeUTF(bookingId);
+					StoreRecords.writeBooking(out, next);
+				});
+			}
+		} finally {
+			unlockMutations();
+		}
+		awaitDurable(seq);
+		return removed;
 	}
 
-	public static List<Booking> getWaitlist(String slotId) {
-		return WAITLIST.getOrDefault(slotId, List.of());
+	private static void putBooking(Booking booking) {
+		Booking previous = BOOKINGS.put(booking.getBookingId(), booking);
+		if (previous != null) {
+			unindexBooking(previous);
+		}
+		indexBooking(booking);
 	}
 
-	public static Booking popWaitlist(String slotId) {
-		List<Booking> list = WAITLIST.get(slotId);
-		if (list == null || list.isEmpty()) {
+	private static Booking takeBooking(String bookingId) {
+		Booking removed = BOOKINGS.remove(bookingId);
+		if (removed != null) {
+			unindexBooking(removed);
+		}
+		return removed;
+	}
+
+	/**
+	 * Gives back a seat taken with reserveSeat that no booking ended up using.
+	 */
+	public static void releaseSeat(GymSlot slot, LocalDate date) {
+		SEATS.release(slot.getSlotId(), date);
+	}
+
+	/**
+	 * Takes a seat in the slot on the date if one is free.
+	 */
+	public static boolean reserveSeat(GymSlot slot, LocalDate date) {
+		loadCenterOfSlot(slot);
+		return SEATS.tryReserve(slot.getSlotId(), date, slot.getTotalSeats());
+	}
+
+	/**
+	 * Number of seats held in the slot on the given date.
+	 */
+	public static int countBookings(String slotId, LocalDate date) {
+		loadCenter(CENTERS.findBySlot(slotId));
+		return SEATS.booked(slotId, date);
+	}
+
+	/**
+	 * Number of seats still free in the slot on the given date.
+	 */
+	public static int availableSeats(GymSlot slot, LocalDate date) {
+		loadCenterOfSlot(slot);
+		return SEATS.available(slot.getSlotId(), date, slot.getTotalSeats());
+	}
+
+	/**
+	 * The user's stored booking starting at the given date and time, or null.
+	 */
+	public static Booking findUserBooking(String userId, LocalDate date, LocalTime startTime) {
+		long epochMinute = Booking.epochMinute(date, startTime);
+		BookingTable table = snapshotBookings;
+		if (table != null) {
+			loadCenter(table.centerOfUserBooking(userId, epochMinute));
+		}
+		String bookingId = USER_BOOKING_AT.getOrDefault(userId, Map.of()).get(epochMinute);
+		return bookingId == null ? null : BOOKINGS.get(bookingId);
+	}
+
+	/**
+	 * The user's stored bookings in date and time order.
+	 */
+	public static List<Booking> getUserBookings(String userId) {
+		BookingTable table = snapshotBookings;
+		if (table != null) {
+			for (String centerId : table.centersOfUser(userId)) {
+				loadCenter(centerId);
+			}
+		}
+		List<Booking> bookings = new ArrayList<>();
+		for (String bookingId : USER_BOOKING_AT.getOrDefault(userId, Map.of()).values()) {
+			Booking booking = BOOKINGS.get(bookingId);
+			if (booking != null) {
+				bookings.add(booking);
+			}
+		}
+		bookings.sort(Comparator.comparingLong(Booking::getStartEpochMinute));
+		return bookings;
+	}
+
+	/**
+	 * Confirmed bookings at the owner's centers between the two dates, both
+	 * inclusive and either null for no bound, in date and time order. The
+	 * result is a live view.
+	 */
+	public static Collection<Booking> getOwnerBookings(String ownerId, LocalDate from, LocalDate to) {
+		if (!UNLOADED_CENTERS.isEmpty()) {
+			for (GymCenter center : CENTERS.findByOwner(ownerId)) {
+				loadCenter(center.getCenterId());
+			}
+		}
+		return between(OWNER_BOOKINGS.get(ownerId), from, to);
+	}
+
+	/**
+	 * Confirmed bookings at the center between the two dates, both inclusive
+	 * and either null for no bound, ordered by start time and then slot. The
+	 * stream reads the index lazily, so a long range is never copied; bookings
+	 * made or cancelled while it is consumed may or may not be seen.
+	 */
+	public static Stream<Booking> streamCenterBookings(String centerId, LocalDate from, LocalDate to) {
+		loadCenter(centerId);
+		return between(CENTER_BOOKINGS.get(centerId), from, to).stream();
+	}
+
+	private static Collection<Booking> between(NavigableSet<Booking> bookings, LocalDate from, LocalDate to) {
+		if (bookings == null) {
+			return List.of();
+		}
+		if (from != null && to != null) {
+			return bookings.subSet(startOfDay(from), true, startOfDay(to.plusDays(1)), false);
+		}
+		if (from != null) {
+			return bookings.tailSet(startOfDay(from), true);
+		}
+		if (to != null) {
+			return bookings.headSet(startOfDay(to.plusDays(1)), false);
+		}
+		return bookings;
+	}
+
+	// Sorts before every booking on the date, as slot and booking IDs are never empty
+	private static Booking startOfDay(LocalDate date) {
+		Booking bound = new Booking();
+		bound.setBookingId("");
+		bound.setBookingDate(date);
+		bound.setStartTime(LocalTime.MIDNIGHT);
+		return bound;
+	}
+
+	/**
+	 * Adds a booking to the waitlist for its slot and date.
+	 *
+	 * @return the booking's 1-based position in the waitlist
+	 */
+	public static int addToWaitlist(String slotId, Booking booking) {
+		long seq;
+		int position;
+		lockMutations();
+		try {
+			position = enqueue(slotId, booking);
+			seq = journal(StoreRecords.WAITLIST_ADD, out -> {
+				out.writeUTF(slotId);
+				StoreRecords.writeBooking(out, booking);
+			});
+		} finally {
+			unlockMutations();
+		}
+		awaitDurable(seq);
+		return position;
+	}
+
+	private static int enqueue(String slotId, Booking booking) {
+		LocalDate date = booking.getBookingDate();
+		GymWaitList waitList = WAITLIST.computeIfAbsent(slotId, k -> new ConcurrentHashMap<>())
+				.computeIfAbsent(date, d -> new GymWaitList(slotId, d));
+		int position = waitList.enqueue(booking);
+		WAITLISTED.put(booking.getBookingId(), waitList);
+		indexWaiting(booking);
+		return position;
+	}
+
+	public static List<Booking> getWaitlist(String slotId, LocalDate date) {
+		GymWaitList waitList = WAITLIST.getOrDefault(slotId, Map.of()).get(date);
+		return waitList == null ? List.of() : waitList.getBookings();
+	}
+
+	/**
+	 * Every non-empty waitlist of the slot, one per date.
+	 */
+	public static Collection<GymWaitList> getWaitlists(String slotId) {
+		return new ArrayList<>(WAITLIST.getOrDefault(slotId, Map.of()).values());
+	}
+
+	public static Booking popWaitlist(String slotId, LocalDate date) {
+		GymWaitList waitList = WAITLIST.getOrDefault(slotId, Map.of()).get(date);
+		if (waitList == null) {
+			return null;
+		}
+		long seq = 0;
+		Booking head;
+		lockMutations();
+		try {
+			head = waitList.poll();
+			if (head != null) {
+				WAITLISTED.remove(head.getBookingId());
+				unindexWaiting(head);
+				seq = journal(StoreRecords.WAITLIST_REMOVE, out -> out.writeUTF(head.getBookingId()));
+			}
+			dropIfEmpty(waitList);
+		} finally {
+			unlockMutations();
+		}
+		awaitDurable(seq);
+		return head;
+	}
+
+	/**
+	 * The waiting booking with the given id, or null if it is not on a waitlist.
+	 */
+	public static Booking getWaitlistedBooking(String bookingId) {
+		GymWaitList waitList = WAITLISTED.get(bookingId);
+		if (waitList == null) {
+			return null;
+		}
+		for (Booking booking : waitList.getBookings()) {
+			if (booking.getBookingId().equals(bookingId)) {
+				return booking;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The user's waitlisted booking starting at the given date and time, or null.
+	 */
+	public static Booking findUserWaitlisted(String userId, LocalDate date, LocalTime startTime) {
+		String bookingId = USER_WAITING_AT.getOrDefault(userId, Map.of()).get(Booking.epochMinute(date, startTime));
+		return bookingId == null ? null : getWaitlistedBooking(bookingId);
+	}
+
+	/**
+	 * The booking's 1-based waitlist position, or 0 if it is not waiting.
+	 */
+	public static int getWaitlistPosition(String bookingId) {
+		GymWaitList waitList = WAITLISTED.get(bookingId);
+		return waitList == null ? 0 : waitList.positionOf(bookingId);
+	}
+
+	public static Booking withdrawFromWaitlist(String bookingId) {
+		long seq = 0;
+		Booking withdrawn;
+		lockMutations();
+		try {
+			withdrawn = withdraw(bookingId);
+			if (withdrawn != null) {
+				seq = journal(StoreRecords.WAITLIST_REMOVE, out -> out.writeUTF(bookingId));
+			}
+		} finally {
+			unlockMutations();
+		}
+		awaitDurable(seq);
+		return withdrawn;
+	}
+
+	private static Booking withdraw(String bookingId) {
+		GymWaitList waitList = WAITLISTED.remove(bookingId);
+		if (waitList == null) {
 			return null;
 		}
-		return list.remove(0);
+		Booking withdrawn = waitList.withdraw(bookingId);
+		if (withdrawn != null) {
+			unindexWaiting(withdrawn);
+		}
+		dropIfEmpty(waitList);
+		return withdrawn;
+	}
+
+	// Callers hold the slot lock, so nothing can join the waitlist while it is dropped
+	private static void dropIfEmpty(GymWaitList waitList) {
+		if (waitList.isEmpty()) {
+			Map<LocalDate, GymWaitList> byDate = WAITLIST.get(waitList.getSlotId());
+			if (byDate != null) {
+				byDate.remove(waitList.getDate(), waitList);
+			}
+		}
+	}
+
+	// ---------- Locking ----------
+	/**
+	 * The lock guarding seat checks for a slot on a date. Keys share a fixed set
+	 * of stripes, so unrelated slots rarely contend.
+	 */
+	public static ReentrantLock lockFor(String slotId, LocalDate date) {
+		int hash = 31 * slotId.hashCode() + Long.hashCode(date.toEpochDay());
+		return SLOT_LOCKS[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+	}
+
+	/**
+	 * The lock held while a user's bookings at one start time are checked and
+	 * replaced, so two requests of the same user cannot both book that time.
+	 * Take it before any slot lock.
+	 */
+	public static ReentrantLock lockForUser(String userId) {
+		int hash = userId.hashCode();
+		return USER_LOCKS[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+	}
+
+	// ---------- Persistence ----------
+	/**
+	 * Writes a snapshot now, so that recovery has less of the journal to
+	 * replay. Does nothing without a data directory.
+	 */
+	public static void checkpoint() throws IOException {
+		if (JOURNAL != null) {
+			JOURNAL.checkpoint(MUTATIONS, DataStore::writeSnapshot);
+		}
+	}
+
+	private static void lockMutations() {
+		if (JOURNAL != null) {
+			MUTATIONS.lock();
+		}
+	}
+
+	private static void unlockMutations() {
+		if (JOURNAL != null) {
+			MUTATIONS.unlock();
+		}
+	}
+
+	// Called holding MUTATIONS, so records are in the order the changes were made
+	private static long journal(byte type, StoreJournal.Writer payload) {
+		Metrics.recordRows(1); // every mutation writes one record
+		return JOURNAL == null ? 0 : JOURNAL.append(type, payload);
+	}
+
+	private static void awaitDurable(long seq) {
+		if (seq > 0) {
+			JOURNAL.awaitDurable(seq);
+		}
+	}
+
+	private static boolean recover(Path dataDir) {
+		long start = System.nanoTime();
+		boolean found;
+		recovering = true;
+		try {
+			found = JOURNAL.recover(DataStore::readSnapshot, DataStore::replay);
+		} catch (IOException e) {
+			throw new IllegalStateException("Could not recover the store from " + dataDir, e);
+		} finally {
+			recovering = false;
+		}
+		if (found) {
+			for (Booking booking : BOOKINGS.values()) {
+				if (booking.getGymSlot() != null && booking.getBookingDate() != null) {
+					SEATS.tryReserve(booking.getGymSlot().getSlotId(), booking.getBookingDate(), Integer.MAX_VALUE);
+				}
+			}
+			advanceSequences();
+			BookingTable table = snapshotBookings;
+			System.out.println("Recovered " + USERS.size() + " users, " + CENTERS.getAll().size() + " centers and "
+					+ BOOKINGS.size() + " bookings from " + dataDir + " in "
+					+ (System.nanoTime() - start) / 1_000_000 + " ms"
+					+ (table == null ? "" : "; " + UNLOADED_CENTERS.size() + " centers with " + table.size()
+							+ " snapshot bookings load on first use"));
+		}
+		return found;
+	}
+
+	private static void startSnapshots() {
+		long minutes = Long.getLong(SNAPSHOT_MINUTES_PROPERTY, 10);
+		if (minutes > 0) {
+			ScheduledExecutorService snapshots = Executors.newSingleThreadScheduledExecutor(task -> {
+				Thread thread = new Thread(task, "flipfit-snapshot");
+				thread.setDaemon(true);
+				return thread;
+			});
+			snapshots.scheduleWithFixedDelay(() -> {
+				try {
+					checkpoint();
+				} catch (IOException | RuntimeException e) {
+					System.err.println("Snapshot failed: " + e.getMessage());
+					e.printStackTrace();
+				}
+			}, minutes, minutes, TimeUnit.MINUTES);
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				JOURNAL.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}, "flipfit-journal-close"));
+	}
+
+	// Users and centers are written under MUTATIONS, so slot lists are not read mid-change;
+	// bookings and waitlists are read live and the journal replays whatever changed meanwhile.
+	// Bookings go to the table in the companion file, center by center in index order, and
+	// only those that do not fit it are written inline.
+	private static void writeSnapshot(DataOutput out, Path companion) throws IOException {
+		BookingTable.Builder table = new BookingTable.Builder(companion);
+		List<GymCenter> centers;
+		MUTATIONS.lock();
+		try {
+			for (GymUser user : USERS.values()) {
+				out.writeBoolean(true);
+				StoreRecords.writeUser(out, user);
+			}
+			out.writeBoolean(false);
+			centers = new ArrayList<>(CENTERS.getAll());
+			for (GymCenter center : centers) {
+				out.writeBoolean(true);
+				StoreRecords.writeCenter(out, center);
+				for (GymSlot slot : center.getCenterSlot()) {
+					table.addSlot(center.getCenterId(), slot);
+				}
+			}
+			out.writeBoolean(false);
+		} finally {
+			MUTATIONS.unlock();
+		}
+
+		List<Booking> inline = new ArrayList<>();
+		BookingTable previous = snapshotBookings;
+		for (GymCenter center : centers) {
+			String centerId = center.getCenterId();
+			boolean copied = previous != null && UNLOADED_CENTERS.containsKey(centerId);
+			if (copied) {
+				inline.addAll(previous.copyCenter(centerId, table, USERS::get, DataStore::findSlot));
+			}
+			for (Booking booking : CENTER_BOOKINGS.getOrDefault(centerId, Collections.emptyNavigableSet())) {
+				// Skips what was just copied, should the center have loaded meanwhile
+				if ((!copied || previous.find(booking.getBookingId()) < 0) && !table.add(centerId, booking)) {
+					inline.add(booking);
+				}
+			}
+		}
+		table.write(BOOKING_SEQ.get());
+
+		for (Booking booking : BOOKINGS.values()) {
+			if (!hasStartTime(booking) || centerOf(booking) == null) {
+				inline.add(booking);
+			}
+		}
+		for (Booking booking : inline) {
+			out.writeBoolean(true);
+			StoreRecords.writeBooking(out, booking);
+		}
+		out.writeBoolean(false);
+		for (Map<LocalDate, GymWaitList> byDate : WAITLIST.values()) {
+			for (GymWaitList waitList : byDate.values()) {
+				for (Booking booking : waitList.getBookings()) {
+					out.writeBoolean(true);
+					out.writeUTF(waitList.getSlotId());
+					StoreRecords.writeBooking(out, booking);
+				}
+			}
+		}
+		out.writeBoolean(false);
+	}
+
+	private static void readSnapshot(DataInput in, Path companion) throws IOException {
+		while (in.readBoolean()) {
+			restoreUser(StoreRecords.readUser(in));
+		}
+		while (in.readBoolean()) {
+			restoreCenter(StoreRecords.readCenter(in));
+		}
+		if (Files.exists(companion)) {
+			BookingTable table = BookingTable.open(companion);
+			for (String centerId : table.getCenterIds()) {
+				UNLOADED_CENTERS.put(centerId, Boolean.TRUE);
+			}
+			snapshotBookings = table;
+		}
+		while (in.readBoolean()) {
+			putBooking(StoreRecords.readBooking(in, USERS::get, DataStore::findSlot));
+		}
+		while (in.readBoolean()) {
+			String slotId = in.readUTF();
+			enqueue(slotId, StoreRecords.readBooking(in, USERS::get, DataStore::findSlot));
+		}
+	}
+
+	// Records after the snapshot's segment may already be in the snapshot, so applying one twice must be harmless
+	private static void replay(byte type, DataInput in) throws IOException {
+		switch (type) {
+		case StoreRecords.PUT_USER:
+			restoreUser(StoreRecords.readUser(in));
+			break;
+		case StoreRecords.PUT_CENTER:
+			restoreCenter(StoreRecords.readCenter(in));
+			break;
+		case StoreRecords.APPROVE_CENTER:
+			CENTERS.approve(in.readUTF());
+			break;
+		case StoreRecords.ADD_SLOT:
+			String centerId = in.readUTF();
+			GymSlot slot = StoreRecords.readSlot(in);
+			if (CENTERS.findBySlot(slot.getSlotId()) == null) {
+				CENTERS.addSlot(centerId, slot);
+			}
+			break;
+		case StoreRecords.SAVE_BOOKING:
+			Booking saved = StoreRecords.readBooking(in, USERS::get, DataStore::findSlot);
+			loadCenterOfBooking(saved.getBookingId());
+			putBooking(saved);
+			break;
+		case StoreRecords.REMOVE_BOOKING:
+			String removedId = in.readUTF();
+			loadCenterOfBooking(removedId);
+			takeBooking(removedId);
+			break;
+		case StoreRecords.HAND_OVER_SEAT:
+			String handedOverId = in.readUTF();
+			Booking next = StoreRecords.readBooking(in, USERS::get, DataStore::findSlot);
+			loadCenterOfBooking(handedOverId);
+			loadCenterOfBooking(next.getBookingId());
+			takeBooking(handedOverId);
+			putBooking(next);
+			break;
+		case StoreRecords.WAITLIST_ADD:
+			String waitlistSlotId = in.readUTF();
+			Booking waiting = StoreRecords.readBooking(in, USERS::get, DataStore::findSlot);
+			if (!WAITLISTED.containsKey(waiting.getBookingId())) {
+				enqueue(waitlistSlotId, waiting);
+			}
+			break;
+		case StoreRecords.WAITLIST_REMOVE:
+			withdraw(in.readUTF());
+			break;
+		default:
+			throw new IOException("Unknown journal record type " + type);
+		}
+	}
+
+	// New bookings may join a center before its snapshot bookings load, but nothing changes or
+	// replaces a snapshot booking until its center has loaded; loading holds MUTATIONS to keep
+	// out changes and snapshots
+	private static void loadCenter(String centerId) {
+		if (centerId == null || !UNLOADED_CENTERS.containsKey(centerId)) {
+			return;
+		}
+		MUTATIONS.lock();
+		try {
+			if (UNLOADED_CENTERS.containsKey(centerId)) {
+				for (Booking booking : snapshotBookings.readCenter(centerId, USERS::get, DataStore::findSlot)) {
+					putBooking(booking);
+					if (!recovering) {
+						SEATS.tryReserve(booking.getGymSlot().getSlotId(), booking.getBookingDate(), Integer.MAX_VALUE);
+					}
+				}
+				UNLOADED_CENTERS.remove(centerId);
+				if (UNLOADED_CENTERS.isEmpty()) {
+					snapshotBookings = null; // unmapped once collected
+				}
+			}
+		} finally {
+			MUTATIONS.unlock();
+		}
+	}
+
+	private static void loadCenter(GymCenter center) {
+		if (center != null) {
+			loadCenter(center.getCenterId());
+		}
+	}
+
+	private static void loadCenterOfSlot(GymSlot slot) {
+		if (slot != null && !UNLOADED_CENTERS.isEmpty()) {
+			loadCenter(CENTERS.findBySlot(slot.getSlotId()));
+		}
+	}
+
+	private static void loadCenterOfBooking(String bookingId) {
+		BookingTable table = snapshotBookings;
+		if (table != null && bookingId != null) {
+			int record = table.find(bookingId);
+			if (record >= 0) {
+				loadCenter(table.centerOf(record));
+			}
+		}
+	}
+
+	private static void loadAllCenters() {
+		for (String centerId : UNLOADED_CENTERS.keySet()) {
+			loadCenter(centerId);
+		}
+	}
+
+	// Updates a known user in place, as bookings hold on to the object
+	private static void restoreUser(GymUser user) {
+		GymUser existing = USERS.get(user.getUserId());
+		if (existing == null) {
+			USERS.put(user.getUserId(), user);
+			return;
+		}
+		existing.setName(user.getName());
+		existing.setEmail(user.getEmail());
+		existing.setAddress(user.getAddress());
+		existing.setPassword(user.getPassword());
+		existing.setRole(user.getRole());
+	}
+
+	// Keeps known slot objects, updated in place, as bookings hold on to them
+	private static void restoreCenter(GymCenter center) {
+		List<GymSlot> slots = center.getCenterSlot();
+		for (int i = 0; i < slots.size(); i++) {
+			GymSlot slot = slots.get(i);
+			GymSlot existing = findSlot(slot.getSlotId());
+			if (existing != null) {
+				existing.setStartTime(slot.getStartTime());
+				existing.setEndTime(slot.getEndTime());
+				existing.setTotalSeats(slot.getTotalSeats());
+				existing.setAvailableSeats(slot.getAvailableSeats());
+				slots.set(i, existing);
+			}
+		}
+		CENTERS.add(center);
+	}
+
+	private static GymSlot findSlot(String slotId) {
+		GymCenter center = CENTERS.findBySlot(slotId);
+		if (center != null) {
+			for (GymSlot slot : center.getCenterSlot()) {
+				if (slot.getSlotId().equals(slotId)) {
+					return slot;
+				}
+			}
+		}
+		return null;
+	}
+
+	// Ids handed out after a restart must not collide with recovered ones
+	private static void advanceSequences() {
+		for (GymUser user : USERS.values()) {
+			advancePast(USER_SEQ, "U", user.getUserId());
+		}
+		for (GymCenter center : CENTERS.getAll()) {
+			advancePast(CENTER_SEQ, "C", center.getCenterId());
+			for (GymSlot slot : center.getCenterSlot()) {
+				advancePast(SLOT_SEQ, "S", slot.getSlotId());
+			}
+		}
+		for (String bookingId : BOOKINGS.keySet()) {
+			advancePast(BOOKING_SEQ, "B", bookingId);
+		}
+		for (String bookingId : WAITLISTED.keySet()) {
+			advancePast(BOOKING_SEQ, "B", bookingId);
+		}
+		BookingTable table = snapshotBookings;
+		if (table != null) {
+			BOOKING_SEQ.accumulateAndGet(table.getNextBookingSeq(), Math::max);
+		}
+	}
+
+	private static void advancePast(AtomicInteger seq, String prefix, String id) {
+		if (id == null || !id.startsWith(prefix) || id.length() == prefix.length()
+				|| id.length() > prefix.length() + 9) {
+			return;
+		}
+		for (int i = prefix.length(); i < id.length(); i++) {
+			if (!Character.isDigit(id.charAt(i))) {
+				return;
+			}
+		}
+		int next = Integer.parseInt(id.substring(prefix.length())) + 1;
+		seq.accumulateAndGet(next, Math::max);
 	}
 
 	// ---------- Id generation ----------
@@ -196,8 +1086,70 @@ public final class DataStore {
 	}
 
 	// ---------- Utility helpers ----------
-	public static String buildDateKey(LocalDate date, LocalTime startTime) {
-		return date.toString() + " " + startTime.toString();
+	private static boolean hasStartTime(Booking booking) {
+		return booking.getBookingDate() != null && booking.getStartTime() != null;
+	}
+
+	private static void indexBooking(Booking booking) {
+		if (!hasStartTime(booking)) {
+			return;
+		}
+		if (booking.getGymUser() != null) {
+			USER_BOOKING_AT.computeIfAbsent(booking.getGymUser().getUserId(), k -> new ConcurrentHashMap<>())
+					.put(booking.getStartEpochMinute(), booking.getBookingId());
+		}
+		GymCenter center = centerOf(booking);
+		if (center != null) {
+			OWNER_BOOKINGS.computeIfAbsent(center.getOwnerId(), k -> new ConcurrentSkipListSet<>(BY_START_AND_SLOT)).add(booking);
+			CENTER_BOOKINGS.computeIfAbsent(center.getCenterId(), k -> new ConcurrentSkipListSet<>(BY_START_AND_SLOT)).add(booking);
+		}
+	}
+
+	private static void unindexBooking(Booking booking) {
+		if (!hasStartTime(booking)) {
+			return;
+		}
+		if (booking.getGymUser() != null) {
+			Map<Long, String> starts = USER_BOOKING_AT.get(booking.getGymUser().getUserId());
+			if (starts != null) {
+				starts.remove(booking.getStartEpochMinute(), booking.getBookingId());
+			}
+		}
+		GymCenter center = centerOf(booking);
+		if (center != null) {
+			NavigableSet<Booking> owned = OWNER_BOOKINGS.get(center.getOwnerId());
+			if (owned != null) {
+				owned.remove(booking);
+			}
+			NavigableSet<Booking> atCenter = CENTER_BOOKINGS.get(center.getCenterId());
+			if (atCenter != null) {
+				atCenter.remove(booking);
+			}
+		}
+	}
+
+	private static void indexWaiting(Booking booking) {
+		if (hasStartTime(booking) && booking.getGymUser() != null) {
+			USER_WAITING_AT.computeIfAbsent(booking.getGymUser().getUserId(), k -> new ConcurrentHashMap<>())
+					.put(booking.getStartEpochMinute(), booking.getBookingId());
+		}
+	}
+
+	private static void unindexWaiting(Booking booking) {
+		if (hasStartTime(booking) && booking.getGymUser() != null) {
+			Map<Long, String> starts = USER_WAITING_AT.get(booking.getGymUser().getUserId());
+			if (starts != null) {
+				starts.remove(booking.getStartEpochMinute(), booking.getBookingId());
+			}
+		}
+	}
+
+	private static GymCenter centerOf(Booking booking) {
+		return booking.getGymSlot() == null ? null : CENTERS.findBySlot(booking.getGymSlot().getSlotId());
+	}
+
+	private static String slotIdOf(Booking booking) {
+		return booking.getGymSlot() == null ? "" : booking.getGymSlot().getSlotId();
 	}
 }
 
@@ -0,0 +1,145 @@
+package com.flipfit.helper;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Registered emails, checked through a Bloom filter before the exact set.
+ *
+ * Most registration attempts use a new email, and the filter answers those
+ * from a few bit reads without hashing into the exact set. Only a filter hit
+ * is confirmed against the set. Emails compare case-insensitively.
+ *
+ * The filter cannot forget an email, so a removed email stays a filter hit
+ * and is settled by the exact set. It is sized for an expected number of
+ * emails, and its false positive rate rises once it holds more than that.
+ */
+public class EmailIndex {
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashCount;
+	private final Set<String> emails = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong lookups = new AtomicLong();
+	private final AtomicLong filterNegatives = new AtomicLong();
+	private final AtomicLong falsePositives = new AtomicLong();
+
+	/**
+	 * @param expectedEmails    how many emails the filter is sized for
+	 * @param falsePositiveRate the target share of new emails the filter lets through, e.g. 0.01
+	 */
+	public EmailIndex(int expectedEmails, double falsePositiveRate) {
+		if (expectedEmails <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("Expected emails must be positive and the rate between 0 and 1");
+		}
+		long optimalBits = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int words = (int) Math.min(Integer.MAX_VALUE, (optimalBits + 63) / 64);
+		this.bits = new AtomicLongArray(words);
+		this.bitCount = words * 64L;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * Math.log(2)));
+	}
+
+	/**
+	 * Adds an email.
+	 *
+	 * @return true if it was not registered yet, so concurrent registrations of
+	 *         the same email see exactly one winner
+	 */
+	public boolean add(String email) {
+		String key = normalize(email);
+		if (!emails.add(key)) {
+			return false;
+		}
+		long hash = hash(key);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+			long mask = 1L << bit;
+			int word = (int) (bit >>> 6);
+			long current;
+			while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+				// retry until this bit is set
+			}
+		}
+		return true;
+	}
+
+	public boolean contains(String email) {
+		lookups.incrementAndGet();
+		String key = normalize(email);
+		if (!mightContain(key)) {
+			filterNegatives.incrementAndGet();
+			return false;
+		}
+		if (emails.contains(key)) {
+			return true;
+		}
+		falsePositives.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Frees an email for registration again. Its filter bits stay set.
+	 */
+	public boolean remove(String email) {
+		return emails.remove(normalize(email));
+	}
+
+	public int size() {
+		return emails.size();
+	}
+
+	public long getLookups() {
+		return lookups.get();
+	}
+
+	/** Lookups answered by the filter alone. */
+	public long getFilterNegatives() {
+		return filterNegatives.get();
+	}
+
+	/** Lookups the filter let through for an email that is not registered. */
+	public long getFalsePositives() {
+		return falsePositives.get();
+	}
+
+	private boolean mightContain(String key) {
+		long hash = hash(key);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+			if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String normalize(String email) {
+		return email.toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer so
+	 * both 32-bit halves are usable as independent hashes.
+	 */
+	private static long hash(String key) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < key.length(); i++) {
+			h ^= key.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,166 @@
+package com.flipfit.helper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import com.flipfit.bean.Booking;
+import com.flipfit.bean.GymUser;
+
+/**
+ * Writes bookings and users as CSV or newline-delimited JSON, one row at a
+ * time, so an export never copies the store. Passwords are never written.
+ */
+public class ExportWriter {
+
+	public enum Format {
+		CSV("csv"), // header row, quoted as in RFC 4180
+		NDJSON("ndjson"); // one JSON object per line
+
+		private final String extension;
+
+		Format(String extension) {
+			this.extension = extension;
+		}
+
+		public String getExtension() {
+			return extension;
+		}
+	}
+
+	private static final String[] BOOKING_COLUMNS =
+			{ "booking_id", "user_id", "slot_id", "booking_date", "start_time", "booking_status" };
+	private static final String[] USER_COLUMNS = { "user_id", "name", "email", "address", "role" };
+
+	private final Format format;
+	private final Writer out; // ideally buffered, as every row is written separately
+
+	public ExportWriter(Format format, Writer out) {
+		this.format = format;
+		this.out = out;
+	}
+
+	/**
+	 * Writes bookings, consuming the stream.
+	 *
+	 * @return the number of bookings written
+	 */
+	public int writeBookings(Stream<Booking> bookings) throws IOException {
+		return write(bookings, BOOKING_COLUMNS, booking -> new String[] {
+				booking.getBookingId(),
+				booking.getGymUser() == null ? null : booking.getGymUser().getUserId(),
+				booking.getGymSlot() == null ? null : booking.getGymSlot().getSlotId(),
+				booking.getBookingDate() == null ? null : booking.getBookingDate().toString(),
+				booking.getStartTime() == null ? null : booking.getStartTime().toString(),
+				booking.getBookingStatus() == null ? null : booking.getBookingStatus().toString() });
+	}
+
+	/**
+	 * Writes users without their passwords, consuming the stream.
+	 *
+	 * @return the number of users written
+	 */
+	public int writeUsers(Stream<GymUser> users) throws IOException {
+		return write(users, USER_COLUMNS, user -> new String[] {
+				user.getUserId(),
+				user.getName(),
+				user.getEmail(),
+				user.getAddress(),
+				user.getRole() == null ? null : user.getRole().toString() });
+	}
+
+	private <T> int write(Stream<T> rows, String[] columns, Function<T, String[]> values) throws IOException {
+		int count = 0;
+		if (format == Format.CSV) {
+			writeCsvRow(columns);
+		}
+		try {
+			Iterator<T> it = rows.iterator();
+			while (it.hasNext()) {
+				String[] row = values.apply(it.next());
+				if (format == Format.CSV) {
+					writeCsvRow(row);
+				} else {
+					writeJsonRow(columns, row);
+				}
+				count++;
+			}
+		} finally {
+			rows.close();
+		}
+		out.flush();
+		return count;
+	}
+
+	private void writeCsvRow(String[] row) throws IOException {
+		for (int i = 0; i < row.length; i++) {
+			if (i > 0) {
+				out.write(',');
+			}
+			String value = row[i];
+			if (value == null) {
+				continue;
+			}
+			if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0
+					|| value.indexOf('\r') >= 0) {
+				out.write('"');
+				out.write(value.replace("\"", "\"\""));
+				out.write('"');
+			} else {
+				out.write(value);
+			}
+		}
+		out.write("\r\n");
+	}
+
+	private void writeJsonRow(String[] columns, String[] row) throws IOException {
+		out.write('{');
+		for (int i = 0; i < columns.length; i++) {
+			if (i > 0) {
+				out.write(',');
+			}
+			out.write('"');
+			out.write(columns[i]);
+			out.write("\":");
+			if (row[i] == null) {
+				out.write("null");
+			} else {
+				writeJsonString(row[i]);
+			}
+		}
+		out.write("}\n");
+	}
+
+	private void writeJsonString(String value) throws IOException {
+		out.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"':
+				out.write("\\\"");
+				break;
+			case '\\':
+				out.write("\\\\");
+				break;
+			case '\n':
+				out.write("\\n");
+				break;
+			case '\r':
+				out.write("\\r");
+				break;
+			case '\t':
+				out.write("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					out.write(String.format("\\u%04x", (int) c));
+				} else {
+					out.write(c);
+				}
+			}
+		}
+		out.write('"');
+	}
+}
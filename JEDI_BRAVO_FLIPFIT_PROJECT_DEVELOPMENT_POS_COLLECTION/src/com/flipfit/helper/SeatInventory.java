@@ -0,0 +1,182 @@
+package com.flipfit.helper;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seats held per slot and date, updated with compare-and-set only.
+ *
+ * Each slot owns a ring of {@link #WINDOW_DAYS} cells, one per day of the
+ * booking window (today plus 30 days ahead). A cell packs the epoch day it
+ * belongs to in the high 32 bits and the seat count in the low 32 bits, so a
+ * single CAS both checks the date and moves the count. When a day enters the
+ * window it takes over the cell of a day that has left it, whose count moves
+ * to a small per-slot overflow map. Dates outside the window (past bookings,
+ * or far-future ones the console does not forbid) are counted there too.
+ */
+public final class SeatInventory {
+
+	/** Days covered by the ring: today plus the 30 days a booking may be made ahead. */
+	public static final int WINDOW_DAYS = 31;
+
+	private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+	private final Map<String, SlotCounters> slots = new ConcurrentHashMap<>();
+	private final Clock clock;
+
+	public SeatInventory() {
+		this(Clock.systemDefaultZone());
+	}
+
+	public SeatInventory(Clock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Takes one seat in the slot on the date if fewer than capacity are held.
+	 *
+	 * @return true if the seat was taken
+	 */
+	public boolean tryReserve(String slotId, LocalDate date, int capacity) {
+		SlotCounters counters = slots.computeIfAbsent(slotId, k -> new SlotCounters());
+		long day = date.toEpochDay();
+		int index = indexOf(day);
+		if (inWindow(day)) {
+			claim(counters, index, day);
+		}
+		while (true) {
+			long cell = counters.ring.get(index);
+			if (tagOf(cell) == day) {
+				if (countOf(cell) + counters.overflowCount(day) >= capacity) {
+					return false;
+				}
+				if (counters.ring.compareAndSet(index, cell, cell + 1)) {
+					return true;
+				}
+			} else {
+				AtomicInteger overflow = counters.overflow.computeIfAbsent(day, k -> new AtomicInteger());
+				int held = overflow.get();
+				if (held >= capacity) {
+					return false;
+				}
+				if (overflow.compareAndSet(held, held + 1)) {
+					return true;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gives back one seat in the slot on the date. Does nothing if none is held.
+	 */
+	public void release(String slotId, LocalDate date) {
+		SlotCounters counters = slots.get(slotId);
+		if (counters == null) {
+			return;
+		}
+		long day = date.toEpochDay();
+		int index = indexOf(day);
+		while (true) {
+			long cell = counters.ring.get(index);
+			if (tagOf(cell) == day && countOf(cell) > 0) {
+				if (counters.ring.compareAndSet(index, cell, cell - 1)) {
+					return;
+				}
+				continue;
+			}
+			AtomicInteger overflow = counters.overflow.get(day);
+			if (overflow == null) {
+				return;
+			}
+			int held = overflow.get();
+			if (held <= 0) {
+				return;
+			}
+			if (overflow.compareAndSet(held, held - 1)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Number of seats held in the slot on the date.
+	 */
+	public int booked(String slotId, LocalDate date) {
+		SlotCounters counters = slots.get(slotId);
+		if (counters == null) {
+			return 0;
+		}
+		long day = date.toEpochDay();
+		long cell = counters.ring.get(indexOf(day));
+		return (tagOf(cell) == day ? countOf(cell) : 0) + counters.overflowCount(day);
+	}
+
+	/**
+	 * Number of seats still free in the slot on the date.
+	 */
+	public int available(String slotId, LocalDate date, int capacity) {
+		return Math.max(0, capacity - booked(slotId, date));
+	}
+
+	/**
+	 * Points the ring cell at the given day. Only a day that has left the window
+	 * can share the cell, so its count is moved to the overflow map. The count is
+	 * added there before the cell is swapped, so readers may briefly see it twice
+	 * but never miss it, and a reservation can fail spuriously but never overbook.
+	 */
+	private static void claim(SlotCounters counters, int index, long day) {
+		while (true) {
+			long cell = counters.ring.get(index);
+			long tag = tagOf(cell);
+			if (tag == day) {
+				return;
+			}
+			int stale = countOf(cell);
+			AtomicInteger moved = stale == 0 ? null : counters.overflow.computeIfAbsent(tag, k -> new AtomicInteger());
+			if (moved != null) {
+				moved.addAndGet(stale);
+			}
+			if (counters.ring.compareAndSet(index, cell, pack(day, 0))) {
+				return;
+			}
+			if (moved != null) {
+				moved.addAndGet(-stale);
+			}
+		}
+	}
+
+	private boolean inWindow(long day) {
+		long today = LocalDate.now(clock).toEpochDay();
+		return day >= today && day < today + WINDOW_DAYS;
+	}
+
+	private static int indexOf(long day) {
+		return (int) Math.floorMod(day, (long) WINDOW_DAYS);
+	}
+
+	private static long pack(long day, int count) {
+		return (day << 32) | (count & COUNT_MASK);
+	}
+
+	private static long tagOf(long cell) {
+		return cell >> 32;
+	}
+
+	private static int countOf(long cell) {
+		return (int) (cell & COUNT_MASK);
+	}
+
+	private static final class SlotCounters {
+		private final AtomicLongArray ring = new AtomicLongArray(WINDOW_DAYS);
+		private final Map<Long, AtomicInteger> overflow = new ConcurrentHashMap<>();
+
+		private int overflowCount(long day) {
+			AtomicInteger held = overflow.get(day);
+			return held == null ? 0 : held.get();
+		}
+	}
+}
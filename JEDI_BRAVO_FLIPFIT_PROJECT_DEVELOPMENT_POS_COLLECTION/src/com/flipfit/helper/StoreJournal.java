@@ -0,0 +1,540 @@
+package com.flipfit.helper;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Append-only journal of store mutations with periodic snapshots, kept in one
+ * directory:
+ *
+ * <pre>
+ * snapshot-N.bin  the whole store, taken when segment N was started
+ * snapshot-N.dat  optional companion file the snapshot writer may add
+ * wal-N.log       the mutations logged after that, one record each
+ * </pre>
+ *
+ * A record is framed as [length][CRC32C][type][payload], the length covering
+ * type and payload. Appends only queue the record; a single writer thread
+ * drains the queue, writes everything queued in one go and forces it to disk
+ * once, so callers committing at the same time share one fsync (group commit).
+ * Without sync commits the writer forces at most once a second instead and
+ * callers never wait.
+ *
+ * On {@link #recover} the newest snapshot is loaded and every segment from its
+ * number on is replayed in order. A crash can leave a torn or corrupt record at
+ * the end of a segment; replay stops there and the segment is cut back to its
+ * last whole record. Appends then go to a fresh segment.
+ */
+public class StoreJournal implements Closeable {
+
+	/**
+	 * Writes the payload of a record, or a whole snapshot.
+	 */
+	public interface Writer {
+		void write(DataOutput out) throws IOException;
+	}
+
+	/**
+	 * Applies one replayed record.
+	 */
+	public interface RecordReader {
+		void read(byte type, DataInput in) throws IOException;
+	}
+
+	/**
+	 * Writes a snapshot. The companion path may be used for a second file,
+	 * which must be complete and forced to disk before returning.
+	 */
+	public interface SnapshotWriter {
+		void write(DataOutput out, Path companion) throws IOException;
+	}
+
+	/**
+	 * Loads a snapshot, given the path of its companion file, which may not exist.
+	 */
+	public interface SnapshotReader {
+		void read(DataInput in, Path companion) throws IOException;
+	}
+
+	private static final int HEADER_BYTES = 8; // length and checksum
+	private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+	private static final int WRITE_BUFFER_BYTES = 1024 * 1024;
+	private static final int SNAPSHOT_BUFFER_BYTES = 1024 * 1024;
+	private static final int SNAPSHOT_MAGIC = 0x46465331; // "FFS1"
+	private static final long ASYNC_FORCE_MILLIS = 1000;
+	private static final Pattern SEGMENT_FILE = Pattern.compile("wal-(\\d+)\\.log");
+	private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-(\\d+)\\.bin");
+	private static final Pattern COMPANION_FILE = Pattern.compile("snapshot-(\\d+)\\.dat");
+
+	// Marks the point in the queue where the writer moves on to a new segment
+	private static final class Rotation {
+		private final long segment;
+
+		private Rotation(long segment) {
+			this.segment = segment;
+		}
+	}
+
+	private final Path dir;
+	private final boolean syncCommits;
+
+	// Guards the fields below; the writer waits on it for work and callers for their records
+	private final Object queueLock = new Object();
+	private List<Object> pending = new ArrayList<>(); // encoded records and rotations
+	private long appendedSeq;
+	private long writtenSeq; // forced to disk too when committing synchronously
+	private long lastSegment;
+	private IOException failure;
+	private boolean closed;
+
+	private FileChannel channel; // the current segment, used by the writer thread only
+	private Thread writer;
+
+	public StoreJournal(Path dir, boolean syncCommits) {
+		this.dir = dir;
+		this.syncCommits = syncCommits;
+	}
+
+	/**
+	 * Loads the newest snapshot, replays the segments after it and opens a new
+	 * segment for appends.
+	 *
+	 * @return false if the directory held no snapshot and no segment
+	 */
+	public boolean recover(SnapshotReader snapshotReader, RecordReader recordReader) throws IOException {
+		Files.createDirectories(dir);
+		TreeSet<Long> snapshots = new TreeSet<>();
+		TreeSet<Long> segments = new TreeSet<>();
+		List<Path> companions = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				Matcher snapshot = SNAPSHOT_FILE.matcher(name);
+				Matcher segment = SEGMENT_FILE.matcher(name);
+				if (snapshot.matches()) {
+					snapshots.add(Long.parseLong(snapshot.group(1)));
+				} else if (segment.matches()) {
+					segments.add(Long.parseLong(segment.group(1)));
+				} else if (COMPANION_FILE.matcher(name).matches()) {
+					companions.add(file);
+				} else if (name.endsWith(".tmp")) {
+					Files.delete(file); // a snapshot interrupted before it was renamed
+				}
+			}
+		}
+
+		long first = 0;
+		if (!snapshots.isEmpty()) {
+			first = snapshots.last();
+			loadSnapshot(first, snapshotReader);
+		}
+		for (Path companion : companions) {
+			if (!companion.equals(companionFile(first))) {
+				deleteQuietly(companion); // left by an older or an unfinished snapshot
+			}
+		}
+		for (long segment : segments.tailSet(first, true)) {
+			Path file = segmentFile(segment);
+			if (Files.size(file) == 0) {
+				Files.delete(file); // opened by an earlier run that logged nothing
+			} else {
+				replay(file, recordReader);
+			}
+		}
+		deleteOlderThan(first);
+
+		lastSegment = Math.max(first, segments.isEmpty() ? 0 : segments.last()) + 1;
+		channel = openSegment(lastSegment);
+		writer = new Thread(this::writeLoop, "flipfit-journal");
+		writer.setDaemon(true);
+		writer.start();
+		return !snapshots.isEmpty() || !segments.isEmpty();
+	}
+
+	/**
+	 * Queues a record. Callers append in the order their changes were applied,
+	 * so they hold a lock across both; waiting for the record to reach the disk
+	 * is done afterwards with {@link #awaitDurable(long)}.
+	 *
+	 * @return the record's sequence number
+	 * @throws IllegalStateException if the journal is closed or has failed
+	 */
+	public long append(byte type, Writer payload) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeLong(0); // header, filled in below
+			out.writeByte(type);
+			payload.write(out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); // not thrown by an in-memory stream
+		}
+		byte[] record = bytes.toByteArray();
+		int length = record.length - HEADER_BYTES;
+		if (length > MAX_RECORD_BYTES) {
+			throw new IllegalArgumentException("Journal record of " + length + " bytes is too large");
+		}
+		CRC32C crc = new CRC32C();
+		crc.update(record, HEADER_BYTES, length);
+		ByteBuffer.wrap(record).putInt(length).putInt((int) crc.getValue());
+
+		synchronized (queueLock) {
+			checkOpen();
+			pending.add(record);
+			queueLock.notifyAll();
+			return ++appendedSeq;
+		}
+	}
+
+	/**
+	 * Waits until the record with the given sequence number is on disk. Returns
+	 * at once when commits are not synchronous.
+	 *
+	 * @throws IllegalStateException if the journal could not be written
+	 */
+	public void awaitDurable(long seq) {
+		if (syncCommits) {
+			awaitWritten(seq);
+		} else {
+			synchronized (queueLock) {
+				if (failure != null) {
+					throw new IllegalStateException("Journal write failed", failure);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes a snapshot and deletes the segments and snapshots it replaces.
+	 *
+	 * A new segment is started while holding the mutation lock, so every change
+	 * logged before it is already in memory. The snapshot itself is taken
+	 * without the lock and may include changes logged in the new segment too;
+	 * replaying those again on recovery must be harmless.
+	 */
+	public void checkpoint(Lock mutationLock, SnapshotWriter snapshot) throws IOException {
+		long segment;
+		long rotationSeq;
+		mutationLock.lock();
+		try {
+			synchronized (queueLock) {
+				checkOpen();
+				segment = ++lastSegment;
+				pending.add(new Rotation(segment));
+				queueLock.notifyAll();
+				rotationSeq = ++appendedSeq;
+			}
+		} finally {
+			mutationLock.unlock();
+		}
+
+		Path tmp = dir.resolve("snapshot-" + segment + ".tmp");
+		try (FileChannel file = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			CheckedOutputStream checked = new CheckedOutputStream(Channels.newOutputStream(file), new CRC32C());
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, SNAPSHOT_BUFFER_BYTES));
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeLong(segment);
+			snapshot.write(out, companionFile(segment));
+			out.flush();
+			out.writeInt((int) checked.getChecksum().getValue());
+			out.flush();
+			file.force(true);
+		}
+		Files.move(tmp, snapshotFile(segment), StandardCopyOption.ATOMIC_MOVE);
+		forceDirectory();
+
+		awaitWritten(rotationSeq); // the writer has left the older segments
+		deleteOlderThan(segment);
+	}
+
+	/**
+	 * Writes out everything queued, forces it to disk and stops the writer.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (queueLock) {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			queueLock.notifyAll();
+		}
+		if (writer != null) {
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (channel != null && channel.isOpen()) {
+			channel.force(false);
+			channel.close();
+		}
+	}
+
+	private void checkOpen() {
+		if (failure != null) {
+			throw new IllegalStateException("Journal write failed", failure);
+		}
+		if (closed) {
+			throw new IllegalStateException("Journal is closed");
+		}
+	}
+
+	private void awaitWritten(long seq) {
+		boolean interrupted = false;
+		synchronized (queueLock) {
+			while (writtenSeq < seq && failure == null && writer.isAlive()) {
+				try {
+					queueLock.wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			if (writtenSeq < seq) {
+				throw new IllegalStateException("Journal write failed", failure);
+			}
+		}
+	}
+
+	private void writeLoop() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+		long lastForce = System.currentTimeMillis();
+		boolean unforced = false;
+		while (true) {
+			List<Object> batch;
+			long batchSeq;
+			synchronized (queueLock) {
+				while (pending.isEmpty() && !closed) {
+					try {
+						queueLock.wait(syncCommits ? 0 : ASYNC_FORCE_MILLIS);
+					} catch (InterruptedException e) {
+						// only close stops the writer
+					}
+					if (!syncCommits && pending.isEmpty()) {
+						break; // time to force what the last batches wrote
+					}
+				}
+				if (pending.isEmpty() && closed) {
+					return;
+				}
+				batch = pending;
+				pending = new ArrayList<>();
+				batchSeq = appendedSeq;
+			}
+
+			try {
+				for (Object item : batch) {
+					if (item instanceof Rotation) {
+						flush(buffer);
+						channel.force(false);
+						channel.close();
+						channel = openSegment(((Rotation) item).segment);
+						continue;
+					}
+					byte[] record = (byte[]) item;
+					if (record.length > buffer.remaining()) {
+						flush(buffer);
+					}
+					if (record.length > buffer.capacity()) {
+						writeFully(ByteBuffer.wrap(record));
+					} else {
+						buffer.put(record);
+					}
+				}
+				flush(buffer);
+				unforced |= !batch.isEmpty();
+				long now = System.currentTimeMillis();
+				if (unforced && (syncCommits || now - lastForce >= ASYNC_FORCE_MILLIS)) {
+					channel.force(false);
+					lastForce = now;
+					unforced = false;
+				}
+			} catch (IOException e) {
+				System.err.println("Journal write failed: " + e.getMessage());
+				e.printStackTrace();
+				synchronized (queueLock) {
+					failure = e;
+					queueLock.notifyAll();
+				}
+				return;
+			}
+
+			synchronized (queueLock) {
+				writtenSeq = batchSeq;
+				queueLock.notifyAll();
+			}
+		}
+	}
+
+	private void flush(ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		writeFully(buffer);
+		buffer.clear();
+	}
+
+	private void writeFully(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private FileChannel openSegment(long segment) throws IOException {
+		FileChannel file = FileChannel.open(segmentFile(segment), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		forceDirectory();
+		return file;
+	}
+
+	private void loadSnapshot(long segment, SnapshotReader reader) throws IOException {
+		Path file = snapshotFile(segment);
+		verifySnapshot(file);
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(Files.newInputStream(file), SNAPSHOT_BUFFER_BYTES))) {
+			if (in.readInt() != SNAPSHOT_MAGIC || in.readLong() != segment) {
+				throw new IOException("Not a snapshot: " + file);
+			}
+			reader.read(in, companionFile(segment));
+		}
+	}
+
+	// Checked in a separate pass, so parsing can read ahead through a plain buffer
+	private static void verifySnapshot(Path file) throws IOException {
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			long body = in.size() - 4;
+			if (body < 12) {
+				throw new IOException("Snapshot is truncated: " + file);
+			}
+			CRC32C crc = new CRC32C();
+			ByteBuffer buffer = ByteBuffer.allocateDirect(SNAPSHOT_BUFFER_BYTES);
+			long position = 0;
+			while (position < body) {
+				buffer.clear();
+				buffer.limit((int) Math.min(buffer.capacity(), body - position));
+				int read = in.read(buffer, position);
+				if (read < 0) {
+					throw new IOException("Snapshot is truncated: " + file);
+				}
+				buffer.flip();
+				crc.update(buffer);
+				position += read;
+			}
+			ByteBuffer trailer = ByteBuffer.allocate(4);
+			in.read(trailer, body); // four bytes, well within one read
+			if (trailer.position() < 4 || trailer.getInt(0) != (int) crc.getValue()) {
+				throw new IOException("Snapshot checksum mismatch: " + file);
+			}
+		}
+	}
+
+	private static void replay(Path file, RecordReader reader) throws IOException {
+		try (FileChannel segment = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			long size = segment.size();
+			long valid = 0;
+			DataInputStream in = new DataInputStream(
+					new BufferedInputStream(Channels.newInputStream(segment), WRITE_BUFFER_BYTES));
+			CRC32C crc = new CRC32C();
+			byte[] record = new byte[256];
+			while (size - valid >= HEADER_BYTES) {
+				int length = in.readInt();
+				int checksum = in.readInt();
+				if (length < 1 || length > MAX_RECORD_BYTES || length > size - valid - HEADER_BYTES) {
+					break;
+				}
+				if (record.length < length) {
+					record = new byte[Math.max(length, record.length * 2)];
+				}
+				in.readFully(record, 0, length);
+				crc.reset();
+				crc.update(record, 0, length);
+				if ((int) crc.getValue() != checksum) {
+					break;
+				}
+				reader.read(record[0], new DataInputStream(new ByteArrayInputStream(record, 1, length - 1)));
+				valid += HEADER_BYTES + length;
+			}
+			if (valid < size) {
+				System.err.println("Journal " + file + " ends in a partial record; truncating "
+						+ (size - valid) + " bytes");
+				segment.truncate(valid);
+				segment.force(true);
+			}
+		}
+	}
+
+	private void deleteOlderThan(long segment) throws IOException {
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+			for (Path file : files) {
+				String name = file.getFileName().toString();
+				Matcher snapshot = SNAPSHOT_FILE.matcher(name);
+				Matcher companion = COMPANION_FILE.matcher(name);
+				Matcher log = SEGMENT_FILE.matcher(name);
+				if ((snapshot.matches() && Long.parseLong(snapshot.group(1)) < segment)
+						|| (log.matches() && Long.parseLong(log.group(1)) < segment)) {
+					Files.delete(file);
+				} else if (companion.matches() && Long.parseLong(companion.group(1)) < segment) {
+					deleteQuietly(file);
+				}
+			}
+		}
+	}
+
+	// A companion may still be mapped, which stops it being deleted on some platforms; the next checkpoint retries
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			System.err.println("Could not delete " + file + ": " + e.getMessage());
+		}
+	}
+
+	// Makes file creations and renames in the directory durable; not supported on every platform
+	private void forceDirectory() {
+		try (FileChannel directory = FileChannel.open(dir, StandardOpenOption.READ)) {
+			directory.force(true);
+		} catch (IOException e) {
+			// best effort
+		}
+	}
+
+	private Path segmentFile(long segment) {
+		return dir.resolve("wal-" + segment + ".log");
+	}
+
+	private Path snapshotFile(long segment) {
+		return dir.resolve("snapshot-" + segment + ".bin");
+	}
+
+	private Path companionFile(long segment) {
+		return dir.resolve("snapshot-" + segment + ".dat");
+	}
+}
@@ -0,0 +1,172 @@
+package com.flipfit.helper;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.flipfit.bean.Booking;
+import com.flipfit.bean.GymCenter;
+import com.flipfit.bean.GymSlot;
+import com.flipfit.bean.GymUser;
+import com.flipfit.enums.BookingStatus;
+import com.flipfit.enums.Role;
+
+/**
+ * Binary encoding of users, centers and bookings shared by the journal records
+ * and the snapshots of {@link DataStore}. Strings may be null; dates are epoch
+ * days, times seconds of the day and enums ordinals, with -1 for null.
+ *
+ * A booking refers to its user and slot by ID only, so the reader is given
+ * lookups for them; an ID that no longer resolves gets a bare bean holding it.
+ */
+final class StoreRecords {
+
+	// Journal record types; the payload layout of each is in the DataStore mutator that logs it
+	static final byte PUT_USER = 1;
+	static final byte PUT_CENTER = 2;
+	static final byte APPROVE_CENTER = 3;
+	static final byte ADD_SLOT = 4;
+	static final byte SAVE_BOOKING = 5;
+	static final byte REMOVE_BOOKING = 6;
+	static final byte HAND_OVER_SEAT = 7;
+	static final byte WAITLIST_ADD = 8;
+	static final byte WAITLIST_REMOVE = 9;
+
+	private static final Role[] ROLES = Role.values();
+	private static final BookingStatus[] STATUSES = BookingStatus.values();
+
+	private StoreRecords() {
+	}
+
+	static void writeUser(DataOutput out, GymUser user) throws IOException {
+		writeString(out, user.getUserId());
+		writeString(out, user.getName());
+		writeString(out, user.getEmail());
+		writeString(out, user.getAddress());
+		writeString(out, user.getPassword());
+		out.writeByte(user.getRole() == null ? -1 : user.getRole().ordinal());
+	}
+
+	static GymUser readUser(DataInput in) throws IOException {
+		GymUser user = new GymUser();
+		user.setUserId(readString(in));
+		user.setName(readString(in));
+		user.setEmail(readString(in));
+		user.setAddress(readString(in));
+		user.setPassword(readString(in));
+		byte role = in.readByte();
+		user.setRole(role < 0 ? null : ROLES[role]);
+		return user;
+	}
+
+	static void writeCenter(DataOutput out, GymCenter center) throws IOException {
+		writeString(out, center.getCenterId());
+		writeString(out, center.getCenterLocn());
+		writeString(out, center.getCenterCity());
+		writeString(out, center.getOwnerId());
+		out.writeBoolean(center.isApproved());
+		List<GymSlot> slots = center.getCenterSlot() == null ? List.of() : new ArrayList<>(center.getCenterSlot());
+		out.writeInt(slots.size());
+		for (GymSlot slot : slots) {
+			writeSlot(out, slot);
+		}
+	}
+
+	static GymCenter readCenter(DataInput in) throws IOException {
+		GymCenter center = new GymCenter();
+		center.setCenterId(readString(in));
+		center.setCenterLocn(readString(in));
+		center.setCenterCity(readString(in));
+		center.setOwnerId(readString(in));
+		center.setApproved(in.readBoolean());
+		int count = in.readInt();
+		List<GymSlot> slots = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			slots.add(readSlot(in));
+		}
+		center.setCenterSlot(slots);
+		return center;
+	}
+
+	static void writeSlot(DataOutput out, GymSlot slot) throws IOException {
+		writeString(out, slot.getSlotId());
+		writeTime(out, slot.getStartTime());
+		writeTime(out, slot.getEndTime());
+		out.writeInt(slot.getTotalSeats());
+		out.writeInt(slot.getAvailableSeats());
+	}
+
+	static GymSlot readSlot(DataInput in) throws IOException {
+		GymSlot slot = new GymSlot();
+		slot.setSlotId(readString(in));
+		slot.setStartTime(readTime(in));
+		slot.setEndTime(readTime(in));
+		slot.setTotalSeats(in.readInt());
+		slot.setAvailableSeats(in.readInt());
+		return slot;
+	}
+
+	static void writeBooking(DataOutput out, Booking booking) throws IOException {
+		writeString(out, booking.getBookingId());
+		writeString(out, booking.getGymUser() == null ? null : booking.getGymUser().getUserId());
+		writeString(out, booking.getGymSlot() == null ? null : booking.getGymSlot().getSlotId());
+		out.writeLong(booking.getBookingDate() == null ? Long.MIN_VALUE : booking.getBookingDate().toEpochDay());
+		writeTime(out, booking.getStartTime());
+		out.writeByte(booking.getBookingStatus() == null ? -1 : booking.getBookingStatus().ordinal());
+	}
+
+	static Booking readBooking(DataInput in, Function<String, GymUser> users, Function<String, GymSlot> slots)
+			throws IOException {
+		Booking booking = new Booking();
+		booking.setBookingId(readString(in));
+		String userId = readString(in);
+		if (userId != null) {
+			GymUser user = users.apply(userId);
+			if (user == null) {
+				user = new GymUser();
+				user.setUserId(userId);
+			}
+			booking.setGymUser(user);
+		}
+		String slotId = readString(in);
+		if (slotId != null) {
+			GymSlot slot = slots.apply(slotId);
+			if (slot == null) {
+				slot = new GymSlot();
+				slot.setSlotId(slotId);
+			}
+			booking.setGymSlot(slot);
+		}
+		long epochDay = in.readLong();
+		booking.setBookingDate(epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay));
+		booking.setStartTime(readTime(in));
+		byte status = in.readByte();
+		booking.setBookingStatus(status < 0 ? null : STATUSES[status]);
+		return booking;
+	}
+
+	static void writeString(DataOutput out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	static String readString(DataInput in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	private static void writeTime(DataOutput out, LocalTime time) throws IOException {
+		out.writeInt(time == null ? -1 : time.toSecondOfDay());
+	}
+
+	private static LocalTime readTime(DataInput in) throws IOException {
+		int seconds = in.readInt();
+		return seconds < 0 ? null : LocalTime.ofSecondOfDay(seconds);
+	}
+}
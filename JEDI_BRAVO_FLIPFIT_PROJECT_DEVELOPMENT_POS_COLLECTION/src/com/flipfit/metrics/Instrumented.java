@@ -0,0 +1,74 @@
+package com.flipfit.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Wraps an implementation of an interface in a proxy that times every call
+ * of the interface's methods, under {implementation class}.{method}, and
+ * counts exceptions thrown out of them. Overloads share a timer.
+ *
+ * The timers are looked up once, when wrapping, so a call costs the proxy
+ * dispatch, two System.nanoTime reads and a histogram update.
+ */
+public class Instrumented implements InvocationHandler {
+
+	/** The wrapped implementation. */
+	private final Object target;
+
+	/** The timer of each interface method. */
+	private final Map<Method, Timer> timers;
+
+	private Instrumented(Object target, Map<Method, Timer> timers) {
+		this.target = target;
+		this.timers = timers;
+	}
+
+	/**
+	 * Wraps an implementation.
+	 *
+	 * @param type the interface to instrument
+	 * @param target the implementation
+	 * @return a proxy timing every call before passing it on to target
+	 */
+	public static <T> T wrap(Class<T> type, T target) {
+		String prefix = target.getClass().getSimpleName();
+		Map<Method, Timer> timers = new HashMap<>();
+		for (Method method : type.getMethods()) {
+			if (!Modifier.isStatic(method.getModifiers())) {
+				timers.put(method, Metrics.timer(prefix + "." + method.getName()));
+			}
+		}
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new Instrumented(target, timers)));
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		Timer timer = timers.get(method);
+		if (timer == null) {
+			// equals, hashCode and toString
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+		Timer previous = Metrics.enter(timer);
+		long start = System.nanoTime();
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			timer.recordError();
+			throw e.getCause();
+		} finally {
+			timer.record(System.nanoTime() - start);
+			Metrics.exit(previous);
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.flipfit.metrics;
+
+/**
+ * Latencies of one operation, usually a service or DAO method, together with
+ * the exceptions it threw and the store records it wrote. The counters are
+ * also registered on their own, as {name}.errors and {name}.rows.
+ */
+public class Timer {
+
+	/** The latencies. */
+	private final LatencyHistogram histogram = new LatencyHistogram();
+
+	/** Exceptions thrown out of the operation. */
+	private final Counter errors;
+
+	/** Records the operation wrote to the DataStore. */
+	private final Counter rows;
+
+	Timer(Counter errors, Counter rows) {
+		this.errors = errors;
+		this.rows = rows;
+	}
+
+	/**
+	 * Records one run of the operation.
+	 *
+	 * @param nanos how long it took
+	 */
+	public void record(long nanos) {
+		histogram.record(nanos);
+	}
+
+	public void recordError() {
+		errors.increment();
+	}
+
+	public void recordRows(long count) {
+		rows.add(count);
+	}
+
+	public LatencyHistogram getHistogram() {
+		return histogram;
+	}
+
+	public long getErrors() {
+		return errors.getCount();
+	}
+
+	public long getRows() {
+		return rows.getCount();
+	}
+}
@@ -0,0 +1,158 @@
+-- FLIPFIT Migration: typed booking dates and user-keyed bookings
+-- Author: JEDI BRAVO Team
+-- Description: Brings an existing Booking table in line with flipfit_schema.sql
+-- and the DAO, in place:
+--   1. Booking.date, a string such as '2027-01-05' or '2027-01-05 06:00', moves
+--      into the booking_date DATE column. The start time is not copied: it
+--      always comes from the slot.
+--   2. Booking.customer_id is replaced by user_id, referencing User, which is
+--      what every booking query joins on. Rows are mapped through GymCustomer.
+--   3. booking_status gains WAITLIST, and the booking indexes are created.
+--   4. unique_booking only covers bookings that are not cancelled, through the
+--      generated active_booking column, so a slot can be booked again after a
+--      cancellation.
+-- Each step checks the current columns first, so tables already past a step
+-- are left alone. Run with the application stopped.
+
+USE Flipfit_schema;
+
+DELIMITER //
+
+DROP PROCEDURE IF EXISTS flipfit_drop_index //
+CREATE PROCEDURE flipfit_drop_index(IN p_index VARCHAR(64))
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Booking' AND INDEX_NAME = p_index) THEN
+        SET @ddl = CONCAT('ALTER TABLE Booking DROP INDEX `', p_index, '`');
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+
+DROP PROCEDURE IF EXISTS flipfit_add_index //
+CREATE PROCEDURE flipfit_add_index(IN p_index VARCHAR(64), IN p_definition VARCHAR(255))
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.STATISTICS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Booking' AND INDEX_NAME = p_index) THEN
+        SET @ddl = CONCAT('ALTER TABLE Booking ADD ', p_definition);
+        PREPARE stmt FROM @ddl;
+        EXECUTE stmt;
+        DEALLOCATE PREPARE stmt;
+    END IF;
+END //
+
+DROP PROCEDURE IF EXISTS flipfit_migrate_booking //
+CREATE PROCEDURE flipfit_migrate_booking()
+BEGIN
+    DECLARE customer_fk VARCHAR(64) DEFAULT NULL;
+
+    -- 1. Typed booking dates
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Booking' AND COLUMN_NAME = 'booking_date') THEN
+        ALTER TABLE Booking ADD COLUMN booking_date DATE NULL AFTER slot_id;
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Booking' AND COLUMN_NAME = 'date') THEN
+        UPDATE Booking
+        SET booking_date = STR_TO_DATE(LEFT(TRIM(`date`), 10), '%Y-%m-%d')
+        WHERE booking_date IS NULL;
+        IF EXISTS (SELECT 1 FROM Booking WHERE booking_date IS NULL) THEN
+            SIGNAL SQLSTATE '45000'
+                SET MESSAGE_TEXT = 'Some Booking.date values are not dates; fix or delete those rows and rerun';
+        END IF;
+        ALTER TABLE Booking
+            MODIFY booking_date DATE NOT NULL,
+            DROP COLUMN `date`;
+    END IF;
+
+    -- 2. Bookings keyed by user_id instead of customer_id
+    IF EXISTS (SELECT 1 FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Booking' AND COLUMN_NAME = 'customer_id') THEN
+        IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                       WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Booking' AND COLUMN_NAME = 'user_id') THEN
+            ALTER TABLE Booking ADD COLUMN user_id VARCHAR(50) NULL AFTER booking_id;
+        END IF;
+        -- customer_id normally names a GymCustomer; keep values that are already user IDs
+        UPDATE Booking b
+        LEFT JOIN GymCustomer c ON b.customer_id = c.customer_id
+        SET b.user_id = COALESCE(c.user_id, b.customer_id)
+        WHERE b.user_id IS NULL;
+        IF EXISTS (SELECT 1 FROM Booking b LEFT JOIN User u ON b.user_id = u.user_id WHERE u.user_id IS NULL) THEN
+            SIGNAL SQLSTATE '45000'
+                SET MESSAGE_TEXT = 'Some Booking.customer_id values match no customer or user; fix or delete those rows and rerun';
+        END IF;
+
+        SELECT CONSTRAINT_NAME INTO customer_fk
+        FROM information_schema.KEY_COLUMN_USAGE
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Booking' AND COLUMN_NAME = 'customer_id'
+          AND REFERENCED_TABLE_NAME IS NOT NULL
+        LIMIT 1;
+        IF customer_fk IS NOT NULL THEN
+            SET @ddl = CONCAT('ALTER TABLE Booking DROP FOREIGN KEY `', customer_fk, '`');
+            PREPARE stmt FROM @ddl;
+            EXECUTE stmt;
+            DEALLOCATE PREPARE stmt;
+        END IF;
+        -- Dropping the column alone would leave unique_booking on (slot_id, booking_date)
+        CALL flipfit_drop_index('unique_booking');
+        CALL flipfit_drop_index('idx_booking_customer');
+
+        ALTER TABLE Booking
+            DROP COLUMN customer_id,
+            MODIFY user_id VARCHAR(50) NOT NULL;
+    END IF;
+
+    -- 3. Waitlist status
+    ALTER TABLE Booking
+        MODIFY booking_status ENUM('CONFIRMED', 'WAITLIST', 'CANCELLED', 'PENDING', 'COMPLETED') DEFAULT 'PENDING';
+
+    -- 4. Uniqueness for bookings that are not cancelled
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Booking' AND COLUMN_NAME = 'active_booking') THEN
+        ALTER TABLE Booking
+            ADD COLUMN active_booking TINYINT AS (IF(booking_status = 'CANCELLED', NULL, 1)) VIRTUAL;
+        CALL flipfit_drop_index('unique_booking');
+    END IF;
+    CALL flipfit_add_index('unique_booking', 'CONSTRAINT unique_booking UNIQUE (user_id, slot_id, booking_date, active_booking)');
+
+    -- The remaining booking indexes
+    CALL flipfit_add_index('idx_booking_user', 'INDEX idx_booking_user (user_id, booking_date)');
+    CALL flipfit_add_index('idx_booking_date_slot', 'INDEX idx_booking_date_slot (booking_date, slot_id)');
+    CALL flipfit_add_index('idx_booking_waitlist', 'INDEX idx_booking_waitlist (slot_id, booking_date, booking_status, created_at)');
+    -- Added after idx_booking_user so the key reuses it instead of creating its own index
+    IF NOT EXISTS (SELECT 1 FROM information_schema.KEY_COLUMN_USAGE
+                   WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'Booking' AND COLUMN_NAME = 'user_id'
+                     AND REFERENCED_TABLE_NAME = 'User') THEN
+        ALTER TABLE Booking ADD FOREIGN KEY (user_id) REFERENCES User(user_id) ON DELETE CASCADE;
+    END IF;
+END //
+
+DELIMITER ;
+
+CALL flipfit_migrate_booking();
+
+DROP PROCEDURE flipfit_migrate_booking;
+DROP PROCEDURE flipfit_add_index;
+DROP PROCEDURE flipfit_drop_index;
+
+-- The active-bookings view joined through customer_id
+CREATE OR REPLACE VIEW vw_active_bookings AS
+SELECT
+    b.booking_id,
+    b.booking_date,
+    b.booking_status,
+    u.name AS customer_name,
+    u.email AS customer_email,
+    gc.gym_name,
+    gc.gym_address,
+    gs.start_time,
+    gs.end_time,
+    gs.price
+FROM Booking b
+JOIN User u ON b.user_id = u.user_id
+JOIN GymSlot gs ON b.slot_id = gs.slot_id
+JOIN GymCenter gc ON gs.gym_id = gc.gym_id
+WHERE b.booking_status IN ('CONFIRMED', 'PENDING');
+
+SELECT 'Booking table migrated' AS Status;
@@ -92,7 +92,9 @@ CREATE TABLE GymCenter (
 
 -- ============================================
 -- Table: GymSlot
--- Description: Stores gym slot timings
+-- Description: Stores gym slot timings. Bookings count seats per slot and
+-- date from the CONFIRMED Booking rows against total_seats; available_seats
+-- has no date and is not changed by bookings.
 -- ============================================
 CREATE TABLE GymSlot (
     slot_id VARCHAR(50) PRIMARY KEY,
@@ -115,16 +117,18 @@ CREATE TABLE GymSlot (
 -- ============================================
 CREATE TABLE Booking (
     booking_id VARCHAR(50) PRIMARY KEY,
-    customer_id VARCHAR(50) NOT NULL,
+    user_id VARCHAR(50) NOT NULL,
     slot_id VARCHAR(50) NOT NULL,
     booking_date DATE NOT NULL,
     booking_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    booking_status ENUM('CONFIRMED', 'CANCELLED', 'PENDING', 'COMPLETED') DEFAULT 'PENDING',
+    booking_status ENUM('CONFIRMED', 'WAITLIST', 'CANCELLED', 'PENDING', 'COMPLETED') DEFAULT 'PENDING',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    FOREIGN KEY (customer_id) REFERENCES GymCustomer(customer_id) ON DELETE CASCADE,
+    -- NULL once cancelled, so a cancelled booking does not block rebooking the same slot and date
+    active_booking TINYINT AS (IF(booking_status = 'CANCELLED', NULL, 1)) VIRTUAL,
+    FOREIGN KEY (user_id) REFERENCES User(user_id) ON DELETE CASCADE,
     FOREIGN KEY (slot_id) REFERENCES GymSlot(slot_id) ON DELETE CASCADE,
-    CONSTRAINT unique_booking UNIQUE (customer_id, slot_id, booking_date)
+    CONSTRAINT unique_booking UNIQUE (user_id, slot_id, booking_date, active_booking)
 );
 
 -- ============================================
@@ -219,10 +223,13 @@ CREATE INDEX idx_gym_owner ON GymCenter(owner_id);
 CREATE INDEX idx_gym_city ON GymCenter(city);
 
 -- Booking table indexes
-CREATE INDEX idx_booking_customer ON Booking(customer_id);
+-- A user's bookings on a date, for the conflict check
+CREATE INDEX idx_booking_user ON Booking(user_id, booking_date);
 CREATE INDEX idx_booking_slot ON Booking(slot_id);
-CREATE INDEX idx_booking_date ON Booking(booking_date);
+-- Date-range reports across centers; a center's range uses the (slot_id, booking_date) prefix of idx_booking_waitlist
+CREATE INDEX idx_booking_date_slot ON Booking(booking_date, slot_id);
 CREATE INDEX idx_booking_status ON Booking(booking_status);
+CREATE INDEX idx_booking_waitlist ON Booking(slot_id, booking_date, booking_status, created_at);
 
 -- Payment table indexes
 CREATE INDEX idx_payment_booking ON Payment(booking_id);
@@ -251,8 +258,7 @@ SELECT
     gs.end_time,
     gs.price
 FROM Booking b
-JOIN GymCustomer gcu ON b.customer_id = gcu.customer_id
-JOIN User u ON gcu.user_id = u.user_id
+JOIN User u ON b.user_id = u.user_id
 JOIN GymSlot gs ON b.slot_id = gs.slot_id
 JOIN GymCenter gc ON gs.gym_id = gc.gym_id
 WHERE b.booking_status IN ('CONFIRMED', 'PENDING');
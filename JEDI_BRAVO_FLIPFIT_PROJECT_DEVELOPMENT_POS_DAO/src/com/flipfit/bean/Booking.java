@@ -1,12 +1,16 @@
 package com.flipfit.bean;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+
 import com.flipfit.enums.BookingStatus;
 
 public class Booking {
 	private String BookingId ;
 	private GymUser gymUser ;
 	private GymSlot gymSlot ;
-	private String dateAndTime ;
+	private LocalDate bookingDate ;
+	private LocalTime startTime ;
 	private BookingStatus bookingStatus;
 	
 	public String getBookingId() {
@@ -27,11 +31,21 @@ public class Booking {
 	public void setGymSlot(GymSlot gymSlot) {
 		this.gymSlot = gymSlot;
 	}
-	public String getDateAndTime() {
-		return dateAndTime;
+	public LocalDate getBookingDate() {
+		return bookingDate;
+	}
+	public void setBookingDate(LocalDate bookingDate) {
+		this.bookingDate = bookingDate;
 	}
-	public void setDateAndTime(String dateAndTime) {
-		this.dateAndTime = dateAndTime;
+	public LocalTime getStartTime() {
+		return startTime;
+	}
+	public void setStartTime(LocalTime startTime) {
+		this.startTime = startTime;
+	}
+	// For display only, e.g. "2027-01-05 06:00"
+	public String getDateAndTime() {
+		return bookingDate == null ? null : bookingDate + (startTime == null ? "" : " " + startTime);
 	}
 	public BookingStatus getBookingStatus() {
 		return bookingStatus;
@@ -0,0 +1,39 @@
+package com.flipfit.bean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.flipfit.enums.BookingStatus;
+
+/**
+ * Outcome of a transactional booking: the stored booking, the booking it
+ * replaced (if any) and how long each step of the transaction took. The DAO
+ * also adds each step's latency to a Metrics timer named after the step.
+ */
+public class BookingResult {
+	private Booking booking;
+	private String cancelledBookingId;
+	private Map<String, Long> stepLatencyMicros = new LinkedHashMap<>();
+
+	public Booking getBooking() {
+		return booking;
+	}
+	public void setBooking(Booking booking) {
+		this.booking = booking;
+	}
+	public BookingStatus getBookingStatus() {
+		return booking != null ? booking.getBookingStatus() : null;
+	}
+	public String getCancelledBookingId() {
+		return cancelledBookingId;
+	}
+	public void setCancelledBookingId(String cancelledBookingId) {
+		this.cancelledBookingId = cancelledBookingId;
+	}
+	public Map<String, Long> getStepLatencyMicros() {
+		return stepLatencyMicros;
+	}
+	public void recordStep(String step, long startNanos) {
+		stepLatencyMicros.put(step, (System.nanoTime() - startNanos) / 1000);
+	}
+}
@@ -1,9 +1,17 @@
 package com.flipfit.business;
 
+import com.flipfit.bean.Booking;
 import com.flipfit.bean.GymOwner;
 import com.flipfit.bean.GymCenter;
+import com.flipfit.bean.GymUser;
+import com.flipfit.utils.ExportWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service interface for Admin operations
@@ -58,6 +66,46 @@ public interface AdminService {
      */
     List<GymCenter> viewAllGymCenters();
     
+    /**
+     * Stream the bookings between two dates, e.g. for a monthly report
+     * @param gymId Gym center ID, or null for every center
+     * @param from First booking date, inclusive
+     * @param to Last booking date, inclusive
+     * @param consumer Called once per booking, in date, start time and slot order
+     * @return Number of bookings streamed, or -1 if the dates are invalid or the query failed
+     */
+    int streamBookingsBetween(String gymId, LocalDate from, LocalDate to, Consumer<Booking> consumer);
+    
+    /**
+     * Stream every booking in booking ID order, loading one keyset page at a time
+     * @return Lazily paged bookings; reading throws IllegalStateException if a page cannot be loaded
+     */
+    Stream<Booking> exportBookings();
+    
+    /**
+     * Stream every user in user ID order, without passwords, loading one keyset page at a time
+     * @return Lazily paged users; reading throws IllegalStateException if a page cannot be loaded
+     */
+    Stream<GymUser> exportUsers();
+    
+    /**
+     * Write every booking to a writer in constant memory
+     * @param format CSV or NDJSON
+     * @param out Destination, ideally buffered
+     * @return Number of bookings written
+     * @throws IOException if writing fails
+     */
+    int exportBookings(ExportWriter.Format format, Writer out) throws IOException;
+    
+    /**
+     * Write every user, without passwords, to a writer in constant memory
+     * @param format CSV or NDJSON
+     * @param out Destination, ideally buffered
+     * @return Number of users written
+     * @throws IOException if writing fails
+     */
+    int exportUsers(ExportWriter.Format format, Writer out) throws IOException;
+    
     /**
      * Get system statistics
      * @return Map containing system statistics
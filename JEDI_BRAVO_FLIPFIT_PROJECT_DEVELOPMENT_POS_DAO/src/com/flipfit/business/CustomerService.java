@@ -1,7 +1,12 @@
 package com.flipfit.business;
 
+import com.flipfit.bean.Booking;
+import com.flipfit.bean.BookingResult;
 import com.flipfit.bean.GymCenter;
+import com.flipfit.bean.GymSlot;
 import com.flipfit.bean.GymUser;
+import com.flipfit.exception.BookingFailedException;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 
@@ -62,10 +67,54 @@ public interface CustomerService {
      * 2. Checks capacity (Use Case 4)
      * 3. Suggests nearest slot if full (Use Case 2)
      */
-    boolean bookSlot(String userId, String slotId, String gymId, String date);
+    boolean bookSlot(String userId, String slotId, String gymId, LocalDate date);
 
     /**
      * Cancel a booking
      */
     boolean cancelBooking(String bookingId, String slotId);
+
+    /**
+     * Get the slots of a gym center, earliest first
+     * @param gymId Gym center ID
+     * @return Slots with their available seats
+     */
+    List<GymSlot> viewSlots(String gymId);
+
+    /**
+     * Get a slot with its available seats
+     * @param slotId Slot ID
+     * @return GymSlot object if found, null otherwise
+     */
+    GymSlot viewSlot(String slotId);
+
+    /**
+     * Get a slot with the seats still free on a date
+     * @param slotId Slot ID
+     * @param date Booking date
+     * @return GymSlot object with availableSeats for the date, null if not found
+     */
+    GymSlot viewSlot(String slotId, LocalDate date);
+
+    /**
+     * Book a slot as bookSlot does, without printing, for callers that report the outcome themselves
+     * @return BookingResult with the stored booking, CONFIRMED or WAITLIST, null if the slot does not exist
+     * @throws BookingFailedException if the booking could not be stored, e.g. the database could not be reached
+     */
+    BookingResult bookSlotTransactional(String userId, String slotId, LocalDate date) throws BookingFailedException;
+
+    /**
+     * Cancel a booking as cancelBooking does, without printing
+     * @return BookingResult with the promoted booking (null if none), null if the booking was not found or already cancelled
+     * @throws BookingFailedException if the cancellation could not be stored, e.g. the database could not be reached
+     */
+    BookingResult cancelBookingTransactional(String bookingId) throws BookingFailedException;
+
+    /**
+     * Get the waitlist for a slot on a date
+     * @param slotId Slot ID
+     * @param date Booking date
+     * @return Waitlisted bookings, longest-waiting first
+     */
+    List<Booking> viewWaitlist(String slotId, LocalDate date);
 }
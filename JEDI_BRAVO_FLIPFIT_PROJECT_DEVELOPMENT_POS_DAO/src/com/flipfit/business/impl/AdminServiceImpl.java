@@ -1,13 +1,26 @@
 package com.flipfit.business.impl;
 
+import com.flipfit.bean.Booking;
 import com.flipfit.bean.GymOwner;
 import com.flipfit.bean.GymCenter;
+import com.flipfit.bean.GymUser;
 import com.flipfit.business.AdminService;
 import com.flipfit.dao.GymAdminDAO;
 import com.flipfit.dao.impl.GymAdminDAOImpl;
+import com.flipfit.constants.DatabaseConstants;
+import com.flipfit.metrics.Instrumented;
+import com.flipfit.utils.CenterDirectory;
+import com.flipfit.utils.ExportWriter;
+import com.flipfit.utils.KeysetCursor;
+import com.flipfit.utils.SystemStatistics;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Implementation of AdminService interface
@@ -18,7 +31,7 @@ public class AdminServiceImpl implements AdminService {
     private GymAdminDAO adminDAO;
     
     public AdminServiceImpl() {
-        this.adminDAO = new GymAdminDAOImpl();
+        this.adminDAO = Instrumented.wrap(GymAdminDAO.class, new GymAdminDAOImpl());
     }
     
     @Override
@@ -77,6 +90,7 @@ public class AdminServiceImpl implements AdminService {
         boolean success = adminDAO.approveGymCenter(gymId);
         
         if (success) {
+            CenterDirectory.getInstance().add(adminDAO.getGymCenterById(gymId));
             System.out.println("Gym Center approved successfully!");
         } else {
             System.out.println("Failed to approve gym center!");
@@ -95,6 +109,7 @@ public class AdminServiceImpl implements AdminService {
         boolean success = adminDAO.rejectGymCenter(gymId, remarks);
         
         if (success) {
+            CenterDirectory.getInstance().remove(gymId);
             System.out.println("Gym Center rejected successfully!");
         } else {
             System.out.println("Failed to reject gym center!");
@@ -108,8 +123,37 @@ public class AdminServiceImpl implements AdminService {
         return adminDAO.getAllGymCenters();
     }
     
+    @Override
+    public int streamBookingsBetween(String gymId, LocalDate from, LocalDate to, Consumer<Booking> consumer) {
+        if (from == null || to == null || from.isAfter(to)) {
+            System.out.println("A valid date range is required!");
+            return -1;
+        }
+        return adminDAO.streamBookingsBetween(gymId, from, to, consumer);
+    }
+    
+    @Override
+    public Stream<Booking> exportBookings() {
+        return KeysetCursor.stream(adminDAO::getBookingsAfter, Booking::getBookingId, DatabaseConstants.EXPORT_PAGE_SIZE);
+    }
+    
+    @Override
+    public Stream<GymUser> exportUsers() {
+        return KeysetCursor.stream(adminDAO::getUsersAfter, GymUser::getUserId, DatabaseConstants.EXPORT_PAGE_SIZE);
+    }
+    
+    @Override
+    public int exportBookings(ExportWriter.Format format, Writer out) throws IOException {
+        return new ExportWriter(format, out).writeBookings(exportBookings());
+    }
+    
+    @Override
+    public int exportUsers(ExportWriter.Format format, Writer out) throws IOException {
+        return new ExportWriter(format, out).writeUsers(exportUsers());
+    }
+    
     @Override
     public Map<String, Integer> getSystemStatistics() {
-        return adminDAO.getSystemStatistics();
+        return SystemStatistics.getStatistics();
     }
 }
@@ -4,15 +4,20 @@ import com.flipfit.bean.GymUser;
 import com.flipfit.business.CustomerService;
 import com.flipfit.dao.GymCustomerDAO;
 import com.flipfit.dao.impl.GymCustomerDAOImpl;
+import com.flipfit.metrics.Instrumented;
 
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
 import com.flipfit.bean.Booking;
+import com.flipfit.bean.BookingResult;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
 import com.flipfit.bean.GymUser;
 import com.flipfit.enums.BookingStatus;
+import com.flipfit.exception.BookingFailedException;
+import com.flipfit.utils.CenterDirectory;
 import java.util.UUID;
 import java.util.List;
 /**
@@ -24,7 +29,7 @@ public class CustomerServiceImpl implements CustomerService {
     private GymCustomerDAO customerDAO;
     
     public CustomerServiceImpl() {
-        this.customerDAO = new GymCustomerDAOImpl();
+        this.customerDAO = Instrumented.wrap(GymCustomerDAO.class, new GymCustomerDAOImpl());
     }
     
     @Override
@@ -52,85 +57,113 @@ public class CustomerServiceImpl implements CustomerService {
 
     @Override
     public List<GymCenter> viewGymsByCity(String city) {
-        return customerDAO.fetchGymCentersByCity(city);
+        // Served from the in-memory directory of approved centers, tolerating case, prefixes and typos
+        return CenterDirectory.getInstance().search(city);
     }
 
     @Override
-    public boolean bookSlot(String userId, String slotId, String gymId, String date) {
+    public boolean bookSlot(String userId, String slotId, String gymId, LocalDate date) {
 
-        // 1. Get Slot Details
-        GymSlot slot = customerDAO.getSlotDetails(slotId);
-        if (slot == null) {
+        // Use Cases 2, 3 & 4 run in one transaction: the conflicting booking is
+        // auto-cancelled (freeing its seat), capacity is checked and the booking
+        // is stored as CONFIRMED or WAITLIST, or nothing is written at all.
+        BookingResult result;
+        try {
+            result = bookSlotTransactional(userId, slotId, date);
+        } catch (BookingFailedException e) {
+            System.out.println("Error: Booking could not be completed! " + e.getMessage());
+            return false;
+        }
+        if (result == null) {
             System.out.println("Error: Slot not found!");
             return false;
         }
 
-        // --- USE CASE 3: AUTO REMOVE OLD BOOKING ---
-        // Check if user has a CONFIRMED booking at the same time (even in diff gym)
-        String conflictingBookingId = customerDAO.findConflictingBookingId(userId, date, slot.getStartTime().toString());
-        if (conflictingBookingId != null) {
-            System.out.println("Info: Found conflicting booking (ID: " + conflictingBookingId + "). Auto-cancelling it...");
-            // We need slotId of old booking to increment seats, assumes DAO can handle or we fetch it.
-            // For simplicity, just marking Cancelled here. Ideally, fetch old slotId to increment.
-            customerDAO.updateBookingStatus(conflictingBookingId, BookingStatus.CANCELLED.toString());
+        if (result.getCancelledBookingId() != null) {
+            System.out.println("Info: Found conflicting booking (ID: " + result.getCancelledBookingId() + "). Auto-cancelled it.");
         }
 
-        // --- USE CASE 4 & 2: CHECK CAPACITY & WAITLIST ---
-        boolean isSeatAvailable = customerDAO.decrementSlotSeats(slotId);
+        if (result.getBookingStatus() == BookingStatus.CONFIRMED) {
+            // Success Path
+            System.out.println("Success: Slot Booked! Booking ID: " + result.getBooking().getBookingId());
+            return true;
+        }
 
-        Booking booking = new Booking();
-        booking.setBookingId("BKG" + UUID.randomUUID().toString().substring(0,8));
+        // --- USE CASE 2: WAITLIST & SUGGESTION ---
+        System.out.println("Alert: Slot is Full! Added you to Waitlist...");
+        GymSlot slot = result.getBooking().getGymSlot();
 
-        // Construct User and Slot objects for Booking Bean
-        GymUser user = new GymUser(); user.setUserId(userId);
-        booking.setGymUser(user);
-        booking.setGymSlot(slot);
-        booking.setDateAndTime(date);
+        // Suggestion Logic: Nearest time slot in same gym on same date
+        System.out.println("--- Suggestion ---");
+        List<GymSlot> allSlots = customerDAO.getSlotsByGymId(gymId, date);
 
-        if (isSeatAvailable) {
-            // Success Path
-            booking.setBookingStatus(BookingStatus.CONFIRMED);
-            boolean success = customerDAO.insertBooking(booking);
-            if(success) System.out.println("Success: Slot Booked! Booking ID: " + booking.getBookingId());
-            return success;
-        } else {
-            // --- USE CASE 2: WAITLIST & SUGGESTION ---
-            System.out.println("Alert: Slot is Full! Adding you to Waitlist...");
-            booking.setBookingStatus(BookingStatus.WAITLIST);
-            customerDAO.insertBooking(booking); // Add to DB as Waitlist
-
-            // Suggestion Logic: Nearest time slot in same gym on same date
-            System.out.println("--- Suggestion ---");
-            List<GymSlot> allSlots = customerDAO.getSlotsByGymId(gymId);
-
-            boolean foundSuggestion = false;
-            for (GymSlot s : allSlots) {
-                // Check if slot is later than requested slot AND has seats
-                if (s.getStartTime().isAfter(slot.getStartTime()) && s.getAvailableSeats() > 0) {
-                    System.out.println("Nearest Available Slot: " + s.getStartTime() + " - " + s.getEndTime());
-                    foundSuggestion = true;
-                    break; // Only show the nearest one
-                }
-            }
-            if (!foundSuggestion) {
-                System.out.println("No other slots available today.");
+        boolean foundSuggestion = false;
+        for (GymSlot s : allSlots) {
+            // Check if slot is later than requested slot AND has seats
+            if (s.getStartTime().isAfter(slot.getStartTime()) && s.getAvailableSeats() > 0) {
+                System.out.println("Nearest Available Slot: " + s.getStartTime() + " - " + s.getEndTime());
+                foundSuggestion = true;
+                break; // Only show the nearest one
             }
-            return true; // Return true as Waitlist entry was successful
         }
+        if (!foundSuggestion) {
+            System.out.println("No other slots available today.");
+        }
+        return true; // Return true as Waitlist entry was successful
     }
 
     @Override
     public boolean cancelBooking(String bookingId, String slotId) {
         // --- USE CASE 5: CANCEL BOOKING ---
-        boolean statusUpdated = customerDAO.updateBookingStatus(bookingId, BookingStatus.CANCELLED.toString());
-        if (statusUpdated) {
-            // Free up the seat
-            customerDAO.incrementSlotSeats(slotId);
-            System.out.println("Booking Cancelled Successfully.");
-            return true;
+        // The slot is read from the booking; the freed seat goes to the head of the waitlist if anyone is waiting
+        BookingResult result;
+        try {
+            result = cancelBookingTransactional(bookingId);
+        } catch (BookingFailedException e) {
+            System.out.println("Error: Booking could not be cancelled! " + e.getMessage());
+            return false;
+        }
+        if (result == null) {
+            return false;
+        }
+        System.out.println("Booking Cancelled Successfully.");
+        if (result.getBooking() != null) {
+            System.out.println("Info: Waitlisted booking " + result.getBooking().getBookingId() + " has been confirmed.");
         }
-        return false;
+        return true;
+    }
+    @Override
+    public List<GymSlot> viewSlots(String gymId) {
+        return customerDAO.getSlotsByGymId(gymId);
     }
+
+    @Override
+    public GymSlot viewSlot(String slotId) {
+        return customerDAO.getSlotDetails(slotId);
+    }
+
+    @Override
+    public GymSlot viewSlot(String slotId, LocalDate date) {
+        return customerDAO.getSlotDetails(slotId, date);
+    }
+
+    @Override
+    public BookingResult bookSlotTransactional(String userId, String slotId, LocalDate date)
+            throws BookingFailedException {
+        String bookingId = "BKG" + UUID.randomUUID().toString().substring(0,8);
+        return customerDAO.bookSlotTransactional(bookingId, userId, slotId, date);
+    }
+
+    @Override
+    public BookingResult cancelBookingTransactional(String bookingId) throws BookingFailedException {
+        return customerDAO.cancelBookingTransactional(bookingId);
+    }
+
+    @Override
+    public List<Booking> viewWaitlist(String slotId, LocalDate date) {
+        return customerDAO.getWaitlistedBookings(slotId, date);
+    }
+
     @Override
     public GymUser getCustomerById(String customerId) {
         return customerDAO.getGymCustomerById(customerId);
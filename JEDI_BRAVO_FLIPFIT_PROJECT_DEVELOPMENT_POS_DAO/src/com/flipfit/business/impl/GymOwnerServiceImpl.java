@@ -5,6 +5,7 @@ import com.flipfit.bean.GymOwner;
 import com.flipfit.business.GymOwnerService;
 import com.flipfit.dao.GymOwnerDAO;
 import com.flipfit.dao.impl.GymOwnerDAOImpl;
+import com.flipfit.metrics.Instrumented;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,7 +19,7 @@ public class GymOwnerServiceImpl implements GymOwnerService {
     private GymOwnerDAO ownerDAO;
 
     public GymOwnerServiceImpl() {
-        this.ownerDAO = new GymOwnerDAOImpl();
+        this.ownerDAO = Instrumented.wrap(GymOwnerDAO.class, new GymOwnerDAOImpl());
     }
 
     @Override
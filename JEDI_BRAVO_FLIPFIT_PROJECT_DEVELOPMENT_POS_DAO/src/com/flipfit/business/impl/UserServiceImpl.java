@@ -3,11 +3,13 @@ package com.flipfit.business.impl;
 import com.flipfit.bean.GymUser;
 import com.flipfit.business.UserService;
 import com.flipfit.dao.GymUserDAO;
-import com.flipfit.dao.impl.GymUserDAOImpl;
+import com.flipfit.dao.impl.CachingGymUserDAO;
 import com.flipfit.enums.Role;
 import com.flipfit.exception.InvalidCredentialsException;
 import com.flipfit.exception.UserNotFoundException;
 import com.flipfit.exception.RegistrationFailedException;
+import com.flipfit.metrics.Instrumented;
+import com.flipfit.utils.EmailIndex;
 
 import java.util.UUID;
 
@@ -25,11 +27,15 @@ public class UserServiceImpl implements UserService {
     /** The user DAO. */
     private GymUserDAO userDAO;
     
+    /** The registered emails. */
+    private EmailIndex emailIndex;
+    
     /**
      * Instantiates a new user service impl.
      */
     public UserServiceImpl() {
-        this.userDAO = new GymUserDAOImpl();
+        this.userDAO = Instrumented.wrap(GymUserDAO.class, CachingGymUserDAO.getInstance());
+        this.emailIndex = EmailIndex.getInstance();
     }
 
     /**
@@ -74,8 +80,8 @@ public class UserServiceImpl implements UserService {
     @Override
     public GymUser register(String name, String email, String password, String address, Role role) {
         try {
-            // Check if email already exists
-            if (userDAO.emailExists(email)) {
+            // Check if email already exists; new emails are answered by the index without a query
+            if (emailIndex.exists(email)) {
                 throw new RegistrationFailedException("Email " + email + " already exists");
             }
             
@@ -92,6 +98,7 @@ public class UserServiceImpl implements UserService {
             boolean success = userDAO.insertUser(user);
             
             if (success) {
+                emailIndex.add(email);
                 return user;
             } else {
                 throw new RegistrationFailedException("Failed to register user in database");
@@ -153,8 +160,12 @@ public class UserServiceImpl implements UserService {
                 throw new UserNotFoundException("User with ID " + user.getUserId() + " not found");
             }
             
-            // Update user in database
-            return userDAO.updateUser(user);
+            // Update user in database; a changed email must be known to the index
+            boolean updated = userDAO.updateUser(user);
+            if (updated) {
+                emailIndex.add(user.getEmail());
+            }
+            return updated;
             
         } catch (UserNotFoundException e) {
             System.err.println("Profile update failed: " + e.getMessage());
@@ -170,7 +181,7 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public boolean emailExists(String email) {
-        return userDAO.emailExists(email);
+        return emailIndex.exists(email);
     }
     
     /**
@@ -11,7 +11,18 @@ import com.flipfit.business.impl.CustomerServiceImpl;
 import com.flipfit.business.impl.GymOwnerServiceImpl;
 import com.flipfit.business.impl.UserServiceImpl;
 import com.flipfit.enums.Role;
-
+import com.flipfit.metrics.Instrumented;
+import com.flipfit.metrics.Metrics;
+import com.flipfit.utils.ExportWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
@@ -23,15 +34,16 @@ import java.util.Scanner;
 public class DAOClientApp {
 
     // Replace Direct DAOs with Service Implementations
-    private static UserService userService = new UserServiceImpl();
-    private static CustomerService customerService = new CustomerServiceImpl();
-    private static GymOwnerService gymOwnerService = new GymOwnerServiceImpl();
-    private static AdminService adminService = new AdminServiceImpl();
+    private static UserService userService = Instrumented.wrap(UserService.class, new UserServiceImpl());
+    private static CustomerService customerService = Instrumented.wrap(CustomerService.class, new CustomerServiceImpl());
+    private static GymOwnerService gymOwnerService = Instrumented.wrap(GymOwnerService.class, new GymOwnerServiceImpl());
+    private static AdminService adminService = Instrumented.wrap(AdminService.class, new AdminServiceImpl());
 
     private static Scanner scanner = new Scanner(System.in);
     private static GymUser currentUser = null;
 
     public static void main(String[] args) {
+        Metrics.startConfiguredReporters();
         System.out.println("===========================================");
         System.out.println("    Welcome to FlipFit Application");
         System.out.println("===========================================\n");
@@ -198,7 +210,8 @@ public class DAOClientApp {
             System.out.println("1. View Statistics");
             System.out.println("2. Approve Gym Centers");
             System.out.println("3. Approve Gym Owners");
-            System.out.println("4. Logout");
+            System.out.println("4. Export Bookings & Users");
+            System.out.println("5. Logout");
             System.out.println("================================");
             System.out.print("Enter your choice: ");
 
@@ -216,6 +229,9 @@ public class DAOClientApp {
                     handleApproveGymOwners();
                     break;
                 case 4:
+                    handleExport();
+                    break;
+                case 5:
                     loggedIn = false;
                     System.out.println("✓ Logged out successfully!");
                     break;
@@ -270,7 +286,14 @@ public class DAOClientApp {
         System.out.println("\n--- Book a Slot ---");
         System.out.print("Enter Gym ID: "); String gymId = scanner.nextLine();
         System.out.print("Enter Slot ID: "); String slotId = scanner.nextLine();
-        System.out.print("Enter Date (YYYY-MM-DD): "); String date = scanner.nextLine();
+        System.out.print("Enter Date (YYYY-MM-DD): "); String dateInput = scanner.nextLine();
+        LocalDate date;
+        try {
+            date = LocalDate.parse(dateInput.trim());
+        } catch (DateTimeParseException e) {
+            System.out.println("Error: Invalid date. Use YYYY-MM-DD.");
+            return;
+        }
 
         boolean success = customerService.bookSlot(currentUser.getUserId(), slotId, gymId, date);
         // Success/Failure message is handled inside Service via print statements as per previous code
@@ -333,6 +356,25 @@ public class DAOClientApp {
         stats.forEach((k, v) -> System.out.println(k + ": " + v));
     }
 
+    private static void handleExport() {
+        System.out.println("1. CSV | 2. NDJSON");
+        int formatChoice = scanner.nextInt(); scanner.nextLine();
+        ExportWriter.Format format = (formatChoice == 2) ? ExportWriter.Format.NDJSON : ExportWriter.Format.CSV;
+        System.out.print("Enter output directory: "); String directory = scanner.nextLine().trim();
+
+        Path bookingsFile = Paths.get(directory, "bookings." + format.getExtension());
+        Path usersFile = Paths.get(directory, "users." + format.getExtension());
+        try (Writer bookingsOut = Files.newBufferedWriter(bookingsFile, StandardCharsets.UTF_8);
+             Writer usersOut = Files.newBufferedWriter(usersFile, StandardCharsets.UTF_8)) {
+            int bookings = adminService.exportBookings(format, bookingsOut);
+            int users = adminService.exportUsers(format, usersOut);
+            System.out.println("✓ Exported " + bookings + " bookings to " + bookingsFile
+                    + " and " + users + " users to " + usersFile);
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("✗ Export failed: " + e.getMessage());
+        }
+    }
+
     private static void displayUser(GymUser user) {
         System.out.println("User: " + user.getName() + " | Role: " + user.getRole());
     }
@@ -19,23 +19,29 @@ public class SQLConstants {
     
     // ========== USER QUERIES ==========
     public static final String FETCH_GYM_CENTERS_BY_CITY =
-            "SELECT * FROM GymCenter WHERE city = ?";
+            "SELECT * FROM GymCenter WHERE city = ? AND is_approved = TRUE";
+
+    public static final String FETCH_APPROVED_GYM_CENTERS =
+            "SELECT * FROM GymCenter WHERE is_approved = TRUE";
+
+    public static final String GET_GYM_CENTER_BY_ID =
+            "SELECT * FROM GymCenter WHERE gym_id = ?";
 
     // [CORRECTED] Assumes table 'GymSlot' has columns: slot_id, start_time, available_seats
     public static final String GET_SLOT_DETAILS =
             "SELECT * FROM GymSlot WHERE slot_id = ?";
 
-    public static final String DECREMENT_SLOT_SEATS =
-            "UPDATE GymSlot SET available_seats = available_seats - 1 WHERE slot_id = ? AND available_seats > 0";
-
-    public static final String INCREMENT_SLOT_SEATS =
-            "UPDATE GymSlot SET available_seats = available_seats + 1 WHERE slot_id = ?";
-
-
     // [CORRECTED] Added 'gym_id' column assumption for GymSlot table
     public static final String GET_ALL_SLOTS_FOR_GYM =
             "SELECT * FROM GymSlot WHERE gym_id = ? ORDER BY start_time";
 
+    /** A gym's slots with the seats still free on a date, counted from its confirmed bookings. */
+    public static final String GET_ALL_SLOTS_FOR_GYM_ON_DATE =
+            "SELECT s.slot_id, s.start_time, s.end_time, s.total_seats, " +
+                    "s.total_seats - COUNT(b.booking_id) AS free_seats FROM GymSlot s " +
+                    "LEFT JOIN Booking b ON b.slot_id = s.slot_id AND b.booking_date = ? AND b.booking_status = 'CONFIRMED' " +
+                    "WHERE s.gym_id = ? GROUP BY s.slot_id, s.start_time, s.end_time, s.total_seats ORDER BY s.start_time";
+
     /** The constant for inserting a new user. */
     public static final String INSERT_USER = 
         "INSERT INTO User (user_id, name, email, password, address, phone_number, role_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
@@ -52,6 +58,10 @@ public class SQLConstants {
     public static final String SELECT_ALL_USERS = 
         "SELECT u.*, r.role_name FROM User u JOIN Role r ON u.role_id = r.role_id";
     
+    /** The constant for selecting every user's email, used to warm the email index. */
+    public static final String SELECT_ALL_EMAILS = 
+        "SELECT email FROM User";
+    
     /** The constant for updating user. */
     public static final String UPDATE_USER = 
         "UPDATE User SET name = ?, email = ?, password = ?, address = ?, role_id = ? WHERE user_id = ?";
@@ -64,6 +74,10 @@ public class SQLConstants {
     public static final String AUTHENTICATE_USER = 
         "SELECT u.*, r.role_name FROM User u JOIN Role r ON u.role_id = r.role_id WHERE u.email = ? AND u.password = ? AND u.is_active = TRUE";
     
+    /** The constant for selecting users by ID; completed with an IN-list of placeholders and ")". */
+    public static final String SELECT_USERS_BY_IDS_PREFIX = 
+        "SELECT u.*, r.role_name FROM User u JOIN Role r ON u.role_id = r.role_id WHERE u.user_id IN (";
+    
     /** The constant for checking email existence. */
     public static final String CHECK_EMAIL_EXISTS = 
         "SELECT COUNT(*) FROM User WHERE email = ?";
@@ -120,6 +134,12 @@ public class SQLConstants {
     public static final String SELECT_ALL_GYM_CUSTOMERS = 
         "SELECT user_id FROM GymCustomer";
     
+    /** The constant for selecting the user details of all gym customers in one query. */
+    public static final String SELECT_ALL_GYM_CUSTOMER_USERS = 
+        "SELECT u.*, r.role_name FROM GymCustomer c " +
+        "JOIN User u ON c.user_id = u.user_id " +
+        "JOIN Role r ON u.role_id = r.role_id ORDER BY u.user_id";
+    
     /** The constant for updating gym customer. */
     public static final String UPDATE_GYM_CUSTOMER = 
         "UPDATE GymCustomer SET date_of_birth = ?, fitness_goal = ? WHERE customer_id = ?";
@@ -134,7 +154,7 @@ public class SQLConstants {
     
     /** The constant for getting customer booking count. */
     public static final String GET_CUSTOMER_BOOKING_COUNT = 
-        "SELECT COUNT(*) FROM Booking WHERE customer_id = ?";
+        "SELECT COUNT(*) FROM Booking b JOIN GymCustomer c ON b.user_id = c.user_id WHERE c.customer_id = ?";
     
     // ========== ADMIN QUERIES ==========
     
@@ -170,6 +190,14 @@ public class SQLConstants {
     public static final String COUNT_TOTAL_CUSTOMERS = 
         "SELECT COUNT(*) as count FROM GymCustomer";
     
+    /** The constant for getting every dashboard count in one round trip. */
+    public static final String SELECT_SYSTEM_STATISTICS = 
+        "SELECT (SELECT COUNT(*) FROM User) AS total_users, " +
+        "(SELECT COUNT(*) FROM GymOwner) AS total_gym_owners, " +
+        "(SELECT COUNT(*) FROM GymCustomer) AS total_customers, " +
+        "(SELECT COUNT(*) FROM Booking) AS total_bookings, " +
+        "(SELECT COUNT(*) FROM GymCenter) AS total_gym_centers";
+    
     /** The constant for getting total bookings count. */
     public static final String COUNT_TOTAL_BOOKINGS = 
         "SELECT COUNT(*) as count FROM Booking";
@@ -184,15 +212,109 @@ public class SQLConstants {
     // [Optional] If you need to check if ID exists
     public static final String CHECK_GYM_EXISTS = "SELECT COUNT(*) FROM GymCenter WHERE gym_id = ?";
     public static final String INSERT_BOOKING =
-            "INSERT INTO Booking (booking_id, user_id, slot_id, date, booking_status) VALUES (?, ?, ?, ?, ?)";
+            "INSERT INTO Booking (booking_id, user_id, slot_id, booking_date, booking_status) VALUES (?, ?, ?, ?, ?)";
 
     // 2. CONFLICT CHECK: Changed 'b.status' to 'b.booking_status'
     public static final String FIND_CONFLICTING_BOOKING =
             "SELECT b.booking_id FROM Booking b " +
                     "JOIN GymSlot s ON b.slot_id = s.slot_id " +
-                    "WHERE b.user_id = ? AND b.date = ? AND b.booking_status = 'CONFIRMED' AND s.start_time = ?";
+                    "WHERE b.user_id = ? AND b.booking_date = ? AND b.booking_status = 'CONFIRMED' AND s.start_time = ?";
 
     // 3. CANCEL/UPDATE: Changed 'status' to 'booking_status'
     public static final String UPDATE_BOOKING_STATUS =
             "UPDATE Booking SET booking_status = ? WHERE booking_id = ?";
+
+    // ========== TRANSACTIONAL BOOKING QUERIES ==========
+
+    /** Locks the requested slot row for the rest of the booking transaction. */
+    public static final String LOCK_SLOT_DETAILS =
+            "SELECT * FROM GymSlot WHERE slot_id = ? FOR UPDATE";
+
+    /**
+     * Counts a slot's confirmed and waitlisted bookings on a date through the
+     * (slot_id, booking_date, booking_status) prefix of idx_booking_waitlist.
+     * Seats are counted per date this way: GymSlot.available_seats has no date.
+     */
+    public static final String COUNT_SLOT_BOOKINGS_ON_DATE =
+            "SELECT COALESCE(SUM(booking_status = 'CONFIRMED'), 0) AS confirmed, " +
+                    "COALESCE(SUM(booking_status = 'WAITLIST'), 0) AS waiting FROM Booking " +
+                    "WHERE slot_id = ? AND booking_date = ? AND booking_status IN ('CONFIRMED','WAITLIST')";
+
+    /**
+     * Finds and locks the user's confirmed or waitlisted bookings at the same start time, with their
+     * slots, so a confirmed one's seat can be handed on.
+     */
+    public static final String LOCK_CONFLICTING_BOOKING =
+            "SELECT b.booking_id, b.slot_id, b.booking_status FROM Booking b " +
+                    "JOIN GymSlot s ON b.slot_id = s.slot_id " +
+                    "WHERE b.user_id = ? AND b.booking_date = ? AND b.booking_status IN ('CONFIRMED','WAITLIST') " +
+                    "AND s.start_time = ? FOR UPDATE";
+
+    // ========== WAITLIST QUERIES ==========
+
+    /** Reads a booking's slot, date and status before its slot is locked. */
+    public static final String GET_BOOKING_BY_ID =
+            "SELECT booking_id, user_id, slot_id, booking_date, booking_status FROM Booking WHERE booking_id = ?";
+
+    /** Re-reads and locks a booking once its slot is locked. */
+    public static final String LOCK_BOOKING_BY_ID =
+            "SELECT booking_id, user_id, slot_id, booking_date, booking_status FROM Booking WHERE booking_id = ? FOR UPDATE";
+
+    /** Finds and locks the longest-waiting booking for a slot on a date. */
+    public static final String LOCK_OLDEST_WAITLISTED_BOOKING =
+            "SELECT booking_id, user_id FROM Booking " +
+                    "WHERE slot_id = ? AND booking_date = ? AND booking_status = 'WAITLIST' " +
+                    "ORDER BY created_at, booking_id LIMIT 1 FOR UPDATE";
+
+    /** The waitlist for a slot on a date, longest-waiting first, as LOCK_OLDEST_WAITLISTED_BOOKING promotes it. */
+    public static final String SELECT_WAITLISTED_BOOKINGS =
+            "SELECT booking_id, user_id FROM Booking " +
+                    "WHERE slot_id = ? AND booking_date = ? AND booking_status = 'WAITLIST' " +
+                    "ORDER BY created_at, booking_id";
+
+    // ========== BOOKING RANGE QUERIES ==========
+
+    /**
+     * Bookings at one center between two dates, inclusive, in date, start time
+     * and slot order. The center's slots come from the GymSlot gym_id index and
+     * each slot's dates from the (slot_id, booking_date) prefix of idx_booking_waitlist.
+     */
+    public static final String STREAM_CENTER_BOOKINGS_BETWEEN =
+            "SELECT b.booking_id, b.user_id, b.slot_id, b.booking_date, b.booking_status, s.start_time, s.end_time " +
+                    "FROM GymSlot s JOIN Booking b ON b.slot_id = s.slot_id " +
+                    "WHERE s.gym_id = ? AND b.booking_date BETWEEN ? AND ? " +
+                    "ORDER BY b.booking_date, s.start_time, b.slot_id, b.booking_id";
+
+    /** Bookings at every center between two dates, inclusive, read in idx_booking_date_slot order. */
+    public static final String STREAM_BOOKINGS_BETWEEN =
+            "SELECT b.booking_id, b.user_id, b.slot_id, b.booking_date, b.booking_status, s.start_time, s.end_time " +
+                    "FROM Booking b JOIN GymSlot s ON b.slot_id = s.slot_id " +
+                    "WHERE b.booking_date BETWEEN ? AND ? " +
+                    "ORDER BY b.booking_date, b.slot_id, b.booking_id";
+
+    // ========== KEYSET EXPORT QUERIES ==========
+
+    /** The first page of bookings by booking ID, read through the primary key. */
+    public static final String SELECT_BOOKINGS_FIRST_PAGE =
+            "SELECT b.booking_id, b.user_id, b.slot_id, b.booking_date, b.booking_status, s.start_time, s.end_time " +
+                    "FROM Booking b JOIN GymSlot s ON b.slot_id = s.slot_id " +
+                    "ORDER BY b.booking_id LIMIT ?";
+
+    /** The next page of bookings after a booking ID. */
+    public static final String SELECT_BOOKINGS_AFTER =
+            "SELECT b.booking_id, b.user_id, b.slot_id, b.booking_date, b.booking_status, s.start_time, s.end_time " +
+                    "FROM Booking b JOIN GymSlot s ON b.slot_id = s.slot_id " +
+                    "WHERE b.booking_id > ? ORDER BY b.booking_id LIMIT ?";
+
+    /** The first page of users by user ID, without passwords. */
+    public static final String SELECT_USERS_FIRST_PAGE =
+            "SELECT u.user_id, u.name, u.email, u.address, r.role_name " +
+                    "FROM User u JOIN Role r ON u.role_id = r.role_id " +
+                    "ORDER BY u.user_id LIMIT ?";
+
+    /** The next page of users after a user ID, without passwords. */
+    public static final String SELECT_USERS_AFTER =
+            "SELECT u.user_id, u.name, u.email, u.address, r.role_name " +
+                    "FROM User u JOIN Role r ON u.role_id = r.role_id " +
+                    "WHERE u.user_id > ? ORDER BY u.user_id LIMIT ?";
 }
@@ -5,13 +5,57 @@ package com.flipfit.constants;
  */
 public class DatabaseConstants {
     // Database connection details
-    public static final String DB_URL = "jdbc:mysql://localhost:3306/Flipfit_schema";
+    // Server-side prepared statements, so statements cached by the pool are parsed once per connection;
+    // cursor fetch, so statements given a fetch size stream rows instead of loading the whole result
+    public static final String DB_URL = "jdbc:mysql://localhost:3306/Flipfit_schema?useServerPrepStmts=true&useCursorFetch=true";
     public static final String DB_USER = "root";
     public static final String DB_PASSWORD = "";
     
     // Database driver
     public static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
     
+    // System properties overriding the connection details, e.g. to point the DAOs
+    // at an in-memory database such as jdbc:h2:mem:flipfit;MODE=MySQL
+    public static final String DB_URL_PROPERTY = "flipfit.db.url";
+    public static final String DB_USER_PROPERTY = "flipfit.db.user";
+    public static final String DB_PASSWORD_PROPERTY = "flipfit.db.password";
+    public static final String DB_DRIVER_PROPERTY = "flipfit.db.driver";
+    
+    // Connection pool settings
+    public static final int POOL_MAX_SIZE = 10;
+    public static final int POOL_MIN_IDLE = 2;
+    public static final long POOL_BORROW_TIMEOUT_MS = 5000;
+    public static final int POOL_VALIDATION_TIMEOUT_SECONDS = 2;
+    public static final long POOL_VALIDATION_INTERVAL_MS = 1000;
+    public static final long POOL_IDLE_TIMEOUT_MS = 10 * 60 * 1000;
+    public static final long POOL_EVICTION_INTERVAL_MS = 30 * 1000;
+    public static final long POOL_LEAK_DETECTION_THRESHOLD_MS = 60 * 1000;
+    public static final int POOL_STATEMENT_CACHE_SIZE = 64;
+    
+    // Bulk lookups: IN-lists are padded up to one of these sizes so each size is
+    // prepared (and cached) once; larger id sets are split into chunks of the largest
+    public static final int[] IN_LIST_SIZES = {8, 32, 128, 512};
+    
+    // Rows fetched per round trip when streaming large result sets
+    public static final int STREAM_FETCH_SIZE = 1000;
+    
+    // Rows per keyset page in admin exports; each page is one short query
+    public static final int EXPORT_PAGE_SIZE = 1000;
+    
+    // How often the in-memory system statistics are checked against the database
+    public static final long STATISTICS_RECONCILE_INTERVAL_MS = 5 * 60 * 1000;
+    
+    // User cache: entries per cache and how long a cached user or login stays valid
+    public static final int USER_CACHE_MAX_SIZE = 10000;
+    public static final long USER_CACHE_TTL_MS = 5 * 60 * 1000;
+    
+    // Email index: the Bloom filter is sized for this many emails at this false positive rate
+    public static final int EMAIL_INDEX_EXPECTED_EMAILS = 1_000_000;
+    public static final double EMAIL_INDEX_FALSE_POSITIVE_RATE = 0.01;
+    
+    // How often the in-memory directory of approved centers is reloaded from the database
+    public static final long CENTER_DIRECTORY_REFRESH_MS = 5 * 60 * 1000;
+    
     // Private constructor to prevent instantiation
     private DatabaseConstants() {
         throw new UnsupportedOperationException("This is a constants class and cannot be instantiated");
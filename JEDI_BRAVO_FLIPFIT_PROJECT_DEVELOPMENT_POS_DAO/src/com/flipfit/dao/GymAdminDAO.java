@@ -1,8 +1,12 @@
 package com.flipfit.dao;
 
+import com.flipfit.bean.Booking;
 import com.flipfit.bean.GymOwner;
 import com.flipfit.bean.GymCenter;
+import com.flipfit.bean.GymUser;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * DAO interface for GymAdmin operations
@@ -64,12 +68,46 @@ public interface GymAdminDAO {
      */
     List<Object> getAllBookings();
     
+    /**
+     * Stream the bookings between two dates to a consumer, fetching rows in
+     * batches so a long range is never held in memory
+     * @param gymId Gym center ID, or null for every center
+     * @param from First booking date, inclusive
+     * @param to Last booking date, inclusive
+     * @param consumer Called once per booking, in date, start time and slot order
+     * @return Number of bookings streamed, or -1 if the query failed
+     */
+    int streamBookingsBetween(String gymId, LocalDate from, LocalDate to, Consumer<Booking> consumer);
+    
+    /**
+     * Get one page of bookings in booking ID order, for keyset pagination
+     * @param afterBookingId Last booking ID of the previous page, or null for the first page
+     * @param limit Maximum number of bookings
+     * @return The bookings, or null if the query failed
+     */
+    List<Booking> getBookingsAfter(String afterBookingId, int limit);
+    
+    /**
+     * Get one page of users in user ID order, for keyset pagination; passwords are not read
+     * @param afterUserId Last user ID of the previous page, or null for the first page
+     * @param limit Maximum number of users
+     * @return The users, or null if the query failed
+     */
+    List<GymUser> getUsersAfter(String afterUserId, int limit);
+    
     /**
      * View all gym centers in the system
      * @return List of all gym centers
      */
     List<GymCenter> getAllGymCenters();
     
+    /**
+     * Get a gym center by ID
+     * @param gymId Gym center ID
+     * @return GymCenter object if found, null otherwise
+     */
+    GymCenter getGymCenterById(String gymId);
+    
     /**
      * Get system statistics
      * @return Map containing various system statistics
@@ -1,10 +1,15 @@
 package com.flipfit.dao;
 
 import com.flipfit.bean.Booking;
+import com.flipfit.bean.BookingResult;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
 import com.flipfit.bean.GymUser;
+import com.flipfit.exception.BookingFailedException;
+import java.util.function.Consumer;
 import java.util.List;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.Date;
 
 /**
@@ -15,22 +20,79 @@ public interface GymCustomerDAO {
 
     List<GymCenter> fetchGymCentersByCity(String city);
 
+    /**
+     * Fetch every approved gym center, e.g. to build the customer-facing directory
+     * @return List of approved centers, or null if the query failed
+     */
+    List<GymCenter> fetchApprovedGymCenters();
+
     // Use Case 2 & 4: Slot Operations
     GymSlot getSlotDetails(String slotId);
-    boolean decrementSlotSeats(String slotId); // Returns false if full
-    boolean incrementSlotSeats(String slotId);
+
+    /**
+     * Get a slot with the seats still free on a date. Seats are counted per
+     * date from the slot's confirmed bookings.
+     * @param slotId Slot ID
+     * @param date Booking date
+     * @return The slot with availableSeats set for the date, null if not found
+     */
+    GymSlot getSlotDetails(String slotId, LocalDate date);
 
     // Use Case 2: Booking
     boolean insertBooking(Booking booking);
 
     // Use Case 3: Conflict Check
-    String findConflictingBookingId(String userId, String date, String startTime);
+    String findConflictingBookingId(String userId, LocalDate date, LocalTime startTime);
 
     // Use Case 5: Cancellation
     boolean updateBookingStatus(String bookingId, String status);
 
     // Use Case 2 (Suggestion): Get all slots
     List<GymSlot> getSlotsByGymId(String gymId);
+
+    /**
+     * Get a gym's slots with the seats still free on a date
+     * @param gymId Gym ID
+     * @param date Booking date
+     * @return Slots in start time order, with availableSeats set for the date
+     */
+    List<GymSlot> getSlotsByGymId(String gymId, LocalDate date);
+
+    /**
+     * Book a slot in a single transaction on one connection: lock the slot,
+     * cancel the user's conflicting booking at the same start time (giving its
+     * seat to that slot's waitlist), take a seat and insert the booking. Seats
+     * are counted per slot and date, and the booking is stored as WAITLIST when
+     * none is free on the date or others are already waiting for one. Nothing
+     * is written if any step fails.
+     * @param bookingId Booking ID to insert
+     * @param userId User making the booking
+     * @param slotId Slot to book
+     * @param date Booking date
+     * @return BookingResult with the stored booking and per-step latencies, null if the slot does not exist
+     * @throws BookingFailedException if the transaction failed, e.g. the database could not be reached
+     */
+    BookingResult bookSlotTransactional(String bookingId, String userId, String slotId, LocalDate date)
+            throws BookingFailedException;
+
+    /**
+     * Cancel a booking in a single transaction. When a confirmed booking is
+     * cancelled its seat goes to the longest-waiting WAITLIST booking for the
+     * same slot and date, or stays free on that date if nobody is waiting. Cancelling
+     * a waitlisted booking just removes it from the queue.
+     * @param bookingId Booking to cancel
+     * @return BookingResult with the cancelled booking ID and the promoted booking (null if none), null if the booking was not found or already cancelled
+     * @throws BookingFailedException if the transaction failed, e.g. the database could not be reached
+     */
+    BookingResult cancelBookingTransactional(String bookingId) throws BookingFailedException;
+
+    /**
+     * Get the waitlist for a slot on a date, in the order seats are handed out
+     * @param slotId Slot ID
+     * @param date Booking date
+     * @return Waitlisted bookings, longest-waiting first
+     */
+    List<Booking> getWaitlistedBookings(String slotId, LocalDate date);
     /**
      * Insert a new gym customer into the database
      * @param customerId Customer ID
@@ -61,6 +123,14 @@ public interface GymCustomerDAO {
      */
     List<GymUser> getAllGymCustomers();
     
+    /**
+     * Stream all gym customers to a consumer, fetching rows in batches so the
+     * full result set is never held in memory
+     * @param consumer Called once per customer, in user ID order
+     * @return Number of customers streamed, or -1 if the query failed
+     */
+    int streamAllGymCustomers(Consumer<GymUser> consumer);
+    
     /**
      * Update gym customer information
      * @param customerId Customer ID
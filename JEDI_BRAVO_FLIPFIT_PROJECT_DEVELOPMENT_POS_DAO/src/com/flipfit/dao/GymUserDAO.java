@@ -1,7 +1,9 @@
 package com.flipfit.dao;
 
 import com.flipfit.bean.GymUser;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * DAO interface for GymUser operations
@@ -23,6 +25,13 @@ public interface GymUserDAO {
      */
     GymUser getUserById(String userId);
     
+    /**
+     * Retrieve several users in a few round trips using chunked IN-lists
+     * @param userIds User IDs to search for
+     * @return List of the GymUser objects found; unknown IDs are skipped
+     */
+    List<GymUser> getUsersByIds(Collection<String> userIds);
+    
     /**
      * Retrieve a user by email
      * @param email Email address to search for
@@ -64,4 +73,11 @@ public interface GymUserDAO {
      * @return true if email exists, false otherwise
      */
     boolean emailExists(String email);
+    
+    /**
+     * Stream every registered email to a consumer, fetching rows in batches
+     * @param consumer Called once per email
+     * @return Number of emails streamed, or -1 if the query failed
+     */
+    int streamAllEmails(Consumer<String> consumer);
 }
@@ -0,0 +1,237 @@
+package com.flipfit.dao.impl;
+
+import com.flipfit.bean.GymUser;
+import com.flipfit.constants.DatabaseConstants;
+import com.flipfit.dao.GymUserDAO;
+import com.flipfit.metrics.Instrumented;
+import com.flipfit.utils.TtlCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * The Class CachingGymUserDAO.
+ * Read-through cache in front of another GymUserDAO, so repeated lookups and
+ * logins of the same user do not each go to the database.
+ *
+ * Users are cached by ID and by email, and successful logins by email; since
+ * the login query also checks is_active, only those entries answer logins. A
+ * cached login is only used when the password matches, so a wrong or recently
+ * changed password always falls through to the database. Entries expire after
+ * USER_CACHE_TTL_MS and are dropped as soon as the user is updated or deleted
+ * through this DAO; a user read from the database while it was being
+ * invalidated is not cached. Callers get copies, so changing a returned user
+ * does not change the cache.
+ *
+ * Use the shared instance so every DAO and service sees the same invalidations.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName CachingGymUserDAO
+ */
+public class CachingGymUserDAO implements GymUserDAO {
+
+    /** The shared instance backed by GymUserDAOImpl. */
+    private static final CachingGymUserDAO INSTANCE = new CachingGymUserDAO(
+            Instrumented.wrap(GymUserDAO.class, new GymUserDAOImpl()));
+
+    /** The DAO that reads and writes the database. */
+    private final GymUserDAO delegate;
+
+    /** The users by ID. */
+    private final TtlCache<String, GymUser> usersById;
+
+    /** The users by lower-cased email. */
+    private final TtlCache<String, GymUser> usersByEmail;
+
+    /** The users that last logged in successfully, by lower-cased email. */
+    private final TtlCache<String, GymUser> logins;
+
+    /**
+     * Instantiates a new caching gym user DAO.
+     *
+     * @param delegate the DAO to load users from
+     */
+    public CachingGymUserDAO(GymUserDAO delegate) {
+        this.delegate = delegate;
+        this.usersById = new TtlCache<>(DatabaseConstants.USER_CACHE_MAX_SIZE, DatabaseConstants.USER_CACHE_TTL_MS);
+        this.usersByEmail = new TtlCache<>(DatabaseConstants.USER_CACHE_MAX_SIZE, DatabaseConstants.USER_CACHE_TTL_MS);
+        this.logins = new TtlCache<>(DatabaseConstants.USER_CACHE_MAX_SIZE, DatabaseConstants.USER_CACHE_TTL_MS);
+    }
+
+    /**
+     * Gets the shared instance.
+     *
+     * @return the shared caching DAO
+     */
+    public static CachingGymUserDAO getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    public boolean insertUser(GymUser user) {
+        return delegate.insertUser(user);
+    }
+
+    @Override
+    public GymUser getUserById(String userId) {
+        if (userId == null) {
+            return null;
+        }
+        return copy(usersById.get(userId, delegate::getUserById));
+    }
+
+    @Override
+    public List<GymUser> getUsersByIds(Collection<String> userIds) {
+        List<GymUser> users = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String userId : new LinkedHashSet<>(userIds)) {
+            GymUser cached = usersById.get(userId);
+            if (cached != null) {
+                users.add(copy(cached));
+            } else {
+                missing.add(userId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long generation = usersById.generation();
+            for (GymUser user : delegate.getUsersByIds(missing)) {
+                usersById.put(user.getUserId(), user, generation);
+                users.add(copy(user));
+            }
+        }
+        return users;
+    }
+
+    @Override
+    public GymUser getUserByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        long generation = usersById.generation();
+        GymUser user = usersByEmail.get(emailKey(email), key -> delegate.getUserByEmail(email));
+        if (user != null) {
+            usersById.put(user.getUserId(), user, generation);
+        }
+        return copy(user);
+    }
+
+    @Override
+    public List<GymUser> getAllUsers() {
+        return delegate.getAllUsers();
+    }
+
+    @Override
+    public boolean updateUser(GymUser user) {
+        try {
+            return delegate.updateUser(user);
+        } finally {
+            invalidate(user.getUserId());
+        }
+    }
+
+    @Override
+    public boolean deleteUser(String userId) {
+        try {
+            return delegate.deleteUser(userId);
+        } finally {
+            invalidate(userId);
+        }
+    }
+
+    @Override
+    public GymUser authenticateUser(String email, String password) {
+        if (email == null || password == null) {
+            return null;
+        }
+        String key = emailKey(email);
+        GymUser cached = logins.get(key);
+        if (cached != null && password.equals(cached.getPassword())) {
+            return copy(cached);
+        }
+        long loginGeneration = logins.generation();
+        long userGeneration = usersById.generation();
+        GymUser user = delegate.authenticateUser(email, password);
+        if (user != null) {
+            logins.put(key, user, loginGeneration);
+            usersById.put(user.getUserId(), user, userGeneration);
+        }
+        return copy(user);
+    }
+
+    @Override
+    public boolean emailExists(String email) {
+        if (email == null) {
+            return false;
+        }
+        String key = emailKey(email);
+        if (usersByEmail.get(key) != null || logins.get(key) != null) {
+            return true;
+        }
+        return delegate.emailExists(email);
+    }
+
+    @Override
+    public int streamAllEmails(Consumer<String> consumer) {
+        return delegate.streamAllEmails(consumer);
+    }
+
+    /**
+     * Drops every cached entry for a user, including those under an old email.
+     *
+     * @param userId the user ID
+     */
+    public void invalidate(String userId) {
+        usersById.invalidate(userId);
+        usersByEmail.invalidateIf((email, user) -> user.getUserId().equals(userId));
+        logins.invalidateIf((email, user) -> user.getUserId().equals(userId));
+    }
+
+    /**
+     * Drops every cached user.
+     */
+    public void invalidateAll() {
+        usersById.invalidateAll();
+        usersByEmail.invalidateAll();
+        logins.invalidateAll();
+    }
+
+    /**
+     * Gets the hit, miss and eviction counts of each cache.
+     *
+     * @return the statistics keyed by cache and name, e.g. users_by_id_hit_ratio_percent
+     */
+    public Map<String, Long> getCacheStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        usersById.getStatistics().forEach((name, value) -> stats.put("users_by_id_" + name, value));
+        usersByEmail.getStatistics().forEach((name, value) -> stats.put("users_by_email_" + name, value));
+        logins.getStatistics().forEach((name, value) -> stats.put("logins_" + name, value));
+        return stats;
+    }
+
+    /**
+     * Emails compare case-insensitively, as with MySQL's default collation.
+     */
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static GymUser copy(GymUser user) {
+        if (user == null) {
+            return null;
+        }
+        GymUser copy = new GymUser();
+        copy.setUserId(user.getUserId());
+        copy.setName(user.getName());
+        copy.setEmail(user.getEmail());
+        copy.setPassword(user.getPassword());
+        copy.setAddress(user.getAddress());
+        copy.setRole(user.getRole());
+        return copy;
+    }
+}
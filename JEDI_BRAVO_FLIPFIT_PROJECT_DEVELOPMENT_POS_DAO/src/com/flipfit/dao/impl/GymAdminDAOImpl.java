@@ -1,16 +1,26 @@
 package com.flipfit.dao.impl;
 
+import com.flipfit.bean.Booking;
 import com.flipfit.bean.GymOwner;
 import com.flipfit.bean.GymCenter;
+import com.flipfit.bean.GymSlot;
+import com.flipfit.bean.GymUser;
+import com.flipfit.constant.SQLConstants;
+import com.flipfit.constants.DatabaseConstants;
 import com.flipfit.dao.GymAdminDAO;
 import com.flipfit.dao.GymOwnerDAO;
-import com.flipfit.constants.DatabaseConstants;
+import com.flipfit.enums.BookingStatus;
+import com.flipfit.enums.Role;
+import com.flipfit.metrics.Instrumented;
+import com.flipfit.utils.DBConnection;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Implementation of GymAdminDAO interface
@@ -21,18 +31,14 @@ public class GymAdminDAOImpl implements GymAdminDAO {
     private GymOwnerDAO gymOwnerDAO;
     
     public GymAdminDAOImpl() {
-        this.gymOwnerDAO = new GymOwnerDAOImpl();
+        this.gymOwnerDAO = Instrumented.wrap(GymOwnerDAO.class, new GymOwnerDAOImpl());
     }
     
     /**
-     * Get database connection
+     * Get database connection from the shared pool
      */
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(
-            DatabaseConstants.DB_URL,
-            DatabaseConstants.DB_USER,
-            DatabaseConstants.DB_PASSWORD
-        );
+        return DBConnection.getConnection();
     }
     
     @Override
@@ -170,6 +176,96 @@ public class GymAdminDAOImpl implements GymAdminDAO {
         return bookings;
     }
     
+    @Override
+    public int streamBookingsBetween(String gymId, LocalDate from, LocalDate to, Consumer<Booking> consumer) {
+        int count = 0;
+        String sql = gymId == null ? SQLConstants.STREAM_BOOKINGS_BETWEEN : SQLConstants.STREAM_CENTER_BOOKINGS_BETWEEN;
+        
+        // Forward-only with a fetch size, so the driver pulls rows in batches; not taken from the statement cache
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            int index = 1;
+            if (gymId != null) {
+                pstmt.setString(index++, gymId);
+            }
+            pstmt.setDate(index++, Date.valueOf(from));
+            pstmt.setDate(index, Date.valueOf(to));
+            pstmt.setFetchSize(DatabaseConstants.STREAM_FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToBooking(rs));
+                    count++;
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error streaming bookings: " + e.getMessage());
+            return -1;
+        }
+        return count;
+    }
+    
+    @Override
+    public List<Booking> getBookingsAfter(String afterBookingId, int limit) {
+        String sql = afterBookingId == null ? SQLConstants.SELECT_BOOKINGS_FIRST_PAGE : SQLConstants.SELECT_BOOKINGS_AFTER;
+        List<Booking> bookings = new ArrayList<>(limit);
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            int index = 1;
+            if (afterBookingId != null) {
+                pstmt.setString(index++, afterBookingId);
+            }
+            pstmt.setInt(index, limit);
+            pstmt.setFetchSize(Math.min(limit, DatabaseConstants.STREAM_FETCH_SIZE));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    bookings.add(mapResultSetToBooking(rs));
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error reading bookings after " + afterBookingId + ": " + e.getMessage());
+            return null;
+        }
+        return bookings;
+    }
+    
+    @Override
+    public List<GymUser> getUsersAfter(String afterUserId, int limit) {
+        String sql = afterUserId == null ? SQLConstants.SELECT_USERS_FIRST_PAGE : SQLConstants.SELECT_USERS_AFTER;
+        List<GymUser> users = new ArrayList<>(limit);
+        
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            int index = 1;
+            if (afterUserId != null) {
+                pstmt.setString(index++, afterUserId);
+            }
+            pstmt.setInt(index, limit);
+            pstmt.setFetchSize(Math.min(limit, DatabaseConstants.STREAM_FETCH_SIZE));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    GymUser user = new GymUser();
+                    user.setUserId(rs.getString("user_id"));
+                    user.setName(rs.getString("name"));
+                    user.setEmail(rs.getString("email"));
+                    user.setAddress(rs.getString("address"));
+                    user.setRole(Role.valueOf(rs.getString("role_name")));
+                    users.add(user);
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error reading users after " + afterUserId + ": " + e.getMessage());
+            return null;
+        }
+        return users;
+    }
+    
     @Override
     public List<GymCenter> getAllGymCenters() {
         List<GymCenter> centers = new ArrayList<>();
@@ -190,53 +286,38 @@ public class GymAdminDAOImpl implements GymAdminDAO {
     }
     
     @Override
-    public Map<String, Integer> getSystemStatistics() {
-        Map<String, Integer> stats = new HashMap<>();
-        
-        try (Connection conn = getConnection()) {
-            // Get total users
-            String sql = "SELECT COUNT(*) as count FROM User";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql);
-                 ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    stats.put("total_users", rs.getInt("count"));
-                }
-            }
-            
-            // Get total gym owners
-            sql = "SELECT COUNT(*) as count FROM GymOwner";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql);
-                 ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    stats.put("total_gym_owners", rs.getInt("count"));
-                }
-            }
+    public GymCenter getGymCenterById(String gymId) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SQLConstants.GET_GYM_CENTER_BY_ID)) {
             
-            // Get total customers
-            sql = "SELECT COUNT(*) as count FROM GymCustomer";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql);
-                 ResultSet rs = pstmt.executeQuery()) {
+            pstmt.setString(1, gymId);
+            try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    stats.put("total_customers", rs.getInt("count"));
+                    return mapResultSetToGymCenter(rs);
                 }
             }
             
-            // Get total bookings
-            sql = "SELECT COUNT(*) as count FROM Booking";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql);
-                 ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    stats.put("total_bookings", rs.getInt("count"));
-                }
-            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+    
+    @Override
+    public Map<String, Integer> getSystemStatistics() {
+        Map<String, Integer> stats = new HashMap<>();
+        
+        // All five counts as scalar subqueries of a single statement
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SQLConstants.SELECT_SYSTEM_STATISTICS);
+             ResultSet rs = pstmt.executeQuery()) {
             
-            // Get total gym centers
-            sql = "SELECT COUNT(*) as count FROM GymCenter";
-            try (PreparedStatement pstmt = conn.prepareStatement(sql);
-                 ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    stats.put("total_gym_centers", rs.getInt("count"));
-                }
+            if (rs.next()) {
+                stats.put("total_users", rs.getInt("total_users"));
+                stats.put("total_gym_owners", rs.getInt("total_gym_owners"));
+                stats.put("total_customers", rs.getInt("total_customers"));
+                stats.put("total_bookings", rs.getInt("total_bookings"));
+                stats.put("total_gym_centers", rs.getInt("total_gym_centers"));
             }
             
         } catch (SQLException e) {
@@ -255,6 +336,25 @@ public class GymAdminDAOImpl implements GymAdminDAO {
         center.setCenterLocn(rs.getString("gym_address"));
         center.setCenterCity(rs.getString("city"));
         center.setOwnerId(rs.getString("owner_id"));
+        center.setApproved(rs.getBoolean("is_approved"));
         return center;
     }
+    
+    private Booking mapResultSetToBooking(ResultSet rs) throws SQLException {
+        GymUser user = new GymUser();
+        user.setUserId(rs.getString("user_id"));
+        GymSlot slot = new GymSlot();
+        slot.setSlotId(rs.getString("slot_id"));
+        slot.setStartTime(rs.getTime("start_time").toLocalTime());
+        slot.setEndTime(rs.getTime("end_time").toLocalTime());
+        
+        Booking booking = new Booking();
+        booking.setBookingId(rs.getString("booking_id"));
+        booking.setGymUser(user);
+        booking.setGymSlot(slot);
+        booking.setBookingDate(rs.getDate("booking_date").toLocalDate());
+        booking.setStartTime(slot.getStartTime());
+        booking.setBookingStatus(BookingStatus.valueOf(rs.getString("booking_status")));
+        return booking;
+    }
 }
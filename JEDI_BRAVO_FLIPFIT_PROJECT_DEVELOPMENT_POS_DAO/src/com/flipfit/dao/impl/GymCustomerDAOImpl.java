@@ -2,17 +2,27 @@ package com.flipfit.dao.impl;
 
 import com.flipfit.bean.GymUser;
 import com.flipfit.constant.SQLConstants;
+import com.flipfit.constants.DatabaseConstants;
 import com.flipfit.dao.GymCustomerDAO;
 import com.flipfit.dao.GymUserDAO;
-import com.flipfit.constants.DatabaseConstants;
+import com.flipfit.exception.BookingFailedException;
+import com.flipfit.metrics.Metrics;
+import com.flipfit.utils.DBConnection;
+import com.flipfit.utils.SystemStatistics;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import com.flipfit.bean.Booking;
+import com.flipfit.bean.BookingResult;
 import com.flipfit.bean.GymCenter;
 import com.flipfit.bean.GymSlot;
+import com.flipfit.enums.BookingStatus;
+import java.time.LocalDate;
 import java.time.LocalTime;
 /**
  * Implementation of GymCustomerDAO interface
@@ -23,18 +33,14 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
     private GymUserDAO gymUserDAO;
     
     public GymCustomerDAOImpl() {
-        this.gymUserDAO = new GymUserDAOImpl();
+        this.gymUserDAO = CachingGymUserDAO.getInstance();
     }
     
     /**
-     * Get database connection
+     * Get database connection from the shared pool
      */
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(
-            DatabaseConstants.DB_URL,
-            DatabaseConstants.DB_USER,
-            DatabaseConstants.DB_PASSWORD
-        );
+        return DBConnection.getConnection();
     }
     
     @Override
@@ -52,6 +58,9 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
             pstmt.setString(4, fitnessGoal);
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                SystemStatistics.increment(SystemStatistics.Counter.CUSTOMERS);
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -104,18 +113,14 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
     @Override
     public List<GymUser> getAllGymCustomers() {
         List<GymUser> customers = new ArrayList<>();
-        String sql = "SELECT user_id FROM GymCustomer";
         
+        // One joined query instead of a user lookup per customer row
         try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
+             PreparedStatement pstmt = conn.prepareStatement(SQLConstants.SELECT_ALL_GYM_CUSTOMER_USERS);
              ResultSet rs = pstmt.executeQuery()) {
             
             while (rs.next()) {
-                String userId = rs.getString("user_id");
-                GymUser user = gymUserDAO.getUserById(userId);
-                if (user != null) {
-                    customers.add(user);
-                }
+                customers.add(GymUserDAOImpl.mapResultSetToUser(rs));
             }
             
         } catch (SQLException e) {
@@ -124,6 +129,30 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
         return customers;
     }
     
+    @Override
+    public int streamAllGymCustomers(Consumer<GymUser> consumer) {
+        int count = 0;
+        
+        // Forward-only with a fetch size, so the driver pulls rows in batches; not taken from the statement cache
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SQLConstants.SELECT_ALL_GYM_CUSTOMER_USERS,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            pstmt.setFetchSize(DatabaseConstants.STREAM_FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(GymUserDAOImpl.mapResultSetToUser(rs));
+                    count++;
+                }
+            }
+            
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+        return count;
+    }
+    
     @Override
     public boolean updateGymCustomer(String customerId, Date dateOfBirth, String fitnessGoal) {
         String sql = "UPDATE GymCustomer SET date_of_birth = ?, fitness_goal = ? " +
@@ -177,6 +206,11 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
             
             pstmt.setString(1, customerId);
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                SystemStatistics.decrement(SystemStatistics.Counter.CUSTOMERS);
+                // Cascaded deletes are not counted here, so reload the totals
+                SystemStatistics.requestReconcile();
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -187,7 +221,8 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
     
     @Override
     public int getCustomerBookingCount(String customerId) {
-        String sql = "SELECT COUNT(*) FROM Booking WHERE customer_id = ?";
+        String sql = "SELECT COUNT(*) FROM Booking b " +
+                     "JOIN GymCustomer c ON b.user_id = c.user_id WHERE c.customer_id = ?";
         
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -214,17 +249,39 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
             pstmt.setString(1, city);
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
-                GymCenter center = new GymCenter();
-                center.setCenterId(rs.getString("centerId")); // Ensure col names match DB
-                center.setCenterLocn(rs.getString("centerLocn"));
-                center.setCenterCity(rs.getString("centerCity"));
-                center.setOwnerId(rs.getString("ownerId"));
-                centers.add(center);
+                centers.add(mapResultSetToGymCenter(rs));
             }
         } catch (SQLException e) { e.printStackTrace(); }
         return centers;
     }
 
+    @Override
+    public List<GymCenter> fetchApprovedGymCenters() {
+        List<GymCenter> centers = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SQLConstants.FETCH_APPROVED_GYM_CENTERS);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                centers.add(mapResultSetToGymCenter(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return centers;
+    }
+
+    private GymCenter mapResultSetToGymCenter(ResultSet rs) throws SQLException {
+        GymCenter center = new GymCenter();
+        center.setCenterId(rs.getString("gym_id"));
+        center.setCenterLocn(rs.getString("gym_address"));
+        center.setCenterCity(rs.getString("city"));
+        center.setOwnerId(rs.getString("owner_id"));
+        center.setApproved(rs.getBoolean("is_approved"));
+        return center;
+    }
+
     @Override
     public GymSlot getSlotDetails(String slotId) {
         try (Connection conn = getConnection();
@@ -245,21 +302,24 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
     }
 
     @Override
-    public boolean decrementSlotSeats(String slotId) {
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQLConstants.DECREMENT_SLOT_SEATS)) {
-            pstmt.setString(1, slotId);
-            return pstmt.executeUpdate() > 0; // Returns true only if row updated (seats were > 0)
-        } catch (SQLException e) { e.printStackTrace(); return false; }
-    }
-
-    @Override
-    public boolean incrementSlotSeats(String slotId) {
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(SQLConstants.INCREMENT_SLOT_SEATS)) {
-            pstmt.setString(1, slotId);
-            return pstmt.executeUpdate() > 0;
-        } catch (SQLException e) { e.printStackTrace(); return false; }
+    public GymSlot getSlotDetails(String slotId, LocalDate date) {
+        try (Connection conn = getConnection()) {
+            GymSlot slot = null;
+            try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.GET_SLOT_DETAILS)) {
+                pstmt.setString(1, slotId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        slot = mapSlot(rs);
+                    }
+                }
+            }
+            if (slot != null) {
+                int[] counts = countBookings(conn, slotId, java.sql.Date.valueOf(date));
+                slot.setAvailableSeats(Math.max(0, slot.getTotalSeats() - counts[0]));
+            }
+            return slot;
+        } catch (SQLException e) { e.printStackTrace(); }
+        return null;
     }
 
     @Override
@@ -270,21 +330,25 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
             pstmt.setString(1, booking.getBookingId());
             pstmt.setString(2, booking.getGymUser().getUserId());
             pstmt.setString(3, booking.getGymSlot().getSlotId());
-            pstmt.setString(4, booking.getDateAndTime()); // Storing Date here
+            pstmt.setDate(4, java.sql.Date.valueOf(booking.getBookingDate()));
             pstmt.setString(5, booking.getBookingStatus().toString());
 
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() > 0) {
+                SystemStatistics.increment(SystemStatistics.Counter.BOOKINGS);
+                return true;
+            }
+            return false;
         } catch (SQLException e) { e.printStackTrace(); return false; }
     }
 
     @Override
-    public String findConflictingBookingId(String userId, String date, String startTime) {
+    public String findConflictingBookingId(String userId, LocalDate date, LocalTime startTime) {
         try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(SQLConstants.FIND_CONFLICTING_BOOKING)) {
 
             pstmt.setString(1, userId);
-            pstmt.setString(2, date);
-            pstmt.setString(3, startTime);
+            pstmt.setDate(2, java.sql.Date.valueOf(date));
+            pstmt.setTime(3, Time.valueOf(startTime));
 
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -305,6 +369,359 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
         } catch (SQLException e) { e.printStackTrace(); return false; }
     }
 
+    @Override
+    public BookingResult bookSlotTransactional(String bookingId, String userId, String slotId, LocalDate date)
+            throws BookingFailedException {
+        BookingResult result = new BookingResult();
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // 1. Lock the requested slot so concurrent bookings queue behind this one
+                long start = System.nanoTime();
+                GymSlot slot = lockSlot(conn, slotId);
+                result.recordStep("slot_lookup", start);
+                if (slot == null) {
+                    conn.rollback();
+                    return null;
+                }
+
+                // 2. Find the user's confirmed or waitlisted bookings at the same start time, if any
+                start = System.nanoTime();
+                Map<String, String> conflicts = new LinkedHashMap<>(); // booking_id -> slot_id of confirmed ones, null if waiting
+                try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.LOCK_CONFLICTING_BOOKING)) {
+                    pstmt.setString(1, userId);
+                    pstmt.setDate(2, java.sql.Date.valueOf(date));
+                    pstmt.setTime(3, Time.valueOf(slot.getStartTime()));
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            boolean confirmed = BookingStatus.CONFIRMED.toString().equals(rs.getString("booking_status"));
+                            conflicts.put(rs.getString("booking_id"), confirmed ? rs.getString("slot_id") : null);
+                        }
+                    }
+                }
+                result.recordStep("conflict_check", start);
+
+                // 3. Cancel them all, then hand each confirmed one's seat to its waitlist as a cancellation would
+                if (!conflicts.isEmpty()) {
+                    start = System.nanoTime();
+                    for (String conflictingBookingId : conflicts.keySet()) {
+                        try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.UPDATE_BOOKING_STATUS)) {
+                            pstmt.setString(1, BookingStatus.CANCELLED.toString());
+                            pstmt.setString(2, conflictingBookingId);
+                            pstmt.executeUpdate();
+                        }
+                        result.setCancelledBookingId(conflictingBookingId);
+                    }
+                    for (String conflictingSlotId : conflicts.values()) {
+                        if (conflictingSlotId != null) {
+                            GymSlot freed = conflictingSlotId.equals(slotId) ? slot : lockSlot(conn, conflictingSlotId);
+                            promoteWaitlisted(conn, freed, java.sql.Date.valueOf(date));
+                        }
+                    }
+                    result.recordStep("conflict_cancel", start);
+                }
+
+                // 4. Seats free on the date go to those already waiting first, then to this booking
+                start = System.nanoTime();
+                promoteWaitlisted(conn, slot, java.sql.Date.valueOf(date));
+                boolean seatTaken = slot.getAvailableSeats() > 0;
+                if (seatTaken) {
+                    slot.setAvailableSeats(slot.getAvailableSeats() - 1);
+                }
+                result.recordStep("seat_check", start);
+
+                // 5. Insert the booking as confirmed or waitlisted
+                start = System.nanoTime();
+                Booking booking = new Booking();
+                booking.setBookingId(bookingId);
+                GymUser user = new GymUser();
+                user.setUserId(userId);
+                booking.setGymUser(user);
+                booking.setGymSlot(slot);
+                booking.setBookingDate(date);
+                booking.setStartTime(slot.getStartTime());
+                booking.setBookingStatus(seatTaken ? BookingStatus.CONFIRMED : BookingStatus.WAITLIST);
+                try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.INSERT_BOOKING)) {
+                    pstmt.setString(1, bookingId);
+                    pstmt.setString(2, userId);
+                    pstmt.setString(3, slotId);
+                    pstmt.setDate(4, java.sql.Date.valueOf(date));
+                    pstmt.setString(5, booking.getBookingStatus().toString());
+                    pstmt.executeUpdate();
+                }
+                result.recordStep("booking_insert", start);
+
+                start = System.nanoTime();
+                conn.commit();
+                result.recordStep("commit", start);
+                SystemStatistics.increment(SystemStatistics.Counter.BOOKINGS);
+
+                result.setBooking(booking);
+                return result;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                recordSteps("bookSlotTransactional", result);
+            }
+        } catch (SQLException e) {
+            throw new BookingFailedException("Could not book slot " + slotId + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public BookingResult cancelBookingTransactional(String bookingId) throws BookingFailedException {
+        BookingResult result = new BookingResult();
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // 1. Find the booking's slot so the slot row can be locked first, as bookSlotTransactional does
+                long start = System.nanoTime();
+                String slotId = null;
+                try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.GET_BOOKING_BY_ID)) {
+                    pstmt.setString(1, bookingId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) {
+                            slotId = rs.getString("slot_id");
+                        }
+                    }
+                }
+                result.recordStep("booking_lookup", start);
+                if (slotId == null) {
+                    conn.rollback();
+                    return null;
+                }
+
+                // 2. Lock the slot, then the booking itself
+                start = System.nanoTime();
+                GymSlot slot = lockSlot(conn, slotId);
+                String status = null;
+                java.sql.Date date = null;
+                try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.LOCK_BOOKING_BY_ID)) {
+                    pstmt.setString(1, bookingId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) {
+                            status = rs.getString("booking_status");
+                            date = rs.getDate("booking_date");
+                        }
+                    }
+                }
+                result.recordStep("lock", start);
+                if (slot == null || status == null || BookingStatus.CANCELLED.toString().equals(status)) {
+                    conn.rollback();
+                    return null;
+                }
+
+                // 3. Cancel the booking
+                start = System.nanoTime();
+                try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.UPDATE_BOOKING_STATUS)) {
+                    pstmt.setString(1, BookingStatus.CANCELLED.toString());
+                    pstmt.setString(2, bookingId);
+                    pstmt.executeUpdate();
+                }
+                result.setCancelledBookingId(bookingId);
+                result.recordStep("cancel", start);
+
+                // 4. Hand a confirmed booking's seat to the head of the waitlist; with nobody waiting it stays free
+                if (BookingStatus.CONFIRMED.toString().equals(status)) {
+                    start = System.nanoTime();
+                    List<Booking> promoted = promoteWaitlisted(conn, slot, date);
+                    if (!promoted.isEmpty()) {
+                        result.setBooking(promoted.get(0));
+                    }
+                    result.recordStep("waitlist_promote", start);
+                }
+
+                start = System.nanoTime();
+                conn.commit();
+                result.recordStep("commit", start);
+                return result;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                recordSteps("cancelBookingTransactional", result);
+            }
+        } catch (SQLException e) {
+            throw new BookingFailedException("Could not cancel booking " + bookingId + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Adds the latency of each step a transaction ran, including those before a
+     * rollback, to a timer per step, e.g.
+     * GymCustomerDAOImpl.bookSlotTransactional.seat_check, next to the timer of
+     * the whole call.
+     *
+     * @param operation the transactional method
+     * @param result the result holding the step latencies
+     */
+    private static void recordSteps(String operation, BookingResult result) {
+        result.getStepLatencyMicros().forEach((step, micros) ->
+                Metrics.timer("GymCustomerDAOImpl." + operation + "." + step).record(micros * 1000));
+    }
+
+    /**
+     * Locks a slot row for the rest of the transaction and reads it.
+     *
+     * @param conn the connection of the open transaction
+     * @param slotId the slot ID
+     * @return the slot, or null if there is none
+     * @throws SQLException if the statement fails
+     */
+    private GymSlot lockSlot(Connection conn, String slotId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.LOCK_SLOT_DETAILS)) {
+            pstmt.setString(1, slotId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapSlot(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Counts a slot's confirmed and waitlisted bookings on a date. Seats are
+     * counted this way rather than from GymSlot.available_seats, which is one
+     * number for every date.
+     *
+     * @param conn the connection to use
+     * @param slotId the slot ID
+     * @param date the booking date
+     * @return the confirmed count, then the waitlisted count
+     * @throws SQLException if the statement fails
+     */
+    private int[] countBookings(Connection conn, String slotId, java.sql.Date date) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.COUNT_SLOT_BOOKINGS_ON_DATE)) {
+            pstmt.setString(1, slotId);
+            pstmt.setDate(2, date);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return new int[] { rs.getInt("confirmed"), rs.getInt("waiting") };
+            }
+        }
+    }
+
+    /**
+     * Confirms the longest-waiting bookings for the slot on the date while it has
+     * free seats on that date. A waiting booking whose user already holds a
+     * confirmed booking at that start time is cancelled rather than promoted, and
+     * the next one is tried. Runs in the caller's transaction, which holds the slot,
+     * and leaves the slot's availableSeats at the seats still free on the date.
+     *
+     * @param conn the connection of the open transaction
+     * @param slot the locked slot, with its ID, start time and total seats
+     * @param date the booking date
+     * @return the promoted bookings, longest-waiting first; empty if no seat was free or nobody waited
+     * @throws SQLException if a statement fails
+     */
+    private List<Booking> promoteWaitlisted(Connection conn, GymSlot slot, java.sql.Date date) throws SQLException {
+        List<Booking> promoted = new ArrayList<>();
+        int[] counts = countBookings(conn, slot.getSlotId(), date);
+        int freeSeats = slot.getTotalSeats() - counts[0];
+        int waiting = counts[1];
+        while (freeSeats > 0 && waiting > 0) {
+            String promotedId = null;
+            String promotedUserId = null;
+            try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.LOCK_OLDEST_WAITLISTED_BOOKING)) {
+                pstmt.setString(1, slot.getSlotId());
+                pstmt.setDate(2, date);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        promotedId = rs.getString("booking_id");
+                        promotedUserId = rs.getString("user_id");
+                    }
+                }
+            }
+            if (promotedId == null) {
+                break;
+            }
+            waiting--;
+
+            boolean alreadyBooked;
+            try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.FIND_CONFLICTING_BOOKING)) {
+                pstmt.setString(1, promotedUserId);
+                pstmt.setDate(2, date);
+                pstmt.setTime(3, Time.valueOf(slot.getStartTime()));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    alreadyBooked = rs.next();
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(SQLConstants.UPDATE_BOOKING_STATUS)) {
+                pstmt.setString(1, (alreadyBooked ? BookingStatus.CANCELLED : BookingStatus.CONFIRMED).toString());
+                pstmt.setString(2, promotedId);
+                pstmt.executeUpdate();
+            }
+            if (!alreadyBooked) {
+                freeSeats--;
+                Booking booking = new Booking();
+                booking.setBookingId(promotedId);
+                GymUser user = new GymUser();
+                user.setUserId(promotedUserId);
+                booking.setGymUser(user);
+                booking.setGymSlot(slot);
+                booking.setBookingDate(date.toLocalDate());
+                booking.setStartTime(slot.getStartTime());
+                booking.setBookingStatus(BookingStatus.CONFIRMED);
+                promoted.add(booking);
+            }
+        }
+        slot.setAvailableSeats(Math.max(0, freeSeats));
+        return promoted;
+    }
+
+    @Override
+    public List<Booking> getWaitlistedBookings(String slotId, LocalDate date) {
+        List<Booking> bookings = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SQLConstants.SELECT_WAITLISTED_BOOKINGS)) {
+
+            pstmt.setString(1, slotId);
+            pstmt.setDate(2, java.sql.Date.valueOf(date));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Booking booking = new Booking();
+                    booking.setBookingId(rs.getString("booking_id"));
+                    GymUser user = new GymUser();
+                    user.setUserId(rs.getString("user_id"));
+                    booking.setGymUser(user);
+                    GymSlot slot = new GymSlot();
+                    slot.setSlotId(slotId);
+                    booking.setGymSlot(slot);
+                    booking.setBookingDate(date);
+                    booking.setBookingStatus(BookingStatus.WAITLIST);
+                    bookings.add(booking);
+                }
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return bookings;
+    }
+
+    @Override
+    public List<GymSlot> getSlotsByGymId(String gymId, LocalDate date) {
+        List<GymSlot> slots = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SQLConstants.GET_ALL_SLOTS_FOR_GYM_ON_DATE)) {
+
+            pstmt.setDate(1, java.sql.Date.valueOf(date));
+            pstmt.setString(2, gymId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    GymSlot slot = new GymSlot();
+                    slot.setSlotId(rs.getString("slot_id"));
+                    slot.setStartTime(LocalTime.parse(rs.getString("start_time")));
+                    slot.setEndTime(LocalTime.parse(rs.getString("end_time")));
+                    slot.setTotalSeats(rs.getInt("total_seats"));
+                    slot.setAvailableSeats(Math.max(0, rs.getInt("free_seats")));
+                    slots.add(slot);
+                }
+            }
+        } catch (SQLException e) { e.printStackTrace(); }
+        return slots;
+    }
+
     @Override
     public List<GymSlot> getSlotsByGymId(String gymId) {
         List<GymSlot> slots = new ArrayList<>();
@@ -323,4 +740,14 @@ public class GymCustomerDAOImpl implements GymCustomerDAO {
         } catch (SQLException e) { e.printStackTrace(); }
         return slots;
     }
+
+    private static GymSlot mapSlot(ResultSet rs) throws SQLException {
+        GymSlot slot = new GymSlot();
+        slot.setSlotId(rs.getString("slot_id"));
+        slot.setStartTime(LocalTime.parse(rs.getString("start_time")));
+        slot.setEndTime(LocalTime.parse(rs.getString("end_time")));
+        slot.setTotalSeats(rs.getInt("total_seats"));
+        slot.setAvailableSeats(rs.getInt("available_seats"));
+        return slot;
+    }
 }
@@ -6,7 +6,8 @@ import com.flipfit.bean.GymUser;
 import com.flipfit.constant.SQLConstants;
 import com.flipfit.dao.GymOwnerDAO;
 import com.flipfit.dao.GymUserDAO;
-import com.flipfit.constants.DatabaseConstants;
+import com.flipfit.utils.DBConnection;
+import com.flipfit.utils.SystemStatistics;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -21,18 +22,14 @@ public class GymOwnerDAOImpl implements GymOwnerDAO {
     private GymUserDAO gymUserDAO;
     
     public GymOwnerDAOImpl() {
-        this.gymUserDAO = new GymUserDAOImpl();
+        this.gymUserDAO = CachingGymUserDAO.getInstance();
     }
     
     /**
-     * Get database connection
+     * Get database connection from the shared pool
      */
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(
-            DatabaseConstants.DB_URL,
-            DatabaseConstants.DB_USER,
-            DatabaseConstants.DB_PASSWORD
-        );
+        return DBConnection.getConnection();
     }
     
     @Override
@@ -51,6 +48,9 @@ public class GymOwnerDAOImpl implements GymOwnerDAO {
             pstmt.setString(5, gstNumber);
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                SystemStatistics.increment(SystemStatistics.Counter.GYM_OWNERS);
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -187,6 +187,11 @@ public class GymOwnerDAOImpl implements GymOwnerDAO {
             
             pstmt.setString(1, ownerId);
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                SystemStatistics.decrement(SystemStatistics.Counter.GYM_OWNERS);
+                // Cascaded deletes are not counted here, so reload the totals
+                SystemStatistics.requestReconcile();
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -223,6 +228,9 @@ public class GymOwnerDAOImpl implements GymOwnerDAO {
             // is_approved is handled by SQL default or 'FALSE' in query
 
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                SystemStatistics.increment(SystemStatistics.Counter.GYM_CENTERS);
+            }
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -4,12 +4,17 @@ import com.flipfit.bean.GymUser;
 import com.flipfit.dao.GymUserDAO;
 import com.flipfit.enums.Role;
 import com.flipfit.utils.DBConnection;
+import com.flipfit.utils.SystemStatistics;
 import com.flipfit.constant.SQLConstants;
+import com.flipfit.constants.DatabaseConstants;
 import com.flipfit.exception.UserNotFoundException;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 // TODO: Auto-generated Javadoc
 /**
@@ -42,6 +47,9 @@ public class GymUserDAOImpl implements GymUserDAO {
             pstmt.setInt(7, getRoleId(user.getRole()));
             
             int rowsAffected = pstmt.executeUpdate();
+            if (rowsAffected > 0) {
+                SystemStatistics.increment(SystemStatistics.Counter.USERS);
+            }
             return rowsAffected > 0;
             
         } catch (SQLException e) {
@@ -75,6 +83,45 @@ public class GymUserDAOImpl implements GymUserDAO {
         return null;
     }
     
+    /**
+     * Gets the users by ids.
+     * Runs one query per chunk of IDs on a single connection instead of one query per ID.
+     *
+     * @param userIds the user IDs to search for
+     * @return the list of GymUser objects found
+     */
+    @Override
+    public List<GymUser> getUsersByIds(Collection<String> userIds) {
+        List<GymUser> users = new ArrayList<>();
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (ids.isEmpty()) {
+            return users;
+        }
+        
+        int[] sizes = DatabaseConstants.IN_LIST_SIZES;
+        int maxChunk = sizes[sizes.length - 1];
+        try (Connection conn = DBConnection.getConnection()) {
+            for (int from = 0; from < ids.size(); from += maxChunk) {
+                List<String> chunk = ids.subList(from, Math.min(from + maxChunk, ids.size()));
+                int size = inListSize(chunk.size());
+                try (PreparedStatement pstmt = conn.prepareStatement(selectUsersByIdsSql(size))) {
+                    // Pad with the last ID so the statement text only depends on the bucket size
+                    for (int i = 0; i < size; i++) {
+                        pstmt.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            users.add(mapResultSetToUser(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching users by IDs: " + e.getMessage());
+        }
+        return users;
+    }
+    
     /**
      * Gets the user by email.
      *
@@ -168,6 +215,9 @@ public class GymUserDAOImpl implements GymUserDAO {
             if (rowsAffected == 0) {
                 throw new UserNotFoundException("User with ID " + userId + " not found");
             }
+            SystemStatistics.decrement(SystemStatistics.Counter.USERS);
+            // Cascaded deletes are not counted here, so reload the totals
+            SystemStatistics.requestReconcile();
             return true;
             
         } catch (SQLException e) {
@@ -229,6 +279,36 @@ public class GymUserDAOImpl implements GymUserDAO {
         return false;
     }
     
+    /**
+     * Stream all emails.
+     *
+     * @param consumer called once per email
+     * @return the number of emails streamed, or -1 if the query failed
+     */
+    @Override
+    public int streamAllEmails(Consumer<String> consumer) {
+        int count = 0;
+        
+        // Forward-only with a fetch size, so the driver pulls rows in batches; not taken from the statement cache
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(SQLConstants.SELECT_ALL_EMAILS,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            
+            pstmt.setFetchSize(DatabaseConstants.STREAM_FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(rs.getString("email"));
+                    count++;
+                }
+            }
+            
+        } catch (SQLException e) {
+            System.err.println("Error streaming emails: " + e.getMessage());
+            return -1;
+        }
+        return count;
+    }
+    
     /**
      * Map result set to user.
      * Helper method to map ResultSet to GymUser object
@@ -237,7 +317,7 @@ public class GymUserDAOImpl implements GymUserDAO {
      * @return the GymUser object
      * @throws SQLException if SQL error occurs
      */
-    private GymUser mapResultSetToUser(ResultSet rs) throws SQLException {
+    static GymUser mapResultSetToUser(ResultSet rs) throws SQLException {
         GymUser user = new GymUser();
         user.setUserId(rs.getString("user_id"));
         user.setName(rs.getString("name"));
@@ -248,6 +328,35 @@ public class GymUserDAOImpl implements GymUserDAO {
         return user;
     }
     
+    /**
+     * Smallest IN-list size that fits the given number of IDs.
+     *
+     * @param count the number of IDs
+     * @return the IN-list size
+     */
+    private static int inListSize(int count) {
+        for (int size : DatabaseConstants.IN_LIST_SIZES) {
+            if (count <= size) {
+                return size;
+            }
+        }
+        return DatabaseConstants.IN_LIST_SIZES[DatabaseConstants.IN_LIST_SIZES.length - 1];
+    }
+    
+    /**
+     * Builds the select-by-IDs query for an IN-list of the given size.
+     *
+     * @param size the number of placeholders
+     * @return the SQL text
+     */
+    private static String selectUsersByIdsSql(int size) {
+        StringBuilder sql = new StringBuilder(SQLConstants.SELECT_USERS_BY_IDS_PREFIX);
+        for (int i = 0; i < size; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(")").toString();
+    }
+    
     /**
      * Gets the role id.
      * Helper method to get role ID from Role enum
@@ -0,0 +1,53 @@
+package com.flipfit.metrics;
+
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The Class ConsoleReporter.
+ * Prints a table of every timer that has run, then the gauges, to a stream.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName ConsoleReporter
+ */
+public class ConsoleReporter implements MetricsReporter {
+
+    /** Nanoseconds per microsecond, the unit of the table. */
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /** The stream printed to. */
+    private final PrintStream out;
+
+    public ConsoleReporter(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void report(SortedMap<String, Timer> timers, SortedMap<String, Counter> counters,
+                       SortedMap<String, LongSupplier> gauges) {
+        StringBuilder report = new StringBuilder();
+        report.append("-- Metrics ").append(LocalDateTime.now()).append(" --\n");
+        report.append(String.format("%-64s %10s %9s %9s %9s %9s %9s %9s %8s %10s%n", "Timer (us)", "Count", "Mean",
+                "p50", "p90", "p99", "p99.9", "Max", "Errors", "Rows"));
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            Timer timer = entry.getValue();
+            LatencyHistogram histogram = timer.getHistogram();
+            if (histogram.getCount() == 0 && timer.getErrors() == 0) {
+                continue;
+            }
+            report.append(String.format("%-64s %10d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %8d %10d%n", entry.getKey(),
+                    histogram.getCount(), histogram.getMean() / NANOS_PER_MICRO,
+                    histogram.getPercentile(0.50) / NANOS_PER_MICRO, histogram.getPercentile(0.90) / NANOS_PER_MICRO,
+                    histogram.getPercentile(0.99) / NANOS_PER_MICRO, histogram.getPercentile(0.999) / NANOS_PER_MICRO,
+                    histogram.getMax() / NANOS_PER_MICRO, timer.getErrors(), timer.getRows()));
+        }
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            report.append(String.format("%-64s %10d%n", entry.getKey(), entry.getValue().getAsLong()));
+        }
+        out.print(report);
+        out.flush();
+    }
+}
@@ -0,0 +1,28 @@
+package com.flipfit.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Class Counter.
+ * A count that only goes up, cheap to increment from many threads at once.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName Counter
+ */
+public class Counter {
+
+    /** The count. */
+    private final LongAdder count = new LongAdder();
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+}
@@ -0,0 +1,69 @@
+package com.flipfit.metrics;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The Class CsvReporter.
+ * Appends a row per report to one CSV file per timer and per gauge, named
+ * after the metric, so each file charts one metric over time. Latencies are
+ * in nanoseconds.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName CsvReporter
+ */
+public class CsvReporter implements MetricsReporter {
+
+    /** The header of a timer's file. */
+    private static final String TIMER_HEADER = "t,count,mean_ns,p50_ns,p90_ns,p99_ns,p999_ns,max_ns,errors,rows";
+
+    /** The header of a gauge's file. */
+    private static final String GAUGE_HEADER = "t,value";
+
+    /** The directory the files are written to. */
+    private final File directory;
+
+    public CsvReporter(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void report(SortedMap<String, Timer> timers, SortedMap<String, Counter> counters,
+                       SortedMap<String, LongSupplier> gauges) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            System.err.println("Cannot create metrics directory: " + directory);
+            return;
+        }
+        long timestamp = System.currentTimeMillis() / 1000;
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            Timer timer = entry.getValue();
+            LatencyHistogram histogram = timer.getHistogram();
+            append(entry.getKey(), TIMER_HEADER, timestamp + "," + histogram.getCount() + ","
+                    + Math.round(histogram.getMean()) + "," + histogram.getPercentile(0.50) + ","
+                    + histogram.getPercentile(0.90) + "," + histogram.getPercentile(0.99) + ","
+                    + histogram.getPercentile(0.999) + "," + histogram.getMax() + "," + timer.getErrors() + ","
+                    + timer.getRows());
+        }
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            append(entry.getKey(), GAUGE_HEADER, timestamp + "," + entry.getValue().getAsLong());
+        }
+    }
+
+    private void append(String name, String header, String row) {
+        File file = new File(directory, name.replaceAll("[^A-Za-z0-9._-]", "_") + ".csv");
+        boolean created = !file.exists();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+            if (created) {
+                writer.println(header);
+            }
+            writer.println(row);
+        } catch (IOException e) {
+            System.err.println("Cannot write metrics file " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.flipfit.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The Class JmxReporter.
+ * Exposes the metrics as MXBeans under com.flipfit.metrics, for jconsole or
+ * any JMX agent. The beans read the metrics live; a report only registers
+ * those added since the last one.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName JmxReporter
+ */
+public class JmxReporter implements MetricsReporter {
+
+    /** The JMX domain of the beans. */
+    public static final String DOMAIN = "com.flipfit.metrics";
+
+    /** The server the beans are registered with. */
+    private final MBeanServer server;
+
+    /** The names of the metrics already registered. */
+    private final Set<String> registered = ConcurrentHashMap.newKeySet();
+
+    public JmxReporter() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxReporter(MBeanServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void report(SortedMap<String, Timer> timers, SortedMap<String, Counter> counters,
+                       SortedMap<String, LongSupplier> gauges) {
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            Timer timer = entry.getValue();
+            register("timers", entry.getKey(), new TimerMXBean() {
+                @Override
+                public long getCount() {
+                    return timer.getHistogram().getCount();
+                }
+
+                @Override
+                public double getMeanMillis() {
+                    return timer.getHistogram().getMean() / 1_000_000.0;
+                }
+
+                @Override
+                public double getP50Millis() {
+                    return timer.getHistogram().getPercentile(0.50) / 1_000_000.0;
+                }
+
+                @Override
+                public double getP99Millis() {
+                    return timer.getHistogram().getPercentile(0.99) / 1_000_000.0;
+                }
+
+                @Override
+                public double getP999Millis() {
+                    return timer.getHistogram().getPercentile(0.999) / 1_000_000.0;
+                }
+
+                @Override
+                public double getMaxMillis() {
+                    return timer.getHistogram().getMax() / 1_000_000.0;
+                }
+
+                @Override
+                public long getErrors() {
+                    return timer.getErrors();
+                }
+
+                @Override
+                public long getRows() {
+                    return timer.getRows();
+                }
+            });
+        }
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            register("counters", entry.getKey(), (CounterMXBean) counter::getCount);
+        }
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            LongSupplier gauge = entry.getValue();
+            register("gauges", entry.getKey(), (GaugeMXBean) gauge::getAsLong);
+        }
+    }
+
+    private void register(String type, String name, Object bean) {
+        if (!registered.add(type + "/" + name)) {
+            return;
+        }
+        try {
+            server.registerMBean(bean, new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name)));
+        } catch (JMException e) {
+            System.err.println("Cannot register metric " + name + " with JMX: " + e.getMessage());
+        }
+    }
+
+    /** A timer as seen over JMX. */
+    public interface TimerMXBean {
+
+        long getCount();
+
+        double getMeanMillis();
+
+        double getP50Millis();
+
+        double getP99Millis();
+
+        double getP999Millis();
+
+        double getMaxMillis();
+
+        long getErrors();
+
+        long getRows();
+    }
+
+    /** A counter as seen over JMX. */
+    public interface CounterMXBean {
+
+        long getCount();
+    }
+
+    /** A gauge as seen over JMX. */
+    public interface GaugeMXBean {
+
+        long getValue();
+    }
+}
@@ -0,0 +1,133 @@
+package com.flipfit.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The Class LatencyHistogram.
+ * Log-linear histogram of nanosecond latencies in the style of HdrHistogram:
+ * every power of two is split into 32 equal buckets, so any recorded value is
+ * known to within about 3% whatever its magnitude, in a fixed 10 KB of counts.
+ * Recording is a bucket index computation and a few uncontended atomic
+ * updates, and nothing is ever allocated or reset.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName LatencyHistogram
+ */
+public class LatencyHistogram {
+
+    /** Buckets per power of two, as a number of bits. */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /** Buckets per power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** The largest power of two tracked; longer latencies (over 9 hours) share the last bucket. */
+    private static final int MAX_EXPONENT = 44;
+
+    /** The number of buckets. */
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    /** The count of values recorded in each bucket. */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    /** The number of values recorded. */
+    private final LongAdder count = new LongAdder();
+
+    /** The sum of the values recorded. */
+    private final LongAdder sum = new LongAdder();
+
+    /** The largest value recorded. */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos the latency in nanoseconds; negative values count as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // another thread raised the maximum; try again against the new one
+        }
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return the mean in nanoseconds, 0 if nothing was recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Gets a percentile, read from the bucket holding it while values are
+     * being recorded, so it is approximate in both value and rank.
+     *
+     * @param quantile the quantile, between 0 and 1
+     * @return the latency in nanoseconds at the middle of the bucket, 0 if nothing was recorded
+     */
+    public long getPercentile(double quantile) {
+        long total = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(midpointOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Values below 32 each have a bucket of their own; above that the leading
+     * bit picks the power of two and the next five bits the bucket within it.
+     */
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * The middle of the range of values counted in a bucket.
+     */
+    static long midpointOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowest + ((1L << shift) >> 1);
+    }
+}
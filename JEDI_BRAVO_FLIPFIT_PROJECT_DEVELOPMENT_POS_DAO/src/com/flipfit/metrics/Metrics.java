@@ -0,0 +1,205 @@
+package com.flipfit.metrics;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The Class Metrics.
+ * Process-wide registry of timers, counters and gauges, and the reporters
+ * publishing them.
+ *
+ * Metrics are looked up by name only when something is instrumented; the
+ * instrumented code then holds on to its Timer, so recording never touches
+ * the registry. The timer of the innermost instrumented call on a thread is
+ * kept as the current operation, which lets the JDBC layer charge rows and
+ * failed statements to the DAO method that ran them.
+ *
+ * Reporters are chosen with system properties, e.g.
+ * -Dflipfit.metrics.reporters=console,csv,jmx -Dflipfit.metrics.period.seconds=60
+ * -Dflipfit.metrics.csv.dir=metrics
+ *
+ * @author JEDI-BRAVO
+ * @ClassName Metrics
+ */
+public class Metrics {
+
+    /** Comma-separated reporters to start: console, csv and/or jmx. */
+    public static final String REPORTERS_PROPERTY = "flipfit.metrics.reporters";
+
+    /** Seconds between reports. */
+    public static final String PERIOD_PROPERTY = "flipfit.metrics.period.seconds";
+
+    /** The directory the CSV reporter writes to. */
+    public static final String CSV_DIR_PROPERTY = "flipfit.metrics.csv.dir";
+
+    /** The timers, by name. */
+    private static final SortedMap<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+
+    /** The counters, by name. */
+    private static final SortedMap<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+
+    /** The gauges, by name. */
+    private static final SortedMap<String, LongSupplier> GAUGES = new ConcurrentSkipListMap<>();
+
+    /** The timer of the innermost instrumented call running on each thread. */
+    private static final ThreadLocal<Timer> CURRENT = new ThreadLocal<>();
+
+    /** Runs the reporters, started with the first one. */
+    private static ScheduledExecutorService scheduler;
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private Metrics() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Gets or creates a timer, with its errors and rows counters.
+     *
+     * @param name the operation name, e.g. GymCustomerDAOImpl.bookSlotTransactional
+     * @return the timer
+     */
+    public static Timer timer(String name) {
+        Timer timer = TIMERS.get(name);
+        if (timer == null) {
+            synchronized (TIMERS) {
+                timer = TIMERS.get(name);
+                if (timer == null) {
+                    timer = new Timer(counter(name + ".errors"), counter(name + ".rows"));
+                    TIMERS.put(name, timer);
+                }
+            }
+        }
+        return timer;
+    }
+
+    /**
+     * Gets or creates a counter.
+     *
+     * @param name the counter name
+     * @return the counter
+     */
+    public static Counter counter(String name) {
+        return ((ConcurrentSkipListMap<String, Counter>) COUNTERS).computeIfAbsent(name, k -> new Counter());
+    }
+
+    /**
+     * Registers a gauge, read each time a reporter runs. A gauge already
+     * registered under the name is kept.
+     *
+     * @param name the gauge name
+     * @param value reads the current value
+     */
+    public static void gauge(String name, LongSupplier value) {
+        ((ConcurrentSkipListMap<String, LongSupplier>) GAUGES).putIfAbsent(name, value);
+    }
+
+    /**
+     * Makes a timer the current operation of this thread.
+     *
+     * @param timer the timer of the call starting
+     * @return the previous current operation, to hand back to exit
+     */
+    static Timer enter(Timer timer) {
+        Timer previous = CURRENT.get();
+        CURRENT.set(timer);
+        return previous;
+    }
+
+    /**
+     * Restores the current operation once a call is done.
+     *
+     * @param previous what enter returned
+     */
+    static void exit(Timer previous) {
+        CURRENT.set(previous);
+    }
+
+    /**
+     * Adds rows changed by a statement to the current operation, if any.
+     *
+     * @param rows the update count
+     */
+    public static void recordRows(long rows) {
+        Timer current = CURRENT.get();
+        if (current != null && rows > 0) {
+            current.recordRows(rows);
+        }
+    }
+
+    /**
+     * Counts a failed statement against the current operation, if any.
+     */
+    public static void recordError() {
+        Timer current = CURRENT.get();
+        if (current != null) {
+            current.recordError();
+        }
+    }
+
+    /**
+     * Hands the registered metrics to a reporter once.
+     *
+     * @param reporter the reporter
+     */
+    public static void report(MetricsReporter reporter) {
+        reporter.report(Collections.unmodifiableSortedMap(TIMERS), Collections.unmodifiableSortedMap(COUNTERS),
+                Collections.unmodifiableSortedMap(GAUGES));
+    }
+
+    /**
+     * Runs a reporter now and then every period, on a daemon thread.
+     *
+     * @param reporter the reporter
+     * @param periodSeconds seconds between reports
+     */
+    public static synchronized void startReporting(MetricsReporter reporter, long periodSeconds) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "flipfit-metrics");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                report(reporter);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }, 0, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts the reporters named in the flipfit.metrics.reporters property, if any.
+     */
+    public static void startConfiguredReporters() {
+        String reporters = System.getProperty(REPORTERS_PROPERTY, "").trim();
+        if (reporters.isEmpty()) {
+            return;
+        }
+        long period = Long.getLong(PERIOD_PROPERTY, 60);
+        for (String name : reporters.split(",")) {
+            switch (name.trim().toLowerCase()) {
+                case "console":
+                    startReporting(new ConsoleReporter(System.out), period);
+                    break;
+                case "csv":
+                    startReporting(new CsvReporter(new File(System.getProperty(CSV_DIR_PROPERTY, "metrics"))), period);
+                    break;
+                case "jmx":
+                    startReporting(new JmxReporter(), period);
+                    break;
+                default:
+                    System.err.println("Unknown metrics reporter: " + name);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.flipfit.metrics;
+
+import java.util.SortedMap;
+import java.util.function.LongSupplier;
+
+/**
+ * The Interface MetricsReporter.
+ * Publishes the registered metrics somewhere; called by Metrics on a schedule.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName MetricsReporter
+ */
+public interface MetricsReporter {
+
+    /**
+     * Publishes the metrics as they are now.
+     *
+     * @param timers the timers, by name
+     * @param counters the counters, by name, including the errors and rows counters of the timers
+     * @param gauges the gauges, by name
+     */
+    void report(SortedMap<String, Timer> timers, SortedMap<String, Counter> counters,
+                SortedMap<String, LongSupplier> gauges);
+}
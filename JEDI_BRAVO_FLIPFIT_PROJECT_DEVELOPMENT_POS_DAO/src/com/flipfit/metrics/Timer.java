@@ -0,0 +1,56 @@
+package com.flipfit.metrics;
+
+/**
+ * The Class Timer.
+ * Latencies of one operation, usually a DAO or service method, together with
+ * the errors it ran into and the rows its statements changed. The counters are
+ * also registered on their own, as {name}.errors and {name}.rows.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName Timer
+ */
+public class Timer {
+
+    /** The latencies. */
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /** Exceptions thrown out of the operation and failed statements it ran. */
+    private final Counter errors;
+
+    /** Rows inserted, updated or deleted by the operation's statements. */
+    private final Counter rows;
+
+    Timer(Counter errors, Counter rows) {
+        this.errors = errors;
+        this.rows = rows;
+    }
+
+    /**
+     * Records one run of the operation.
+     *
+     * @param nanos how long it took
+     */
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public void recordRows(long count) {
+        rows.add(count);
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+
+    public long getErrors() {
+        return errors.getCount();
+    }
+
+    public long getRows() {
+        return rows.getCount();
+    }
+}
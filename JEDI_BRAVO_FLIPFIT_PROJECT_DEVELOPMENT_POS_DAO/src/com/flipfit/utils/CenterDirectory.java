@@ -0,0 +1,309 @@
+package com.flipfit.utils;
+
+import com.flipfit.bean.GymCenter;
+import com.flipfit.constants.DatabaseConstants;
+import com.flipfit.dao.GymCustomerDAO;
+import com.flipfit.dao.impl.GymCustomerDAOImpl;
+import com.flipfit.metrics.Instrumented;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * The Class CenterDirectory.
+ * In-memory index of the approved gym centers by normalized city, serving the
+ * customer's city search without a query.
+ *
+ * City names are normalized before indexing: accents, case, surrounding
+ * spaces and separators are ignored. The index is sorted, so a search falls
+ * back from the exact city to every city starting with the text, and then to
+ * city names one or two edits away.
+ *
+ * The directory loads every approved center on first use. A background
+ * thread then reloads them every CENTER_DIRECTORY_REFRESH_MS, which picks up
+ * changes made by other processes; searches keep reading the previous maps
+ * until the new ones replace them. Approvals and rejections made through
+ * AdminServiceImpl update it straight away.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName CenterDirectory
+ */
+public class CenterDirectory {
+
+    /** The shared instance. */
+    private static final CenterDirectory INSTANCE = new CenterDirectory(
+            Instrumented.wrap(GymCustomerDAO.class, new GymCustomerDAOImpl()));
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s\\-_.,]+");
+
+    /** The DAO loading the approved centers. */
+    private final GymCustomerDAO customerDAO;
+
+    /** The approved centers by ID; replaced as a whole on reload. */
+    private volatile Map<String, GymCenter> byId = new ConcurrentHashMap<>();
+
+    /** The approved centers by normalized city, then by ID; replaced together with byId. */
+    private volatile ConcurrentSkipListMap<String, NavigableMap<String, GymCenter>> byCity = new ConcurrentSkipListMap<>();
+
+    /** The time of the last full load, 0 before the first one. */
+    private volatile long loadedAtMillis;
+
+    /**
+     * Serialises changes and reloads. A ReentrantLock rather than synchronized,
+     * so a thread waiting on a reload's query does not pin a virtual thread.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** The background reloader, started on first use. */
+    private volatile ScheduledExecutorService refresher;
+
+    /**
+     * Instantiates a new center directory.
+     *
+     * @param customerDAO the DAO to load approved centers with
+     */
+    public CenterDirectory(GymCustomerDAO customerDAO) {
+        this.customerDAO = customerDAO;
+    }
+
+    /**
+     * Gets the shared instance.
+     *
+     * @return the shared center directory
+     */
+    public static CenterDirectory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds or replaces an approved center.
+     *
+     * @param center the center
+     */
+    public void add(GymCenter center) {
+        if (center == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            remove(center.getCenterId());
+            index(byId, byCity, center);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a center, e.g. once it is rejected.
+     *
+     * @param centerId the center ID
+     */
+    public void remove(String centerId) {
+        lock.lock();
+        try {
+            GymCenter previous = byId.remove(centerId);
+            if (previous == null) {
+                return;
+            }
+            String key = normalizeCity(previous.getCenterCity());
+            NavigableMap<String, GymCenter> centers = byCity.get(key);
+            if (centers != null && centers.remove(centerId) != null && centers.isEmpty()) {
+                byCity.remove(key);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Finds the approved centers in exactly this city, after normalization.
+     *
+     * @param city the city
+     * @return the centers, ordered by ID
+     */
+    public List<GymCenter> findByCity(String city) {
+        ensureLoaded();
+        NavigableMap<String, GymCenter> centers = byCity.get(normalizeCity(city));
+        return centers == null ? new ArrayList<>() : new ArrayList<>(centers.values());
+    }
+
+    /**
+     * Finds the approved centers for a city as typed by a customer: the exact
+     * city if it has any, else every city starting with the text, else the
+     * closest city names within one edit (two for names of eight or more letters).
+     *
+     * @param query the city typed by the customer
+     * @return the matching centers
+     */
+    public List<GymCenter> search(String query) {
+        ensureLoaded();
+        String key = normalizeCity(query);
+        if (key.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ConcurrentSkipListMap<String, NavigableMap<String, GymCenter>> cities = byCity;
+        NavigableMap<String, GymCenter> exact = cities.get(key);
+        if (exact != null) {
+            return new ArrayList<>(exact.values());
+        }
+
+        List<GymCenter> matches = new ArrayList<>();
+        for (NavigableMap<String, GymCenter> centers : cities.subMap(key, true, key + Character.MAX_VALUE, true).values()) {
+            matches.addAll(centers.values());
+        }
+        if (!matches.isEmpty()) {
+            return matches;
+        }
+
+        int maxDistance = key.length() >= 8 ? 2 : key.length() >= 4 ? 1 : 0;
+        int best = maxDistance + 1;
+        for (Map.Entry<String, NavigableMap<String, GymCenter>> city : cities.entrySet()) {
+            int distance = editDistance(key, city.getKey(), maxDistance);
+            if (distance > maxDistance) {
+                continue;
+            }
+            if (distance < best) {
+                best = distance;
+                matches.clear();
+            }
+            if (distance == best) {
+                matches.addAll(city.getValue().values());
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Reloads every approved center from the database. Searches are not
+     * blocked: they read the previous maps until the new ones are published.
+     */
+    public void reload() {
+        lock.lock();
+        try {
+            List<GymCenter> approved = customerDAO.fetchApprovedGymCenters();
+            if (approved == null) {
+                // Keep serving the last load; with none yet, the next search tries again
+                return;
+            }
+            Map<String, GymCenter> freshById = new ConcurrentHashMap<>();
+            ConcurrentSkipListMap<String, NavigableMap<String, GymCenter>> freshByCity = new ConcurrentSkipListMap<>();
+            for (GymCenter center : approved) {
+                index(freshById, freshByCity, center);
+            }
+            byId = freshById;
+            byCity = freshByCity;
+            loadedAtMillis = System.currentTimeMillis();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops the background reloader.
+     */
+    public synchronized void shutdown() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    /**
+     * Normalizes a city name for indexing and lookup.
+     *
+     * @param city the city name
+     * @return the lower-case name without accents and with single spaces
+     */
+    public static String normalizeCity(String city) {
+        if (city == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(city, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static void index(Map<String, GymCenter> ids,
+            ConcurrentSkipListMap<String, NavigableMap<String, GymCenter>> cities, GymCenter center) {
+        ids.put(center.getCenterId(), center);
+        cities.computeIfAbsent(normalizeCity(center.getCenterCity()), key -> new ConcurrentSkipListMap<>())
+                .put(center.getCenterId(), center);
+    }
+
+    // Only the first search waits for a load; later reloads run on the refresher
+    private void ensureLoaded() {
+        if (loadedAtMillis == 0) {
+            lock.lock();
+            try {
+                if (loadedAtMillis == 0) {
+                    reload();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (refresher == null) {
+            startRefresher();
+        }
+    }
+
+    private synchronized void startRefresher() {
+        if (refresher == null) {
+            refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "flipfit-center-directory-refresher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = DatabaseConstants.CENTER_DIRECTORY_REFRESH_MS;
+            refresher.scheduleWithFixedDelay(() -> {
+                try {
+                    reload();
+                } catch (RuntimeException e) {
+                    // A task that throws is never run again; keep serving the last load and retry next time
+                    System.err.println("Center directory reload failed: " + e.getMessage());
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Levenshtein distance, or max + 1 as soon as it must exceed max.
+     */
+    private static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+}
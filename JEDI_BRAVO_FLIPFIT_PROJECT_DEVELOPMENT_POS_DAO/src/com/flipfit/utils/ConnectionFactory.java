@@ -0,0 +1,23 @@
+package com.flipfit.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The Interface ConnectionFactory.
+ * Opens physical database connections on behalf of the connection pool
+ *
+ * @author JEDI-BRAVO
+ * @ClassName ConnectionFactory
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+
+    /**
+     * Opens a new physical connection.
+     *
+     * @return the connection object
+     * @throws SQLException if connection fails
+     */
+    Connection createConnection() throws SQLException;
+}
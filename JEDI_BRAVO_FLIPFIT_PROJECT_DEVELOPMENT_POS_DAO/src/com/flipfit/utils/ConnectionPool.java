@@ -0,0 +1,444 @@
+package com.flipfit.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.flipfit.metrics.Metrics;
+
+/**
+ * The Class ConnectionPool.
+ * Bounded pool of physical JDBC connections. Borrowed connections are handed out
+ * as proxies whose close() returns the physical connection to the pool, so DAO
+ * code keeps using plain try-with-resources.
+ *
+ * Idle connections are validated on borrow, evicted after sitting idle for too
+ * long, and connections held longer than the leak detection threshold are
+ * reported together with the stack trace of the code that borrowed them.
+ *
+ * Each physical connection keeps a StatementCache, so prepareStatement(sql)
+ * on a pooled connection reuses the statement prepared for the same SQL by an
+ * earlier borrower instead of preparing it again.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName ConnectionPool
+ */
+public class ConnectionPool {
+
+    /** The factory opening physical connections. */
+    private final ConnectionFactory factory;
+
+    /** The maximum number of physical connections. */
+    private final int maxSize;
+
+    /** The number of idle connections kept when evicting. */
+    private final int minIdle;
+
+    /** How long a borrower waits for a free connection. */
+    private final long borrowTimeoutMs;
+
+    /** The timeout passed to Connection.isValid on borrow. */
+    private final int validationTimeoutSeconds;
+
+    /** Connections returned more recently than this are not re-validated. */
+    private final long validationIntervalMs;
+
+    /** Idle time after which a connection is closed. */
+    private final long idleTimeoutMs;
+
+    /** Hold time after which a borrowed connection is reported as leaked, 0 to disable. */
+    private final long leakDetectionThresholdMs;
+
+    /** The number of prepared statements cached per connection, 0 to disable. */
+    private final int statementCacheSize;
+
+    /** The idle connections, most recently returned first. */
+    private final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+
+    /** The connections currently borrowed. */
+    private final Set<ConnectionLease> leases = ConcurrentHashMap.newKeySet();
+
+    /** Permits bounding the number of borrowed connections. */
+    private final Semaphore permits;
+
+    /** The background eviction and leak detection task. */
+    private final ScheduledExecutorService housekeeper;
+
+    /** Whether the pool has been shut down. */
+    private volatile boolean shutdown;
+
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong destroyedCount = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong borrowTimeoutCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final AtomicLong statementCacheEvictions = new AtomicLong();
+    private final AtomicLong statementCacheBypasses = new AtomicLong();
+
+    /**
+     * Instantiates a new connection pool.
+     *
+     * @param factory the factory opening physical connections
+     * @param maxSize the maximum number of physical connections
+     * @param minIdle the number of idle connections kept when evicting
+     * @param borrowTimeoutMs how long a borrower waits for a free connection
+     * @param validationTimeoutSeconds the timeout passed to Connection.isValid
+     * @param validationIntervalMs connections returned more recently than this are not re-validated
+     * @param idleTimeoutMs idle time after which a connection is closed
+     * @param evictionIntervalMs how often idle eviction and leak detection run
+     * @param leakDetectionThresholdMs hold time after which a connection is reported as leaked, 0 to disable
+     * @param statementCacheSize the number of prepared statements cached per connection, 0 to disable
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, int minIdle, long borrowTimeoutMs,
+                          int validationTimeoutSeconds, long validationIntervalMs, long idleTimeoutMs,
+                          long evictionIntervalMs, long leakDetectionThresholdMs, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.validationIntervalMs = validationIntervalMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "flipfit-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, evictionIntervalMs, evictionIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if no idle connection is available.
+     * Closing the returned connection hands it back to the pool.
+     *
+     * @return the pooled connection
+     * @throws SQLException if no connection becomes available in time or connecting fails
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+
+        long waitStart = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (!acquired) {
+            borrowTimeoutCount.incrementAndGet();
+            throw new SQLException("Timed out after " + borrowTimeoutMs
+                    + " ms waiting for a database connection (pool size " + maxSize + ")");
+        }
+        totalWaitNanos.addAndGet(System.nanoTime() - waitStart);
+
+        try {
+            PooledConnection pooled = takeIdleConnection();
+            if (pooled == null) {
+                pooled = open();
+                createdCount.incrementAndGet();
+            }
+            ConnectionLease lease = new ConnectionLease(pooled, leakDetectionThresholdMs > 0);
+            leases.add(lease);
+            borrowCount.incrementAndGet();
+            return lease.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeping task. Connections
+     * still borrowed are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Gets the number of connections currently borrowed.
+     *
+     * @return the active connection count
+     */
+    public int getActiveConnections() {
+        return leases.size();
+    }
+
+    /**
+     * Gets the number of idle connections.
+     *
+     * @return the idle connection count
+     */
+    public int getIdleConnections() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Gets the maximum pool size.
+     *
+     * @return the maximum pool size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets a snapshot of the pool metrics.
+     *
+     * @return Map containing the pool metrics
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        long borrows = borrowCount.get();
+        stats.put("active_connections", (long) getActiveConnections());
+        stats.put("idle_connections", (long) getIdleConnections());
+        stats.put("max_connections", (long) maxSize);
+        stats.put("connections_created", createdCount.get());
+        stats.put("connections_destroyed", destroyedCount.get());
+        stats.put("connections_evicted", evictedCount.get());
+        stats.put("borrows", borrows);
+        stats.put("borrow_timeouts", borrowTimeoutCount.get());
+        stats.put("validation_failures", validationFailureCount.get());
+        stats.put("leaks_detected", leakCount.get());
+        stats.put("average_wait_micros", borrows == 0 ? 0 : totalWaitNanos.get() / borrows / 1000);
+        stats.put("statement_cache_hits", statementCacheHits.get());
+        stats.put("statement_cache_misses", statementCacheMisses.get());
+        stats.put("statement_cache_evictions", statementCacheEvictions.get());
+        stats.put("statement_cache_bypasses", statementCacheBypasses.get());
+        return stats;
+    }
+
+    /**
+     * Opens a new physical connection with its own statement cache.
+     */
+    private PooledConnection open() throws SQLException {
+        Connection physical = factory.createConnection();
+        StatementCache statementCache = statementCacheSize > 0
+                ? new StatementCache(physical, statementCacheSize, statementCacheHits, statementCacheMisses,
+                        statementCacheEvictions, statementCacheBypasses)
+                : null;
+        return new PooledConnection(physical, statementCache);
+    }
+
+    /**
+     * Takes the most recently used idle connection that passes validation.
+     */
+    private PooledConnection takeIdleConnection() {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            validationFailureCount.incrementAndGet();
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    /**
+     * Validates an idle connection unless it was returned only moments ago.
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastReturnedAt < validationIntervalMs) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a borrowed connection to the pool, resetting any open transaction.
+     */
+    private void release(ConnectionLease lease) {
+        if (!leases.remove(lease)) {
+            return;
+        }
+        PooledConnection pooled = lease.pooled;
+        try {
+            if (pooled.statementCache != null) {
+                pooled.statementCache.release();
+            }
+            if (shutdown || pooled.broken || pooled.physical.isClosed()) {
+                destroy(pooled);
+                return;
+            }
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            idleConnections.offerFirst(pooled);
+        } catch (SQLException e) {
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes a physical connection.
+     */
+    private void destroy(PooledConnection pooled) {
+        destroyedCount.incrementAndGet();
+        try {
+            if (pooled.statementCache != null) {
+                pooled.statementCache.clear();
+            }
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Evicts connections idle for longer than the idle timeout and reports leaked connections.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        Iterator<PooledConnection> oldestFirst = idleConnections.descendingIterator();
+        while (oldestFirst.hasNext() && idleConnections.size() > minIdle) {
+            PooledConnection pooled = oldestFirst.next();
+            if (now - pooled.lastReturnedAt >= idleTimeoutMs && idleConnections.remove(pooled)) {
+                evictedCount.incrementAndGet();
+                destroy(pooled);
+            }
+        }
+
+        if (leakDetectionThresholdMs > 0) {
+            for (ConnectionLease lease : leases) {
+                long heldMs = now - lease.borrowedAt;
+                if (!lease.leakReported && heldMs > leakDetectionThresholdMs) {
+                    lease.leakReported = true;
+                    leakCount.incrementAndGet();
+                    System.err.println("Possible connection leak: connection held for " + heldMs + " ms");
+                    lease.borrowSite.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private static final class PooledConnection {
+
+        private final Connection physical;
+        private final StatementCache statementCache;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile boolean broken;
+
+        private PooledConnection(Connection physical, StatementCache statementCache) {
+            this.physical = physical;
+            this.statementCache = statementCache;
+        }
+    }
+
+    /**
+     * A single borrow of a pooled connection. Each borrow gets its own proxy so a
+     * stale reference closed twice cannot return the connection to the pool again.
+     */
+    private final class ConnectionLease implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private final Connection proxy;
+        private final long borrowedAt = System.currentTimeMillis();
+        private final Exception borrowSite;
+        private volatile boolean closed;
+        private volatile boolean leakReported;
+
+        private ConnectionLease(PooledConnection pooled, boolean recordBorrowSite) {
+            this.pooled = pooled;
+            this.borrowSite = recordBorrowSite ? new Exception("Connection borrowed here") : null;
+            this.proxy = (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, this);
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return target == args[0];
+                case "hashCode":
+                    return System.identityHashCode(target);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                if (pooled.statementCache != null && "prepareStatement".equals(method.getName())
+                        && args.length == 1) {
+                    return pooled.statementCache.prepare((String) args[0], proxy);
+                }
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw markIfBroken(e.getCause());
+            } catch (SQLException e) {
+                throw markIfBroken(e);
+            }
+        }
+
+        /**
+         * SQLState class 08 signals a broken connection; never hand it out again.
+         */
+        private Throwable markIfBroken(Throwable cause) {
+            if (cause instanceof SQLException) {
+                Metrics.recordError();
+                String sqlState = ((SQLException) cause).getSQLState();
+                if (sqlState != null && sqlState.startsWith("08")) {
+                    pooled.broken = true;
+                }
+            }
+            return cause;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.flipfit.utils;
 
+import com.flipfit.constants.DatabaseConstants;
+import com.flipfit.metrics.Metrics;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 // TODO: Auto-generated Javadoc
@@ -9,30 +11,27 @@ import java.sql.SQLException;
  * The Class DBConnection.
  * Utility class for managing database connections
  *
+ * Connections are borrowed from a shared ConnectionPool; closing a connection
+ * returns it to the pool. The pool can be replaced with setConnectionPool, and
+ * the connection details can be overridden through the flipfit.db.* system
+ * properties listed in DatabaseConstants. The pool's statistics are published
+ * as pool.* gauges, which follow the pool when it is replaced.
+ *
  * @author JEDI-BRAVO
  * @ClassName DBConnection
  */
 public class DBConnection {
-    
-    /** The database URL. */
-    private static final String DB_URL = "jdbc:mysql://localhost:3306/Flipfit_schema";
-    
-    /** The database user. */
-    private static final String DB_USER = "root";
-    
-    /** The database password. */
-    private static final String DB_PASSWORD = "";
-    
-    /** The database driver. */
-    private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
-    
+
+    /** The shared connection pool. */
+    private static volatile ConnectionPool pool;
+
     /**
      * Private constructor to prevent instantiation.
      */
     private DBConnection() {
         throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
     }
-    
+
     /**
      * Gets the database connection.
      *
@@ -40,14 +39,56 @@ public class DBConnection {
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
-        try {
-            Class.forName(DB_DRIVER);
-            return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
+        return getConnectionPool().getConnection();
+    }
+
+    /**
+     * Gets the shared connection pool, creating it on first use.
+     *
+     * @return the connection pool
+     * @throws SQLException if the JDBC driver cannot be loaded
+     */
+    public static ConnectionPool getConnectionPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DBConnection.class) {
+                current = pool;
+                if (current == null) {
+                    current = createDefaultPool();
+                    pool = current;
+                    registerGauges(current);
+                }
+            }
         }
+        return current;
     }
-    
+
+    /**
+     * Replaces the shared connection pool, shutting down the previous one.
+     *
+     * @param connectionPool the new connection pool
+     */
+    public static synchronized void setConnectionPool(ConnectionPool connectionPool) {
+        ConnectionPool previous = pool;
+        pool = connectionPool;
+        if (connectionPool != null) {
+            registerGauges(connectionPool);
+        }
+        if (previous != null && previous != connectionPool) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Shuts down the shared connection pool.
+     */
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
     /**
      * Close connection.
      *
@@ -62,4 +103,40 @@ public class DBConnection {
             }
         }
     }
+
+    /**
+     * Registers a gauge for each pool statistic, reading whichever pool is current.
+     */
+    private static void registerGauges(ConnectionPool connectionPool) {
+        for (String statistic : connectionPool.getStatistics().keySet()) {
+            Metrics.gauge("pool." + statistic, () -> {
+                ConnectionPool current = pool;
+                return current == null ? 0 : current.getStatistics().get(statistic);
+            });
+        }
+    }
+
+    /**
+     * Creates the default pool from DatabaseConstants and the flipfit.db.* system properties.
+     */
+    private static ConnectionPool createDefaultPool() throws SQLException {
+        ConnectionFactory factory = new DriverManagerConnectionFactory(
+            System.getProperty(DatabaseConstants.DB_DRIVER_PROPERTY, DatabaseConstants.DB_DRIVER),
+            System.getProperty(DatabaseConstants.DB_URL_PROPERTY, DatabaseConstants.DB_URL),
+            System.getProperty(DatabaseConstants.DB_USER_PROPERTY, DatabaseConstants.DB_USER),
+            System.getProperty(DatabaseConstants.DB_PASSWORD_PROPERTY, DatabaseConstants.DB_PASSWORD)
+        );
+        return new ConnectionPool(
+            factory,
+            DatabaseConstants.POOL_MAX_SIZE,
+            DatabaseConstants.POOL_MIN_IDLE,
+            DatabaseConstants.POOL_BORROW_TIMEOUT_MS,
+            DatabaseConstants.POOL_VALIDATION_TIMEOUT_SECONDS,
+            DatabaseConstants.POOL_VALIDATION_INTERVAL_MS,
+            DatabaseConstants.POOL_IDLE_TIMEOUT_MS,
+            DatabaseConstants.POOL_EVICTION_INTERVAL_MS,
+            DatabaseConstants.POOL_LEAK_DETECTION_THRESHOLD_MS,
+            DatabaseConstants.POOL_STATEMENT_CACHE_SIZE
+        );
+    }
 }
@@ -0,0 +1,62 @@
+package com.flipfit.utils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * The Class DriverManagerConnectionFactory.
+ * Opens physical connections through DriverManager. The JDBC driver class is
+ * loaded once when the factory is created rather than on every connection.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName DriverManagerConnectionFactory
+ */
+public class DriverManagerConnectionFactory implements ConnectionFactory {
+
+    /** The JDBC URL. */
+    private final String url;
+
+    /** The database user. */
+    private final String user;
+
+    /** The database password. */
+    private final String password;
+
+    /**
+     * Instantiates a new driver manager connection factory.
+     *
+     * @param driverClass the JDBC driver class name, or null to rely on driver auto-registration
+     * @param url the JDBC URL
+     * @param user the database user
+     * @param password the database password
+     * @throws SQLException if the driver class cannot be loaded
+     */
+    public DriverManagerConnectionFactory(String driverClass, String url, String user, String password)
+            throws SQLException {
+        if (driverClass != null && !driverClass.isEmpty()) {
+            try {
+                Class.forName(driverClass);
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("JDBC Driver not found: " + driverClass, e);
+            }
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    @Override
+    public Connection createConnection() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    /**
+     * Gets the JDBC URL.
+     *
+     * @return the JDBC URL
+     */
+    public String getUrl() {
+        return url;
+    }
+}
@@ -0,0 +1,217 @@
+package com.flipfit.utils;
+
+import com.flipfit.constants.DatabaseConstants;
+import com.flipfit.dao.GymUserDAO;
+import com.flipfit.dao.impl.CachingGymUserDAO;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The Class EmailIndex.
+ * Bloom filter over every registered email, so checking a new email during
+ * registration needs no query.
+ *
+ * The filter is warmed once by streaming the emails from the User table, and
+ * registrations add to it afterwards. An email the filter has never seen is
+ * new for certain; only a filter hit is confirmed with the emailExists query.
+ * Until warming succeeds every check goes to the database.
+ *
+ * Emails registered by another process are not in the filter. Such a clash
+ * passes the check and is then rejected by the UNIQUE constraint on
+ * User.email, so the filter only saves queries and never decides uniqueness
+ * on its own. It cannot forget emails: a deleted user's email stays a filter
+ * hit and is settled by the query.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName EmailIndex
+ */
+public class EmailIndex {
+
+    /** The shared instance, checked against the cached user DAO. */
+    private static final EmailIndex INSTANCE = new EmailIndex(CachingGymUserDAO.getInstance(),
+            DatabaseConstants.EMAIL_INDEX_EXPECTED_EMAILS, DatabaseConstants.EMAIL_INDEX_FALSE_POSITIVE_RATE);
+
+    /** The DAO confirming filter hits and supplying the warm-up emails. */
+    private final GymUserDAO userDAO;
+
+    /** The filter bits. */
+    private final AtomicLongArray bits;
+
+    /** The number of filter bits. */
+    private final long bitCount;
+
+    /** The number of bits set per email. */
+    private final int hashCount;
+
+    /** Whether the filter holds every email in the database. */
+    private volatile boolean warm;
+
+    private final AtomicLong lookupCount = new AtomicLong();
+    private final AtomicLong filterNegativeCount = new AtomicLong();
+    private final AtomicLong falsePositiveCount = new AtomicLong();
+
+    /**
+     * Instantiates a new email index.
+     *
+     * @param userDAO the DAO to confirm hits and load emails with
+     * @param expectedEmails how many emails the filter is sized for
+     * @param falsePositiveRate the target share of new emails that still need a query, e.g. 0.01
+     */
+    public EmailIndex(GymUserDAO userDAO, int expectedEmails, double falsePositiveRate) {
+        if (expectedEmails <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected emails must be positive and the rate between 0 and 1");
+        }
+        this.userDAO = userDAO;
+        long optimalBits = (long) Math.ceil(-expectedEmails * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = words * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedEmails * Math.log(2)));
+    }
+
+    /**
+     * Gets the shared instance.
+     *
+     * @return the shared email index
+     */
+    public static EmailIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Loads every registered email into the filter, if not done yet.
+     *
+     * @return true if the filter is warm
+     */
+    public synchronized boolean warmUp() {
+        if (!warm) {
+            int loaded = userDAO.streamAllEmails(this::add);
+            warm = loaded >= 0;
+        }
+        return warm;
+    }
+
+    /**
+     * Checks whether an email is registered.
+     *
+     * @param email the email to check
+     * @return true if a user already has the email
+     */
+    public boolean exists(String email) {
+        if (email == null) {
+            return false;
+        }
+        lookupCount.incrementAndGet();
+        if (!warm && !warmUp()) {
+            return userDAO.emailExists(email);
+        }
+        if (!mightContain(normalize(email))) {
+            filterNegativeCount.incrementAndGet();
+            return false;
+        }
+        boolean exists = userDAO.emailExists(email);
+        if (!exists) {
+            falsePositiveCount.incrementAndGet();
+        }
+        return exists;
+    }
+
+    /**
+     * Records a newly registered email.
+     *
+     * @param email the email
+     */
+    public void add(String email) {
+        if (email == null) {
+            return;
+        }
+        long hash = hash(normalize(email));
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                // retry until this bit is set
+            }
+        }
+    }
+
+    /**
+     * Checks whether the filter is warm.
+     *
+     * @return true once every email in the database has been loaded
+     */
+    public boolean isWarm() {
+        return warm;
+    }
+
+    /**
+     * Gets the lookup count.
+     *
+     * @return the number of emails checked
+     */
+    public long getLookupCount() {
+        return lookupCount.get();
+    }
+
+    /**
+     * Gets the filter negative count.
+     *
+     * @return the number of checks answered without a query
+     */
+    public long getFilterNegativeCount() {
+        return filterNegativeCount.get();
+    }
+
+    /**
+     * Gets the false positive count.
+     *
+     * @return the number of filter hits the query found to be new emails
+     */
+    public long getFalsePositiveCount() {
+        return falsePositiveCount.get();
+    }
+
+    private boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Emails compare case-insensitively, as with MySQL's default collation.
+     */
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer
+     * so both 32-bit halves are usable as independent hashes.
+     */
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,113 @@
+package com.flipfit.utils;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The Class KeysetCursor.
+ * Iterates over a table page by page, each page starting after the last key
+ * of the previous one (WHERE key > ? ORDER BY key LIMIT ?). Only one page is
+ * held at a time and no connection is kept open between pages, so a table of
+ * any size is read in constant memory without a long-running transaction.
+ *
+ * Rows inserted behind the cursor are skipped and rows inserted ahead of it
+ * are read, as with any keyset scan.
+ *
+ * @param <T> the row type
+ * @author JEDI-BRAVO
+ * @ClassName KeysetCursor
+ */
+public class KeysetCursor<T> implements Iterator<T> {
+
+    /** Loads up to limit rows after a key, or all from the start when the key is null; returns null on failure. */
+    private final BiFunction<String, Integer, List<T>> pageLoader;
+
+    /** Extracts the key of a row. */
+    private final Function<T, String> keyOf;
+
+    /** The number of rows per page. */
+    private final int pageSize;
+
+    /** The current page and the position in it. */
+    private List<T> page;
+    private int position;
+
+    /** The key of the last row returned. */
+    private String lastKey;
+
+    /** Whether the last page has been loaded. */
+    private boolean exhausted;
+
+    /**
+     * Instantiates a new keyset cursor.
+     *
+     * @param pageLoader loads up to limit rows after a key, null meaning from the start; returns null on failure
+     * @param keyOf extracts the ordering key of a row
+     * @param pageSize the number of rows per page
+     */
+    public KeysetCursor(BiFunction<String, Integer, List<T>> pageLoader, Function<T, String> keyOf, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.pageLoader = pageLoader;
+        this.keyOf = keyOf;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Creates a sequential stream over a keyset cursor.
+     *
+     * @param <T> the row type
+     * @param pageLoader loads up to limit rows after a key, null meaning from the start; returns null on failure
+     * @param keyOf extracts the ordering key of a row
+     * @param pageSize the number of rows per page
+     * @return the lazily paged stream
+     */
+    public static <T> Stream<T> stream(BiFunction<String, Integer, List<T>> pageLoader, Function<T, String> keyOf,
+            int pageSize) {
+        KeysetCursor<T> cursor = new KeysetCursor<>(pageLoader, keyOf, pageSize);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Checks whether another row is available, loading the next page if needed.
+     *
+     * @return true if another row is available
+     * @throws IllegalStateException if a page could not be loaded
+     */
+    @Override
+    public boolean hasNext() {
+        if (page != null && position < page.size()) {
+            return true;
+        }
+        if (exhausted) {
+            return false;
+        }
+        List<T> next = pageLoader.apply(lastKey, pageSize);
+        if (next == null) {
+            throw new IllegalStateException("Could not load the page after key " + lastKey);
+        }
+        page = next;
+        position = 0;
+        exhausted = next.size() < pageSize;
+        return !next.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T row = page.get(position++);
+        lastKey = keyOf.apply(row);
+        return row;
+    }
+}
@@ -0,0 +1,308 @@
+package com.flipfit.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.flipfit.metrics.Metrics;
+
+/**
+ * The Class StatementCache.
+ * LRU cache of prepared statements for one pooled physical connection, keyed by
+ * the SQL text (in practice the SQLConstants strings). Statements handed out are
+ * proxies whose close() clears the parameters and returns the statement to the
+ * cache, so each query is prepared once per connection. When the connection goes
+ * back to the pool, statements its borrower left open are closed the way closing
+ * a JDBC connection closes its statements, so a forgotten close() cannot keep a
+ * cached statement in use for the rest of the connection's life.
+ *
+ * A cache is only ever used by the thread currently holding its connection, so
+ * it needs no locking of its own.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName StatementCache
+ */
+public class StatementCache {
+
+    /** The physical connection the statements belong to. */
+    private final Connection physical;
+
+    /** The maximum number of cached statements. */
+    private final int maxSize;
+
+    /** The pool-wide hit counter. */
+    private final AtomicLong hits;
+
+    /** The pool-wide miss counter. */
+    private final AtomicLong misses;
+
+    /** The pool-wide eviction counter. */
+    private final AtomicLong evictions;
+
+    /** The pool-wide counter of misses caused by the cached statement being in use. */
+    private final AtomicLong bypasses;
+
+    /** The cached statements in access order, least recently used first. */
+    private final LinkedHashMap<String, CachedStatement> statements;
+
+    /** The checkouts not yet closed by the current borrower. */
+    private final List<StatementLease> openLeases = new ArrayList<>();
+
+    /** The uncached statements handed out to the current borrower. */
+    private final List<PreparedStatement> uncached = new ArrayList<>();
+
+    /**
+     * Instantiates a new statement cache.
+     *
+     * @param physical the physical connection the statements belong to
+     * @param maxSize the maximum number of cached statements
+     * @param hits the hit counter to increment
+     * @param misses the miss counter to increment
+     * @param evictions the eviction counter to increment
+     * @param bypasses the counter to increment when the cached statement is in use
+     */
+    public StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses,
+                          AtomicLong evictions, AtomicLong bypasses) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.bypasses = bypasses;
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) {
+                    return false;
+                }
+                StatementCache.this.evictions.incrementAndGet();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns a prepared statement for the given SQL, reusing the cached one when it is free.
+     *
+     * @param sql the SQL text
+     * @param owner the pooled connection handed to the caller, returned by getConnection()
+     * @return the prepared statement
+     * @throws SQLException if preparing the statement fails
+     */
+    public PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+        CachedStatement cached = statements.get(sql);
+        if (cached != null && !cached.inUse) {
+            hits.incrementAndGet();
+            return checkout(cached, owner);
+        }
+
+        misses.incrementAndGet();
+        PreparedStatement statement = physical.prepareStatement(sql);
+        if (cached != null) {
+            // The same SQL is already open on this connection; hand out a plain statement
+            bypasses.incrementAndGet();
+            uncached.add(statement);
+            return statement;
+        }
+        cached = new CachedStatement(statement);
+        statements.put(sql, cached);
+        return checkout(cached, owner);
+    }
+
+    /**
+     * Closes what the borrower of the connection left open: cached statements go
+     * back to the cache and uncached ones are closed. Called as the connection is
+     * returned to the pool; the borrower's statement proxies stop working.
+     */
+    public void release() {
+        for (StatementLease lease : new ArrayList<>(openLeases)) {
+            try {
+                lease.close();
+            } catch (SQLException e) {
+                System.err.println("Error returning cached statement: " + e.getMessage());
+            }
+        }
+        for (PreparedStatement statement : uncached) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing statement: " + e.getMessage());
+            }
+        }
+        uncached.clear();
+    }
+
+    /**
+     * Gets the number of cached statements.
+     *
+     * @return the cached statement count
+     */
+    public int size() {
+        return statements.size();
+    }
+
+    private PreparedStatement checkout(CachedStatement cached, Connection owner) {
+        cached.inUse = true;
+        StatementLease lease = new StatementLease(cached, owner);
+        openLeases.add(lease);
+        return (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, lease);
+    }
+
+    /**
+     * Closes all cached statements.
+     */
+    public void clear() {
+        for (CachedStatement cached : statements.values()) {
+            cached.evict();
+        }
+        statements.clear();
+    }
+
+    /**
+     * Charges the rows an update or batch changed to the DAO method running it.
+     */
+    private static void recordRows(String methodName, Object result) {
+        switch (methodName) {
+            case "executeUpdate":
+            case "executeLargeUpdate":
+                Metrics.recordRows(((Number) result).longValue());
+                break;
+            case "executeBatch":
+                for (int count : (int[]) result) {
+                    Metrics.recordRows(count); // SUCCESS_NO_INFO is negative and ignored
+                }
+                break;
+            case "executeLargeBatch":
+                for (long count : (long[]) result) {
+                    Metrics.recordRows(count);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * A physical prepared statement owned by the cache.
+     */
+    private static final class CachedStatement {
+
+        private final PreparedStatement physical;
+        private final List<ResultSet> openResultSets = new ArrayList<>();
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Returns the statement to the cache, closing anything the caller left open.
+         */
+        private void checkin() throws SQLException {
+            try {
+                for (ResultSet rs : openResultSets) {
+                    rs.close();
+                }
+                openResultSets.clear();
+                physical.clearParameters();
+                physical.clearBatch();
+            } finally {
+                inUse = false;
+                if (evicted) {
+                    physical.close();
+                }
+            }
+        }
+
+        /**
+         * Drops the statement from the cache, closing it now or once it is checked in.
+         */
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    physical.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing cached statement: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * A single checkout of a cached statement.
+     */
+    private final class StatementLease implements InvocationHandler {
+
+        private final CachedStatement cached;
+        private final Connection owner;
+        private boolean closed;
+
+        private StatementLease(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    close();
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return target == args[0];
+                case "hashCode":
+                    return System.identityHashCode(target);
+                case "toString":
+                    return "CachedStatement[" + cached.physical + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            Object result;
+            try {
+                result = method.invoke(cached.physical, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException) {
+                    Metrics.recordError();
+                }
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                cached.openResultSets.add((ResultSet) result);
+            } else {
+                recordRows(method.getName(), result);
+            }
+            return result;
+        }
+
+        private void close() throws SQLException {
+            if (!closed) {
+                closed = true;
+                openLeases.remove(this);
+                cached.checkin();
+            }
+        }
+    }
+}
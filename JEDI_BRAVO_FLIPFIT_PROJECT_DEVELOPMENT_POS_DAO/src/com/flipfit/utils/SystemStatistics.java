@@ -0,0 +1,227 @@
+package com.flipfit.utils;
+
+import com.flipfit.constants.DatabaseConstants;
+import com.flipfit.dao.GymAdminDAO;
+import com.flipfit.dao.impl.GymAdminDAOImpl;
+import com.flipfit.metrics.Instrumented;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The Class SystemStatistics.
+ * In-memory row counts for the admin dashboard, so reading them needs no query.
+ *
+ * Each count is a base loaded by one combined aggregate query plus the
+ * changes the DAOs have recorded since, after every successful insert or
+ * delete. A background thread reloads the base periodically, and deletes
+ * that cascade to other tables request an early reload, so any drift is
+ * short-lived.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName SystemStatistics
+ */
+public class SystemStatistics {
+
+    /**
+     * The counted tables, with the keys used in the statistics map.
+     */
+    public enum Counter {
+        USERS("total_users"),
+        GYM_OWNERS("total_gym_owners"),
+        CUSTOMERS("total_customers"),
+        BOOKINGS("total_bookings"),
+        GYM_CENTERS("total_gym_centers");
+
+        private final String key;
+
+        Counter(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    /** Running totals of the recorded changes; never reset. */
+    private static final Map<Counter, AtomicInteger> DELTAS = new EnumMap<>(Counter.class);
+
+    /** The counts from the last reconciliation, null until the first one. */
+    private static volatile Snapshot snapshot;
+
+    /** The time of the last successful reconciliation. */
+    private static volatile long lastReconciledMillis;
+
+    /** The DAO running the combined aggregate query. */
+    private static GymAdminDAO adminDAO;
+
+    /** The background reconciler, started on first use. */
+    private static volatile ScheduledExecutorService reconciler;
+
+    /** Serialises reconciliations without blocking readers. */
+    private static final Object RECONCILE_LOCK = new Object();
+
+    static {
+        for (Counter counter : Counter.values()) {
+            DELTAS.put(counter, new AtomicInteger());
+        }
+    }
+
+    /**
+     * The counts from one reconciliation together with the totals in DELTAS
+     * they already include, published as one object so that readers never
+     * pair a base with the wrong totals.
+     */
+    private static final class Snapshot {
+
+        private final Map<Counter, Integer> base;
+
+        private final Map<Counter, Integer> included;
+
+        private Snapshot(Map<Counter, Integer> base, Map<Counter, Integer> included) {
+            this.base = base;
+            this.included = included;
+        }
+
+        private int count(Counter counter) {
+            return base.get(counter) + DELTAS.get(counter).get() - included.get(counter);
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private SystemStatistics() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Records an inserted row.
+     *
+     * @param counter the table the row was inserted into
+     */
+    public static void increment(Counter counter) {
+        DELTAS.get(counter).incrementAndGet();
+    }
+
+    /**
+     * Records a deleted row.
+     *
+     * @param counter the table the row was deleted from
+     */
+    public static void decrement(Counter counter) {
+        DELTAS.get(counter).decrementAndGet();
+    }
+
+    /**
+     * Asks the background thread to reconcile now, e.g. after a delete that
+     * cascades to rows the DAOs did not count themselves.
+     */
+    public static void requestReconcile() {
+        ScheduledExecutorService current = startReconciler();
+        current.execute(SystemStatistics::reconcile);
+    }
+
+    /**
+     * Gets the current statistics, loading them from the database on first use only.
+     *
+     * @return the counts keyed by total_users, total_gym_owners, total_customers, total_bookings and total_gym_centers
+     */
+    public static Map<String, Integer> getStatistics() {
+        startReconciler();
+        if (snapshot == null) {
+            reconcile();
+        }
+        Snapshot current = snapshot;
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        for (Counter counter : Counter.values()) {
+            int count = current == null ? DELTAS.get(counter).get() : current.count(counter);
+            stats.put(counter.getKey(), Math.max(0, count));
+        }
+        return stats;
+    }
+
+    /**
+     * Reloads the base counts with the combined aggregate query.
+     *
+     * The recorded totals are read just before the query and published with
+     * its counts as one snapshot, so later changes are added on top and none
+     * is lost. Some drift remains: a change recorded after that read that
+     * the query also sees, because it was committed just before the query
+     * started or while it ran, is counted twice, once in the base and once
+     * as a change, until the next reconciliation.
+     *
+     * @return true if the counts were reloaded
+     */
+    public static boolean reconcile() {
+        synchronized (RECONCILE_LOCK) {
+            Map<Counter, Integer> included = new EnumMap<>(Counter.class);
+            for (Counter counter : Counter.values()) {
+                included.put(counter, DELTAS.get(counter).get());
+            }
+
+            Map<String, Integer> loaded = getAdminDAO().getSystemStatistics();
+            if (loaded == null || loaded.isEmpty()) {
+                return false;
+            }
+
+            Map<Counter, Integer> fresh = new EnumMap<>(Counter.class);
+            for (Counter counter : Counter.values()) {
+                fresh.put(counter, loaded.getOrDefault(counter.getKey(), 0));
+            }
+            snapshot = new Snapshot(fresh, included);
+            lastReconciledMillis = System.currentTimeMillis();
+            return true;
+        }
+    }
+
+    /**
+     * Gets the time of the last successful reconciliation.
+     *
+     * @return the time in milliseconds, 0 if the counts were never loaded
+     */
+    public static long getLastReconciledMillis() {
+        return lastReconciledMillis;
+    }
+
+    /**
+     * Stops the background reconciler.
+     */
+    public static synchronized void shutdown() {
+        if (reconciler != null) {
+            reconciler.shutdownNow();
+            reconciler = null;
+        }
+    }
+
+    private static synchronized GymAdminDAO getAdminDAO() {
+        if (adminDAO == null) {
+            adminDAO = Instrumented.wrap(GymAdminDAO.class, new GymAdminDAOImpl());
+        }
+        return adminDAO;
+    }
+
+    private static ScheduledExecutorService startReconciler() {
+        ScheduledExecutorService current = reconciler;
+        return current != null ? current : createReconciler();
+    }
+
+    private static synchronized ScheduledExecutorService createReconciler() {
+        if (reconciler == null) {
+            reconciler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "flipfit-statistics-reconciler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = DatabaseConstants.STATISTICS_RECONCILE_INTERVAL_MS;
+            reconciler.scheduleWithFixedDelay(SystemStatistics::reconcile, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        return reconciler;
+    }
+}
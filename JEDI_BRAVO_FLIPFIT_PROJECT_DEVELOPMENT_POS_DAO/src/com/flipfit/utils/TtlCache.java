@@ -0,0 +1,259 @@
+package com.flipfit.utils;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * The Class TtlCache.
+ * Bounded read-through cache whose entries expire a fixed time after loading.
+ * Once full, the least recently used entry is evicted.
+ *
+ * Concurrent misses on the same key share one load, so a burst of identical
+ * lookups costs a single query. Null results are not cached. A load that was
+ * in flight when the cache was invalidated is returned to its callers but not
+ * stored, so an invalidation is never undone by a stale value; values loaded
+ * elsewhere are put with the generation read before their load for the same
+ * reason.
+ *
+ * @author JEDI-BRAVO
+ * @ClassName TtlCache
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class TtlCache<K, V> {
+
+    /** The maximum number of entries. */
+    private final int maxSize;
+
+    /** How long an entry stays valid, in nanoseconds. */
+    private final long ttlNanos;
+
+    /** The entries in access order, guarded by this cache. */
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    /** The loads currently in flight. */
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    /** Bumped by every invalidation, so in-flight loads can tell they are stale. */
+    private long generation;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
+
+    /**
+     * Instantiates a new TTL cache.
+     *
+     * @param maxSize the maximum number of entries
+     * @param ttlMillis how long an entry stays valid after it is loaded
+     */
+    public TtlCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("Cache size and TTL must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a cached value without loading it.
+     *
+     * @param key the key
+     * @return the value, or null if it is not cached or has expired
+     */
+    public V get(K key) {
+        V value = lookup(key);
+        if (value != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Gets a value, loading and caching it on a miss.
+     *
+     * @param key the key
+     * @param loader loads the value, returning null if there is none
+     * @return the value, or null if the loader found none
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = lookup(key);
+        if (value != null) {
+            hitCount.incrementAndGet();
+            return value;
+        }
+        missCount.incrementAndGet();
+
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = loading.putIfAbsent(key, own);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+
+        try {
+            long startGeneration;
+            synchronized (this) {
+                startGeneration = generation;
+            }
+            loadCount.incrementAndGet();
+            value = loader.apply(key);
+            if (value != null) {
+                synchronized (this) {
+                    if (generation == startGeneration) {
+                        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+                    }
+                }
+            }
+            own.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, own);
+        }
+    }
+
+    /**
+     * Gets the current generation, to read before loading a value to put.
+     *
+     * @return the number of invalidations so far
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches a value loaded elsewhere, unless the cache was invalidated since
+     * the load began.
+     *
+     * @param key the key
+     * @param value the value, ignored if null
+     * @param loadGeneration the generation read before the value was loaded
+     * @return true if the value was cached
+     */
+    public synchronized boolean put(K key, V value, long loadGeneration) {
+        if (value == null || generation != loadGeneration) {
+            return false;
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        return true;
+    }
+
+    /**
+     * Removes one entry.
+     *
+     * @param key the key
+     */
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every entry matching the predicate; O(n) in the cache size.
+     *
+     * @param predicate tests each key and value
+     */
+    public synchronized void invalidateIf(BiPredicate<? super K, ? super V> predicate) {
+        generation++;
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = it.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached entries, including any not yet found expired.
+     *
+     * @return the size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache.
+     *
+     * @return the hit ratio between 0 and 1
+     */
+    public double getHitRatio() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Gets the cache statistics.
+     *
+     * @return the statistics keyed by name
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) size());
+        stats.put("hits", hitCount.get());
+        stats.put("misses", missCount.get());
+        stats.put("hit_ratio_percent", Math.round(getHitRatio() * 100));
+        stats.put("loads", loadCount.get());
+        stats.put("evictions", evictionCount.get());
+        stats.put("expirations", expiredCount.get());
+        return stats;
+    }
+
+    private synchronized V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt >= 0) {
+            entries.remove(key);
+            expiredCount.incrementAndGet();
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * A cached value and its expiry time.
+     */
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}